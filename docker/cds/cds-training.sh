@@ -0,0 +1,72 @@
+#!/bin/sh
+# Обучающий прогон AppCDS: приложение из распакованного jar запускается с -XX:ArchiveClassesAtExit
+# против временного Postgres, проходит register, login, validate и refresh, после остановки JVM
+# записывает динамический архив классов <app-dir>/app.jsa.
+# Запускается в этапе cds Dockerfile на том же образе JRE, что и runtime: архив привязан к сборке JVM.
+#
+# Использование: cds-training.sh <app-dir>   (каталог после java -Djarmode=tools -jar app.jar extract)
+# Параметры: CDS_TRAINING_ITERATIONS (по умолчанию 200), CDS_TRAINING_JAVA_OPTS
+set -eu
+
+APP_DIR=${1:-application}
+ARCHIVE="$APP_DIR/app.jsa"
+ITERATIONS=${CDS_TRAINING_ITERATIONS:-200}
+JAVA_OPTS=${CDS_TRAINING_JAVA_OPTS:-"-XX:+UseContainerSupport -XX:MaxRAMPercentage=75.0 -XX:+UseG1GC"}
+PGDATA=/tmp/cds-pgdata
+BASE_URL=http://127.0.0.1:8081
+PASSWORD='CdsTraining#2025'
+
+mkdir -p /run/postgresql "$PGDATA"
+chown postgres:postgres /run/postgresql "$PGDATA"
+su postgres -c "initdb -D $PGDATA -U postgres --auth=trust" > /dev/null
+su postgres -c "pg_ctl -D $PGDATA -o '-c listen_addresses=127.0.0.1' -w start" > /dev/null
+
+# shellcheck disable=SC2086
+java $JAVA_OPTS -XX:ArchiveClassesAtExit="$ARCHIVE" \
+    -Dspring.profiles.active=cds-training -jar "$APP_DIR/app.jar" &
+APP_PID=$!
+
+ready=0
+for _ in $(seq 1 120); do
+    if curl -fs "$BASE_URL/actuator/health" > /dev/null; then
+        ready=1
+        break
+    fi
+    sleep 1
+done
+if [ "$ready" -ne 1 ]; then
+    echo "Application did not become healthy" >&2
+    kill "$APP_PID" || true
+    exit 1
+fi
+
+post() {
+    curl -fs -X POST -H 'Content-Type: application/json' -d "$2" "$BASE_URL/auth/v1$1"
+}
+
+field() {
+    sed -n "s/.*\"$1\":\"\([^\"]*\)\".*/\1/p"
+}
+
+i=1
+while [ "$i" -le "$ITERATIONS" ]; do
+    login="cds-$i@training.invalid"
+    post /register "{\"login\":\"$login\",\"password\":\"$PASSWORD\",\"role\":\"USER\"}" > /dev/null
+    tokens=$(post /login "{\"login\":\"$login\",\"password\":\"$PASSWORD\"}")
+    access=$(echo "$tokens" | field accessToken)
+    refresh=$(echo "$tokens" | field refreshToken)
+    post /validate "{\"token\":\"$access\"}" > /dev/null
+    curl -fs -H "Authorization: Bearer $access" "$BASE_URL/auth/v1/forward-auth" > /dev/null
+    post /refresh "{\"refreshToken\":\"$refresh\"}" > /dev/null
+    i=$((i + 1))
+done
+
+# Архив записывается при штатном завершении JVM
+kill -TERM "$APP_PID"
+wait "$APP_PID" || true
+
+su postgres -c "pg_ctl -D $PGDATA -m fast stop" > /dev/null
+rm -rf "$PGDATA"
+
+test -s "$ARCHIVE"
+echo "CDS archive written: $ARCHIVE ($(du -h "$ARCHIVE" | cut -f1))"
@@ -0,0 +1,75 @@
+#!/bin/sh
+# Сравнение старта образа с архивом AppCDS и без него (JDK CDS по умолчанию остается включенным).
+# Для каждого режима RUNS запусков против Postgres в отдельном контейнере; выводятся:
+#   ready_ms       - от docker run до первого 200 на /actuator/health
+#   started_s      - "Started AuthenticationServiceApplication in N seconds" из лога Spring
+#   register_ms, login_ms, validate_ms - время первых запросов (холодный путь)
+#
+# Использование: docker/cds/measure-startup.sh [image] [runs]
+set -eu
+
+IMAGE=${1:-authentication-service:latest}
+RUNS=${2:-5}
+NETWORK=cds-measure
+DB=cds-measure-db
+APP=cds-measure-app
+PORT=18081
+BASE_OPTS="-XX:+UseContainerSupport -XX:MaxRAMPercentage=75.0 -XX:+UseG1GC"
+PASSWORD='Measure#2025'
+
+cleanup() {
+    docker rm -f "$APP" "$DB" > /dev/null 2>&1 || true
+    docker network rm "$NETWORK" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+docker network create "$NETWORK" > /dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+    -e POSTGRES_DB=auth_db -e POSTGRES_PASSWORD=postgres postgres:16 > /dev/null
+until docker exec "$DB" pg_isready -U postgres -d auth_db > /dev/null 2>&1; do sleep 1; done
+# Профиль kubernetes образа только сверяет схему (auth.migrations.mode=validate) - миграции отдельным запуском
+docker run --rm --network "$NETWORK" -e SPRING_PROFILES_ACTIVE=kubernetes,migrate \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/auth_db" \
+    -e SPRING_DATASOURCE_USERNAME=postgres -e SPRING_DATASOURCE_PASSWORD=postgres \
+    -e INTERNAL_API_KEY=measure-internal-key "$IMAGE" > /dev/null
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+request_ms() {
+    curl -s -o /dev/null -w '%{time_total}' -X POST -H 'Content-Type: application/json' \
+        -d "$2" "http://localhost:$PORT/auth/v1$1" | awk '{ printf "%.0f", $1 * 1000 }'
+}
+
+measure() {
+    label=$1
+    java_opts=$2
+    run=1
+    while [ "$run" -le "$RUNS" ]; do
+        started=$(now_ms)
+        docker run -d --name "$APP" --network "$NETWORK" -p "$PORT:8081" \
+            -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/auth_db" \
+            -e SPRING_DATASOURCE_USERNAME=postgres -e SPRING_DATASOURCE_PASSWORD=postgres \
+            -e GRPC_SERVER_ENABLED=false -e JAVA_OPTS="$java_opts" "$IMAGE" > /dev/null
+        until curl -fs "http://localhost:$PORT/actuator/health" > /dev/null 2>&1; do sleep 0.05; done
+        ready=$(($(now_ms) - started))
+
+        login="measure-$label-$run-$(date +%s)@example.com"
+        register=$(request_ms /register "{\"login\":\"$login\",\"password\":\"$PASSWORD\",\"role\":\"USER\"}")
+        login_ms=$(request_ms /login "{\"login\":\"$login\",\"password\":\"$PASSWORD\"}")
+        token=$(curl -s -X POST -H 'Content-Type: application/json' \
+            -d "{\"login\":\"$login\",\"password\":\"$PASSWORD\"}" "http://localhost:$PORT/auth/v1/login" \
+            | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+        validate=$(request_ms /validate "{\"token\":\"$token\"}")
+        spring=$(docker logs "$APP" 2>&1 | sed -n 's/.*Started AuthenticationServiceApplication in \([0-9.]*\) seconds.*/\1/p')
+
+        printf '%-8s %4d %10d %10s %12s %9s %12s\n' "$label" "$run" "$ready" "$spring" "$register" "$login_ms" "$validate"
+        docker rm -f "$APP" > /dev/null
+        run=$((run + 1))
+    done
+}
+
+printf '%-8s %4s %10s %10s %12s %9s %12s\n' mode run ready_ms started_s register_ms login_ms validate_ms
+measure no-cds "$BASE_OPTS"
+measure appcds "$BASE_OPTS -XX:SharedArchiveFile=/app/application/app.jsa"
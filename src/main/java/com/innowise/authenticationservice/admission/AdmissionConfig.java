@@ -0,0 +1,31 @@
+package com.innowise.authenticationservice.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Регистрирует LoadSheddingFilter перед цепочкой Spring Security, чтобы отбрасываемый запрос
+ * не тратил время на безопасность и разбор тела. Отключается через auth.admission.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            SaturationMonitor saturationMonitor, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${auth.admission.retry-after-seconds:2}") long retryAfterSeconds) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+                new LoadSheddingFilter(saturationMonitor, objectMapper, meterRegistry, retryAfterSeconds));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
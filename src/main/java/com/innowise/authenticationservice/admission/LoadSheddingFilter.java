@@ -0,0 +1,64 @@
+package com.innowise.authenticationservice.admission;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.authenticationservice.exception.ErrorResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Фильтр допуска запросов: при насыщении узла отбрасывает запросы, которые на текущем уровне
+ * не допускаются (SaturationLevel.sheds), ответом 503 с заголовком Retry-After до Spring Security и контроллеров.
+ * Первыми отбрасываются register и create-token, при CRITICAL - также login и logout;
+ * проверка и обновление токенов проходят всегда и сохраняют свою задержку.
+ * Отброшенные запросы считаются в метрике auth.admission.shed{priority}.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final SaturationMonitor saturationMonitor;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+    private final Map<RequestPriority, Counter> shedCounters = new EnumMap<>(RequestPriority.class);
+
+    public LoadSheddingFilter(SaturationMonitor saturationMonitor, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry, long retryAfterSeconds) {
+        this.saturationMonitor = saturationMonitor;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shedCounters.put(priority, Counter.builder("auth.admission.shed")
+                    .description("Requests rejected by load shedding")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.of(request);
+        if (saturationMonitor.current().level().sheds(priority)) {
+            shedCounters.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service is overloaded, retry later"));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
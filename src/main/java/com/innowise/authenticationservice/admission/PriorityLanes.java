@@ -0,0 +1,101 @@
+package com.innowise.authenticationservice.admission;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Отдельные пулы потоков для дешевых и дорогих обработчиков AuthController.
+ * latency - validate, refresh, forward-auth: короткие операции, от которых зависят остальные сервисы;
+ * throughput - login, register, create-token: BCrypt, по умолчанию не больше потоков, чем ядер.
+ * У каждой очереди свой предел параллельности и ограниченная очередь ожидания; при переполнении задача
+ * отклоняется (RejectedExecutionException), и клиент получает 503 с Retry-After (GlobalExceptionHandler).
+ * Обработчики возвращают WebAsyncTask: поток Tomcat освобождается сразу после разбора запроса,
+ * поэтому сотни одновременных login не занимают потоки, на которых выполняется validate.
+ * Обработчик, дождавшийся потока уже после таймаута (клиент получил 503), не выполняется:
+ * иначе register, отклоненный по таймауту, все равно создал бы пользователя, и повтор клиента
+ * получил бы "Login already exists".
+ * Пулы публикуются в метриках executor.* с тегом name (auth.lane.latency, auth.lane.throughput).
+ */
+@Component
+public class PriorityLanes implements MeterBinder, DisposableBean {
+
+    private final ThreadPoolTaskExecutor latency;
+    private final ThreadPoolTaskExecutor throughput;
+    private final long timeoutMillis;
+
+    public PriorityLanes(@Value("${auth.lanes.latency.concurrency:16}") int latencyConcurrency,
+                         @Value("${auth.lanes.latency.queue-capacity:2000}") int latencyQueueCapacity,
+                         @Value("${auth.lanes.throughput.concurrency:0}") int throughputConcurrency,
+                         @Value("${auth.lanes.throughput.queue-capacity:200}") int throughputQueueCapacity,
+                         @Value("${auth.lanes.timeout-ms:10000}") long timeoutMillis) {
+        this.latency = executor("auth-latency-", latencyConcurrency, latencyQueueCapacity);
+        this.throughput = executor("auth-throughput-",
+                throughputConcurrency > 0 ? throughputConcurrency : Runtime.getRuntime().availableProcessors(),
+                throughputQueueCapacity);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // Выполняет обработчик в очереди latency.
+    public <T> WebAsyncTask<T> latency(Callable<T> handler) {
+        return task(latency, handler);
+    }
+
+    // Выполняет обработчик в очереди throughput.
+    public <T> WebAsyncTask<T> throughput(Callable<T> handler) {
+        return task(throughput, handler);
+    }
+
+    // Задачи, ожидающие свободного потока в очереди throughput (фактически очередь BCrypt).
+    public int throughputQueued() {
+        return throughput.getThreadPoolExecutor().getQueue().size();
+    }
+
+    public int throughputQueueCapacity() {
+        return throughput.getQueueCapacity();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(latency.getThreadPoolExecutor(), "auth.lane.latency", Tags.empty()).bindTo(registry);
+        new ExecutorServiceMetrics(throughput.getThreadPoolExecutor(), "auth.lane.throughput", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        latency.shutdown();
+        throughput.shutdown();
+    }
+
+    // Срок отсчитывается при постановке в очередь; просроченный обработчик завершается AsyncRequestTimeoutException.
+    private <T> WebAsyncTask<T> task(ThreadPoolTaskExecutor executor, Callable<T> handler) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        return new WebAsyncTask<>(timeoutMillis, executor, () -> {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new AsyncRequestTimeoutException();
+            }
+            return handler.call();
+        });
+    }
+
+    private static ThreadPoolTaskExecutor executor(String threadNamePrefix, int concurrency, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.innowise.authenticationservice.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Приоритет HTTP-запроса при перегрузке: запросы низкого приоритета отбрасываются первыми.
+ * HIGH - проверка и обновление токенов, forward-auth, синхронизация с user-service и actuator (пробы, метрики):
+ * от них зависят все остальные сервисы, они не отбрасываются никогда.
+ * LOW - регистрация и create-token: дорогой BCrypt encode, клиент может повторить позже.
+ * NORMAL - все остальное (login, logout).
+ */
+public enum RequestPriority {
+    HIGH,
+    NORMAL,
+    LOW;
+
+    private static final RequestMatcher HIGH_PRIORITY = anyOf(
+            "/auth/v1/validate", "/auth/v1/forward-auth", "/auth/v1/refresh",
+            "/auth/v1/internal/sync/users/**", "/actuator/**");
+    private static final RequestMatcher LOW_PRIORITY = anyOf("/auth/v1/register", "/auth/v1/create-token");
+
+    public static RequestPriority of(HttpServletRequest request) {
+        if (HIGH_PRIORITY.matches(request)) {
+            return HIGH;
+        }
+        if (LOW_PRIORITY.matches(request)) {
+            return LOW;
+        }
+        return NORMAL;
+    }
+
+    private static RequestMatcher anyOf(String... patterns) {
+        PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+        RequestMatcher[] matchers = new RequestMatcher[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            matchers[i] = paths.matcher(patterns[i]);
+        }
+        return new OrRequestMatcher(matchers);
+    }
+}
@@ -0,0 +1,21 @@
+package com.innowise.authenticationservice.admission;
+
+/**
+ * Замер насыщения узла.
+ *
+ * @param hikariPending   потоки, ожидающие соединение из пула Hikari
+ * @param hikariMax       максимальный размер пула
+ * @param bcryptInFlight  хеширования BCrypt, выполняющиеся сейчас
+ * @param bcryptQueued    запросы login/register/create-token, ожидающие потока в очереди throughput
+ * @param bcryptQueueCapacity размер очереди throughput
+ * @param tomcatBusy      занятые потоки Tomcat
+ * @param tomcatMax       максимальное число потоков Tomcat
+ * @param p99Millis       p99 времени операций auth.operation за последнее окно
+ * @param pressure        максимум из отношений сигналов к их пределам (1.0 - предел достигнут)
+ * @param level           уровень насыщения
+ */
+public record Saturation(int hikariPending, int hikariMax, int bcryptInFlight, int bcryptQueued, int bcryptQueueCapacity,
+                         int tomcatBusy, int tomcatMax, double p99Millis, double pressure, SaturationLevel level) {
+
+    static final Saturation IDLE = new Saturation(0, 0, 0, 0, 0, 0, 0, 0, 0, SaturationLevel.NORMAL);
+}
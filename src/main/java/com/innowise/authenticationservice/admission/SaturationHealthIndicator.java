@@ -0,0 +1,79 @@
+package com.innowise.authenticationservice.admission;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Индикатор saturation для группы readiness: при уровне CRITICAL возвращает статус SATURATED,
+ * и перегруженный под выводится из балансировки, пока давление не опустится ниже порога отбрасывания.
+ * SATURATED не входит в порядок статусов корневого /actuator/health (management.endpoint.health.status.order),
+ * поэтому не влияет ни на общий статус, ни на HEALTHCHECK контейнера; в 503 его переводит только группа readiness
+ * (application-kubernetes.properties).
+ * Вывод из балансировки ограничен auth.admission.readiness-max-out-ms на один эпизод CRITICAL: если причина
+ * общая для всех реплик, поды возвращаются в балансировку, а сброс нагрузки продолжает LoadSheddingFilter.
+ * В деталях - текущие сигналы насыщения.
+ */
+@Component
+public class SaturationHealthIndicator implements HealthIndicator {
+
+    public static final Status SATURATED = new Status("SATURATED", "Node is saturated, readiness withdrawn");
+
+    private final SaturationMonitor saturationMonitor;
+    private final long maxOutMillis;
+    private final Clock clock;
+
+    // Начало текущего эпизода CRITICAL (мс), -1 - узел не в CRITICAL
+    private volatile long criticalSince = -1;
+
+    @Autowired
+    public SaturationHealthIndicator(SaturationMonitor saturationMonitor,
+                                     @Value("${auth.admission.readiness-max-out-ms:60000}") long maxOutMillis) {
+        this(saturationMonitor, maxOutMillis, Clock.systemUTC());
+    }
+
+    SaturationHealthIndicator(SaturationMonitor saturationMonitor, long maxOutMillis, Clock clock) {
+        this.saturationMonitor = saturationMonitor;
+        this.maxOutMillis = maxOutMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public Health health() {
+        Saturation saturation = saturationMonitor.current();
+        boolean withdrawn = withdrawReadiness(saturation.level());
+        return (withdrawn ? Health.status(SATURATED) : Health.up())
+                .withDetail("level", saturation.level())
+                .withDetail("pressure", saturation.pressure())
+                .withDetail("hikariPending", saturation.hikariPending())
+                .withDetail("hikariMax", saturation.hikariMax())
+                .withDetail("bcryptInFlight", saturation.bcryptInFlight())
+                .withDetail("bcryptQueued", saturation.bcryptQueued())
+                .withDetail("bcryptQueueCapacity", saturation.bcryptQueueCapacity())
+                .withDetail("tomcatBusy", saturation.tomcatBusy())
+                .withDetail("tomcatMax", saturation.tomcatMax())
+                .withDetail("p99Millis", saturation.p99Millis())
+                .withDetail("readinessCapped", saturation.level() == SaturationLevel.CRITICAL && !withdrawn)
+                .build();
+    }
+
+    // CRITICAL выводит под из балансировки не дольше maxOutMillis подряд.
+    private boolean withdrawReadiness(SaturationLevel level) {
+        if (level != SaturationLevel.CRITICAL) {
+            criticalSince = -1;
+            return false;
+        }
+        long now = clock.millis();
+        long since = criticalSince;
+        if (since < 0) {
+            criticalSince = now;
+            return true;
+        }
+        return now - since < maxOutMillis;
+    }
+}
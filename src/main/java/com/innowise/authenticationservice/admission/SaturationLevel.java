@@ -0,0 +1,32 @@
+package com.innowise.authenticationservice.admission;
+
+/**
+ * Уровень насыщения узла, вычисляемый SaturationMonitor по давлению (максимум из отношений сигналов к их пределам).
+ * ELEVATED - отбрасываются запросы низкого приоритета; CRITICAL - также обычного, а readiness переходит в OUT_OF_SERVICE.
+ */
+public enum SaturationLevel {
+    NORMAL,
+    ELEVATED,
+    CRITICAL;
+
+    // Отбрасывается ли на этом уровне запрос указанного приоритета. Запросы HIGH не отбрасываются никогда.
+    public boolean sheds(RequestPriority priority) {
+        return switch (priority) {
+            case LOW -> this != NORMAL;
+            case NORMAL -> this == CRITICAL;
+            case HIGH -> false;
+        };
+    }
+
+    // Уровень для нового давления. Из CRITICAL узел выходит, только когда давление опустится ниже порога отбрасывания,
+    // чтобы readiness не переключалась на каждом замере около критического порога.
+    static SaturationLevel of(double pressure, SaturationLevel previous, double shedThreshold, double criticalThreshold) {
+        if (pressure >= criticalThreshold) {
+            return CRITICAL;
+        }
+        if (pressure >= shedThreshold) {
+            return previous == CRITICAL ? CRITICAL : ELEVATED;
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,187 @@
+package com.innowise.authenticationservice.admission;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.security.PasswordEncoder;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Периодически замеряет насыщение узла по живым сигналам и хранит последний замер для фильтра
+ * LoadSheddingFilter и индикатора SaturationHealthIndicator (чтение на каждом запросе - одно volatile поле).
+ * Сигналы и их пределы:
+ * ожидающие соединение потоки Hikari / размер пула;
+ * запросы с BCrypt, ожидающие в очереди throughput (PriorityLanes) / размер очереди;
+ * занятые потоки Tomcat / максимум потоков;
+ * p99 auth.operation за последнее окно / auth.admission.p99-target-ms - только для операций очереди latency
+ * (validate, refresh): login - это в основном время BCrypt, а register включает вызов user-service, и задержка
+ * внешней зависимости подняла бы давление одновременно на всех репликах.
+ * Давление - максимум из этих отношений; уровень по порогам auth.admission.shed-threshold и critical-threshold.
+ * Публикуется в метриках auth.admission.pressure и auth.admission.level.
+ * Замеры выполняет собственный поток saturation-sampler, а не общий планировщик @Scheduled: задачи, ждущие
+ * медленную БД, не должны останавливать замеры и оставлять узел на последнем уровне.
+ */
+@Slf4j
+@Component
+public class SaturationMonitor implements SmartLifecycle {
+
+    private static final double P99 = 0.99;
+    // Операции, p99 которых входит в давление: очередь latency, без вызовов внешних сервисов
+    private static final List<String> P99_OPERATIONS = List.of(AuthMetrics.VALIDATE, AuthMetrics.REFRESH);
+
+    // Пул Hikari за DataSource (в том числе обернутым прокси); null, если пул не Hikari.
+    private final HikariDataSource hikari;
+    private final PasswordEncoder passwordEncoder;
+    private final PriorityLanes priorityLanes;
+    private final MeterRegistry meterRegistry;
+    private final double shedThreshold;
+    private final double criticalThreshold;
+    private final long p99TargetMillis;
+    private final long sampleIntervalMillis;
+
+    private volatile ScheduledExecutorService sampler;
+    // Пул потоков коннектора Tomcat; null, пока веб-сервер не запущен.
+    private volatile ThreadPoolExecutor tomcatExecutor;
+    private volatile Saturation current = Saturation.IDLE;
+
+    public SaturationMonitor(DataSource dataSource, PasswordEncoder passwordEncoder, PriorityLanes priorityLanes,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.admission.shed-threshold:0.8}") double shedThreshold,
+                             @Value("${auth.admission.critical-threshold:1.0}") double criticalThreshold,
+                             @Value("${auth.admission.p99-target-ms:500}") long p99TargetMillis,
+                             @Value("${auth.admission.sample-interval-ms:250}") long sampleIntervalMillis) {
+        this.hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        this.passwordEncoder = passwordEncoder;
+        this.priorityLanes = priorityLanes;
+        this.meterRegistry = meterRegistry;
+        this.shedThreshold = shedThreshold;
+        this.criticalThreshold = criticalThreshold;
+        this.p99TargetMillis = p99TargetMillis;
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        Gauge.builder("auth.admission.pressure", this, monitor -> monitor.current().pressure())
+                .description("Saturation pressure: max of signal-to-limit ratios")
+                .register(meterRegistry);
+        Gauge.builder("auth.admission.level", this, monitor -> monitor.current().level().ordinal())
+                .description("Saturation level: 0 normal, 1 elevated, 2 critical")
+                .register(meterRegistry);
+    }
+
+    // Последний замер.
+    public Saturation current() {
+        return current;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (event.getWebServer() instanceof TomcatWebServer tomcat) {
+            Executor executor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+            if (executor instanceof ThreadPoolExecutor threadPool) {
+                tomcatExecutor = threadPool;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("saturation-sampler").factory());
+        executor.scheduleWithFixedDelay(this::sample, 0, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+        sampler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = sampler;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        sampler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return sampler != null;
+    }
+
+    void sample() {
+        // Исключение отменило бы все следующие запуски scheduleWithFixedDelay
+        try {
+            Saturation previous = current;
+            current = measure(previous.level());
+            if (current.level() != previous.level()) {
+                log.warn("Saturation level changed {} -> {}: {}", previous.level(), current.level(), current);
+            }
+        } catch (RuntimeException e) {
+            log.error("Saturation sample failed", e);
+        }
+    }
+
+    Saturation measure(SaturationLevel previous) {
+        int hikariPending = 0;
+        int hikariMax = 0;
+        if (hikari != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                hikariPending = pool.getThreadsAwaitingConnection();
+                hikariMax = hikari.getMaximumPoolSize();
+            }
+        }
+        int tomcatBusy = 0;
+        int tomcatMax = 0;
+        ThreadPoolExecutor threadPool = tomcatExecutor;
+        if (threadPool != null) {
+            tomcatBusy = threadPool.getActiveCount();
+            tomcatMax = threadPool.getMaximumPoolSize();
+        }
+        int bcryptInFlight = passwordEncoder.inFlight();
+        int bcryptQueued = priorityLanes.throughputQueued();
+        int bcryptQueueCapacity = priorityLanes.throughputQueueCapacity();
+        double p99Millis = recentP99Millis();
+
+        double pressure = Math.max(Math.max(ratio(hikariPending, hikariMax), ratio(bcryptQueued, bcryptQueueCapacity)),
+                Math.max(ratio(tomcatBusy, tomcatMax), p99Millis / p99TargetMillis));
+        SaturationLevel level = SaturationLevel.of(pressure, previous, shedThreshold, criticalThreshold);
+        return new Saturation(hikariPending, hikariMax, bcryptInFlight, bcryptQueued, bcryptQueueCapacity,
+                tomcatBusy, tomcatMax, p99Millis, pressure, level);
+    }
+
+    // Наибольший p99 среди таймеров auth.operation операций P99_OPERATIONS. Значения берутся из скользящего окна
+    // Micrometer (management.metrics.distribution.percentiles / expiry), поэтому отражают последние минуты, а не время с запуска.
+    private double recentP99Millis() {
+        double p99 = 0;
+        for (Timer timer : meterRegistry.find(AuthMetrics.OPERATION_TIMER)
+                .tag("operation", P99_OPERATIONS::contains).timers()) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == P99) {
+                    p99 = Math.max(p99, value.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return p99;
+    }
+
+    private static double ratio(int value, int limit) {
+        return limit > 0 ? (double) value / limit : 0;
+    }
+}
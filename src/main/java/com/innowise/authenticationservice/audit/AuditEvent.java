@@ -0,0 +1,15 @@
+package com.innowise.authenticationservice.audit;
+
+import java.time.Instant;
+
+/**
+ * Запись журнала аудита аутентификации.
+ *
+ * @param occurredAt момент события
+ * @param action     операция (имена из AuthMetrics: login, register, refresh, logout, delete)
+ * @param login      пользователь; null, если его не удалось определить (например, неизвестный refresh токен)
+ * @param success    успешна ли операция
+ * @param reason     причина отказа (как в метрике auth.failures); null для успешных операций
+ */
+public record AuditEvent(Instant occurredAt, String action, String login, boolean success, String reason) {
+}
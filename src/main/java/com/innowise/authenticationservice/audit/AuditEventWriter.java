@@ -0,0 +1,86 @@
+package com.innowise.authenticationservice.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Запись пачки событий аудита в auth_audit_events одной командой COPY (текстовый формат).
+ * Пачка фиксируется целиком или не фиксируется вовсе - при ошибке ее можно повторить.
+ */
+@Component
+public class AuditEventWriter {
+
+    private static final String COPY_SQL =
+            "COPY public.auth_audit_events (occurred_at, action, login, success, reason) FROM STDIN";
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneOffset.UTC);
+    private static final String NULL = "\\N";
+    // Размер колонки login: более длинный логин из запроса не должен ломать запись всей пачки
+    static final int MAX_LOGIN_LENGTH = 255;
+
+    private final DataSource dataSource;
+
+    public AuditEventWriter(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void write(List<AuditEvent> events) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY_SQL), StandardCharsets.UTF_8))) {
+                for (AuditEvent event : events) {
+                    writeRow(out, event);
+                }
+            }
+        }
+    }
+
+    static void writeRow(Writer out, AuditEvent event) throws IOException {
+        out.write(TIMESTAMP.format(event.occurredAt()));
+        out.write('\t');
+        out.write(event.action());
+        out.write('\t');
+        String login = event.login();
+        out.write(escape(login != null && login.length() > MAX_LOGIN_LENGTH ? login.substring(0, MAX_LOGIN_LENGTH) : login));
+        out.write('\t');
+        out.write(event.success() ? "t" : "f");
+        out.write('\t');
+        out.write(escape(event.reason()));
+        out.write('\n');
+    }
+
+    // Логин при неудачном входе приходит от клиента как есть: экранируем спецсимволы текстового формата COPY.
+    static String escape(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '\t' -> escaped.append("\\t");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\0' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
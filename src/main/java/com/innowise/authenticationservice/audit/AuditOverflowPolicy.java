@@ -0,0 +1,14 @@
+package com.innowise.authenticationservice.audit;
+
+/**
+ * Поведение при заполненном буфере аудита (auth.audit.overflow-policy).
+ */
+public enum AuditOverflowPolicy {
+    /** Событие отбрасывается сразу и учитывается в auth.audit.dropped - запрос не ждет никогда. */
+    DROP,
+    /**
+     * Запрос ждет освобождения места не дольше auth.audit.offer-timeout-ms, затем событие отбрасывается
+     * и учитывается в auth.audit.dropped. Замедляет запросы только при отставании записи в БД.
+     */
+    BLOCK
+}
@@ -0,0 +1,221 @@
+package com.innowise.authenticationservice.audit;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.innowise.authenticationservice.util.MpscRingBuffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Журнал аудита аутентификации вне горячего пути.
+ * Запросы только кладут событие в MpscRingBuffer (без блокировок и обращений к БД); единственный поток-писатель
+ * забирает события пачками до auth.audit.batch-size и записывает их в auth_audit_events командой COPY.
+ * Если БД недоступна, пачка повторяется с паузой auth.audit.retry-delay-ms и не теряется, а новые события
+ * копятся в буфере; при заполненном буфере действует auth.audit.overflow-policy (AuditOverflowPolicy).
+ * Успешная операция внутри транзакции попадает в буфер только после ее фиксации.
+ * При остановке (в том числе перед checkpoint CRaC) буфер дописывается в БД; фаза ниже, чем у graceful
+ * shutdown веб-сервера, поэтому журнал останавливается после завершения запросов, которые еще выполняются.
+ * Метрики: auth.audit.buffered, auth.audit.written, auth.audit.dropped, auth.audit.write.failures.
+ */
+@Component
+public class AuditTrail implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrail.class);
+    // Пауза ожидания места в буфере при политике BLOCK
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditEventWriter writer;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final boolean enabled;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long retryDelayMillis;
+    private final Clock clock;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter writeFailures;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    @Autowired
+    public AuditTrail(AuditEventWriter writer, MeterRegistry meterRegistry,
+                      @Value("${auth.audit.enabled:true}") boolean enabled,
+                      @Value("${auth.audit.buffer-capacity:65536}") int bufferCapacity,
+                      @Value("${auth.audit.overflow-policy:block}") AuditOverflowPolicy overflowPolicy,
+                      @Value("${auth.audit.offer-timeout-ms:50}") long offerTimeoutMillis,
+                      @Value("${auth.audit.batch-size:1000}") int batchSize,
+                      @Value("${auth.audit.flush-interval-ms:200}") long flushIntervalMillis,
+                      @Value("${auth.audit.retry-delay-ms:1000}") long retryDelayMillis) {
+        this(writer, meterRegistry, enabled, bufferCapacity, overflowPolicy, offerTimeoutMillis, batchSize,
+                flushIntervalMillis, retryDelayMillis, Clock.systemUTC());
+    }
+
+    AuditTrail(AuditEventWriter writer, MeterRegistry meterRegistry, boolean enabled, int bufferCapacity,
+               AuditOverflowPolicy overflowPolicy, long offerTimeoutMillis, int batchSize,
+               long flushIntervalMillis, long retryDelayMillis, Clock clock) {
+        this.writer = writer;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.enabled = enabled;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.clock = clock;
+        this.written = Counter.builder("auth.audit.written")
+                .description("Audit events written to the database")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("auth.audit.dropped")
+                .description("Audit events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writeFailures = Counter.builder("auth.audit.write.failures")
+                .description("Failed audit batch writes (the batch is retried)")
+                .register(meterRegistry);
+        Gauge.builder("auth.audit.buffered", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Фиксирует успешную операцию.
+     *
+     * @param action операция (AuthMetrics.LOGIN и т.д.)
+     * @param login пользователь
+     */
+    public void success(String action, String login) {
+        AuditEvent event = new AuditEvent(clock.instant(), action, login, true, null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(event);
+                }
+            });
+        } else {
+            record(event);
+        }
+    }
+
+    /**
+     * Фиксирует отказ.
+     *
+     * @param action операция (AuthMetrics.LOGIN и т.д.)
+     * @param login пользователь, если известен
+     * @param reason причина отказа (как в метрике auth.failures)
+     */
+    public void failure(String action, String login, String reason) {
+        record(new AuditEvent(clock.instant(), action, login, false, reason));
+    }
+
+    private void record(AuditEvent event) {
+        if (!enabled || buffer.offer(event)) {
+            return;
+        }
+        if (overflowPolicy == AuditOverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + offerTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("audit-writer").start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(Math.max(retryDelayMillis, flushIntervalMillis) * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            buffer.drain(batch::add, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+            } else if (!flush(batch)) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryDelayMillis));
+            }
+        }
+        // Остановка: дописываем накопленное, одна попытка на пачку
+        do {
+            buffer.drain(batch::add, batchSize - batch.size());
+        } while (!batch.isEmpty() && flush(batch));
+        if (!batch.isEmpty() || buffer.size() > 0) {
+            log.error("Audit writer stopped with {} unwritten events", batch.size() + buffer.size());
+        }
+    }
+
+    // Пишет пачку; при успехе очищает ее, при ошибке оставляет для повтора.
+    boolean flush(List<AuditEvent> batch) {
+        try {
+            writer.write(batch);
+            written.increment(batch.size());
+            batch.clear();
+            return true;
+        } catch (Exception e) {
+            writeFailures.increment();
+            log.warn("Failed to write {} audit events, retrying in {} ms: {}",
+                    batch.size(), retryDelayMillis, e.getMessage());
+            return false;
+        }
+    }
+
+    // Текущее число событий в буфере.
+    int buffered() {
+        return buffer.size();
+    }
+}
@@ -11,6 +11,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import com.innowise.authenticationservice.jfr.AuthEvent;
+import com.innowise.authenticationservice.jfr.AuthEvents;
+import com.innowise.authenticationservice.jfr.OutboundCallEvent;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+
 @Component
 public class UserServiceClient {
 
@@ -20,13 +25,16 @@ public class UserServiceClient {
     private final RestTemplate restTemplate;
     private final String baseUrl;
     private final String internalApiKey;
+    private final AuthMetrics authMetrics;
 
     public UserServiceClient(RestTemplate restTemplate,
                              @Value("${user.service.base-url:http://user-service:8080}") String baseUrl,
-                             @Value("${user.service.internal-api-key:}") String internalApiKey) {
+                             @Value("${user.service.internal-api-key:}") String internalApiKey,
+                             AuthMetrics authMetrics) {
         this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
         this.internalApiKey = internalApiKey;
+        this.authMetrics = authMetrics;
         log.info("UserServiceClient initialized. Base URL: {}, API Key configured: {}", 
                 baseUrl, internalApiKey != null && !internalApiKey.isBlank());
     }
@@ -54,12 +62,16 @@ public class UserServiceClient {
 
             HttpEntity<UserDto> entity = new HttpEntity<>(userDto, headers);
 
-            ResponseEntity<UserDto> response = restTemplate.exchange(
-                    baseUrl + "/api/v1/users/sync",
-                    HttpMethod.POST,
-                    entity,
-                    UserDto.class
-            );
+            ResponseEntity<UserDto> response = authMetrics.recordStep(AuthMetrics.STEP_USER_SERVICE,
+                    () -> AuthEvents.record(new OutboundCallEvent("user-service", "syncUser").forUser(email),
+                            () -> restTemplate.exchange(
+                                    baseUrl + "/api/v1/users/sync",
+                                    HttpMethod.POST,
+                                    entity,
+                                    UserDto.class
+                            ),
+                            result -> result.getStatusCode().is2xxSuccessful()
+                                    ? AuthEvent.OUTCOME_SUCCESS : "http_" + result.getStatusCode().value()));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Successfully created user {} in user-service", email);
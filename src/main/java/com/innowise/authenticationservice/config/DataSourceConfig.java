@@ -33,10 +33,16 @@ public class DataSourceConfig {
     @Value("${spring.datasource.create-database.admin-db:postgres}")
     private String adminDatabase;
 
+    // false - база создается заранее (задача migrate), при старте нет лишнего соединения через DriverManager
+    @Value("${spring.datasource.create-database.enabled:true}")
+    private boolean createDatabase;
+
     @Bean
     @ConfigurationProperties("spring.datasource.hikari")
     public HikariDataSource dataSource(DataSourceProperties properties) throws SQLException {
-        ensureDatabaseExists(properties);
+        if (createDatabase) {
+            ensureDatabaseExists(properties);
+        }
         return properties.initializeDataSourceBuilder()
                 .type(HikariDataSource.class)
                 .build();
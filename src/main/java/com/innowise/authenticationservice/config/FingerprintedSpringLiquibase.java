@@ -0,0 +1,186 @@
+package com.innowise.authenticationservice.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.changelog.ChangeSetStatus;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * SpringLiquibase, который не разбирает changelog и не берет блокировку, если схема уже соответствует
+ * текущим changelog-ам. Отпечаток - SHA-256 всех файлов каталога changelog-а; после успешного update
+ * он записывается в таблицу schema_fingerprint, при следующем старте сравнивается одним запросом.
+ *
+ * Режимы (auth.migrations.mode):
+ * - always: Liquibase запускается всегда (прежнее поведение);
+ * - on-change: Liquibase запускается, только если отпечаток изменился;
+ * - validate: Liquibase не запускается - миграции выполняет отдельная задача с профилем migrate.
+ *   При несовпадении отпечатка changelog разбирается и сверяется с databasechangelog (без блокировки):
+ *   если все changeset-ы этой сборки уже применены (задача migrate применила changelog более новой версии,
+ *   а под старой версии перезапускается при выкатке, масштабировании или откате), старт продолжается;
+ *   старт прерывается, только если у этой сборки есть непримененные changeset-ы.
+ */
+public class FingerprintedSpringLiquibase extends SpringLiquibase {
+
+    private static final Logger log = LoggerFactory.getLogger(FingerprintedSpringLiquibase.class);
+
+    // SQLSTATE undefined_table: таблица schema_fingerprint еще не создана
+    private static final String UNDEFINED_TABLE_SQLSTATE = "42P01";
+    private static final String SELECT_FINGERPRINT = "SELECT fingerprint FROM schema_fingerprint WHERE id = 1";
+    private static final String UPSERT_FINGERPRINT = """
+            INSERT INTO schema_fingerprint (id, fingerprint, applied_at) VALUES (1, ?, now())
+            ON CONFLICT (id) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, applied_at = EXCLUDED.applied_at
+            """;
+
+    public enum Mode {
+        ALWAYS, ON_CHANGE, VALIDATE
+    }
+
+    private final Mode mode;
+    private final String fingerprint;
+
+    public FingerprintedSpringLiquibase(Mode mode, String fingerprint) {
+        this.mode = mode;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Отпечаток всех файлов в каталоге changelog-а (включая вложенные каталоги).
+     *
+     * @param resolver   загрузчик ресурсов
+     * @param changeLog  путь к главному changelog-у, например classpath:db/changelog/master-changelog.xml
+     * @return SHA-256 в шестнадцатеричном виде
+     */
+    public static String fingerprint(ResourcePatternResolver resolver, String changeLog) throws IOException {
+        String path = changeLog.startsWith(ResourcePatternResolver.CLASSPATH_URL_PREFIX)
+                ? changeLog.substring(ResourcePatternResolver.CLASSPATH_URL_PREFIX.length())
+                : changeLog;
+        String directory = path.substring(0, path.lastIndexOf('/') + 1);
+        Resource[] resources = resolver.getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + directory + "**/*");
+
+        MessageDigest digest = sha256();
+        Arrays.stream(resources)
+                .filter(Resource::isReadable)
+                .sorted(Comparator.comparing(resource -> relativePath(resource, directory)))
+                .forEach(resource -> {
+                    digest.update(relativePath(resource, directory).getBytes());
+                    digest.update((byte) 0);
+                    try (InputStream in = resource.getInputStream()) {
+                        digest.update(in.readAllBytes());
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to read changelog " + resource, e);
+                    }
+                    digest.update((byte) 0);
+                });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            super.afterPropertiesSet();
+            return;
+        }
+        if (mode != Mode.ALWAYS) {
+            String applied = appliedFingerprint();
+            if (fingerprint.equals(applied)) {
+                log.info("Liquibase skipped: changelog fingerprint {} is already applied", fingerprint);
+                return;
+            }
+            if (mode == Mode.VALIDATE) {
+                List<String> pending = pendingChangeSets();
+                if (!pending.isEmpty()) {
+                    throw new IllegalStateException("Database schema is missing changesets " + pending
+                            + " of changelog fingerprint " + fingerprint + " (applied: " + applied
+                            + "). Run migrations with the migrate profile first.");
+                }
+                log.info("Changelog fingerprint {} differs from applied {}, but all changesets of this build are applied",
+                        fingerprint, applied);
+                return;
+            }
+        }
+        super.afterPropertiesSet();
+        recordFingerprint();
+    }
+
+    // Changeset-ы этой сборки, которые ни разу не выполнялись в БД. runAlways и runOnChange changeset-ы,
+    // уже выполненные в другой версии, считаются примененными: их содержимое зависит от версии сборки.
+    List<String> pendingChangeSets() throws LiquibaseException {
+        try (Connection connection = getDataSource().getConnection();
+             Liquibase liquibase = createLiquibase(connection)) {
+            return liquibase.getChangeSetStatuses(new Contexts(getContexts()), new LabelExpression(getLabelFilter()))
+                    .stream()
+                    .filter(status -> status.getWillRun() && !status.getPreviouslyRan())
+                    .map(ChangeSetStatus::getChangeSet)
+                    .map(changeSet -> changeSet.getId() + "::" + changeSet.getAuthor())
+                    .toList();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    private String appliedFingerprint() throws DatabaseException {
+        try (Connection connection = getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_FINGERPRINT);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } catch (SQLException e) {
+            if (UNDEFINED_TABLE_SQLSTATE.equals(e.getSQLState())) {
+                return null;
+            }
+            throw new DatabaseException(e);
+        }
+    }
+
+    private void recordFingerprint() throws DatabaseException {
+        try (Connection connection = getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPSERT_FINGERPRINT)) {
+            statement.setString(1, fingerprint);
+            statement.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+        log.info("Changelog fingerprint {} recorded", fingerprint);
+    }
+
+    private static String relativePath(Resource resource, String directory) {
+        try {
+            String uri = resource.getURI().toString();
+            int index = uri.lastIndexOf(directory);
+            return index >= 0 ? uri.substring(index + directory.length()) : uri;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to resolve changelog " + resource, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.innowise.authenticationservice.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.innowise.authenticationservice.grpc.GrpcServerLifecycle;
+import com.innowise.authenticationservice.grpc.InternalApiKeyInterceptor;
+import com.innowise.authenticationservice.grpc.TokenValidationGrpcService;
+import com.innowise.authenticationservice.service.AuthService;
+
+/**
+ * Конфигурация внутреннего gRPC сервера валидации токенов.
+ * Работает параллельно с REST API на отдельном порту (grpc.server.port).
+ * Порт не проходит через Spring Security и должен быть доступен только внутри кластера;
+ * по умолчанию сервер выключен (grpc.server.enabled), а каждый вызов должен передать internal.api.key.
+ */
+@Configuration
+@ConditionalOnProperty(name = "grpc.server.enabled", havingValue = "true")
+public class GrpcServerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerConfig.class);
+
+    @Bean
+    public TokenValidationGrpcService tokenValidationGrpcService(AuthService authService) {
+        return new TokenValidationGrpcService(authService);
+    }
+
+    @Bean
+    public GrpcServerLifecycle grpcServerLifecycle(@Value("${grpc.server.port:9091}") int port,
+                                                   @Value("${grpc.server.executor-threads:16}") int executorThreads,
+                                                   @Value("${internal.api.key:}") String internalApiKey,
+                                                   TokenValidationGrpcService tokenValidationGrpcService) {
+        InternalApiKeyInterceptor apiKeyInterceptor = new InternalApiKeyInterceptor(internalApiKey);
+        if (!apiKeyInterceptor.isConfigured()) {
+            log.warn("gRPC server is enabled but internal.api.key is not configured: all gRPC calls will be rejected");
+        }
+        return new GrpcServerLifecycle(port, executorThreads, List.of(tokenValidationGrpcService), List.of(apiKeyInterceptor));
+    }
+}
@@ -0,0 +1,36 @@
+package com.innowise.authenticationservice.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+/**
+ * Разрешает запрос с внутренним API ключом (internal.api.key) в заголовке X-Internal-Api-Key -
+ * так же, как gRPC InternalApiKeyInterceptor проверяет метаданные x-internal-api-key.
+ * Если ключ не настроен, не разрешает ни одного запроса.
+ */
+public class InternalApiKeyAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    public static final String API_KEY_HEADER = "X-Internal-Api-Key";
+
+    private final byte[] expectedKey;
+
+    public InternalApiKeyAuthorizationManager(String internalApiKey) {
+        this.expectedKey = internalApiKey == null || internalApiKey.isBlank()
+                ? null
+                : internalApiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        String apiKey = context.getRequest().getHeader(API_KEY_HEADER);
+        // Сравнение за постоянное время, чтобы ключ нельзя было подобрать по времени ответа
+        return new AuthorizationDecision(expectedKey != null && apiKey != null
+                && MessageDigest.isEqual(expectedKey, apiKey.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -2,6 +2,8 @@ package com.innowise.authenticationservice.config;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Supplier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,9 +11,14 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 import com.innowise.authenticationservice.security.JwtTokenProvider;
+import com.innowise.authenticationservice.security.TokenPrincipal;
 
 /**
  * Фильтр для аутентификации на основе JWT токенов.
@@ -28,15 +35,45 @@ import com.innowise.authenticationservice.security.JwtTokenProvider;
  * Наследуется от OncePerRequestFilter, что гарантирует выполнение фильтра только один раз
  * для каждого запроса, даже если он проходит через несколько цепочек фильтров
  * При ошибке обработки токена (например, истек срок действия) контекст безопасности
- * очищается, но запрос не блокируется - дальнейшая авторизация будет обработана Spring Security
+ * остается неаутентифицированным, но запрос не блокируется - дальнейшая авторизация будет обработана Spring Security
  * Фильтр не блокирует запросы без токена - это позволяет обрабатывать публичные эндпоинты
+ * Оптимизации:
+ * На публичных эндпоинтах (permitAll) фильтр не выполняется вовсе, даже если клиент прислал
+ * устаревший токен - разбирать и проверять его там незачем
+ * На остальных эндпоинтах аутентификация вычисляется лениво (deferred SecurityContext):
+ * токен разбирается только когда слой авторизации или обработчик действительно запросит контекст
+ * Проверенный TokenPrincipal сохраняется в атрибуте запроса и переиспользуется обработчиками
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    // Атрибут запроса, в котором хранится проверенный токен и его данные.
+    private static final String VERIFIED_TOKEN_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".VERIFIED_TOKEN";
+
     // Провайдер для работы с JWT токенами (валидация, извлечение данных).
     private final JwtTokenProvider jwtTokenProvider;
+    // Публичные эндпоинты, для которых аутентификация не требуется.
+    private final RequestMatcher publicEndpoints;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, RequestMatcher publicEndpoints) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.publicEndpoints = publicEndpoints;
+    }
+
+    /**
+     * Возвращает данные пользователя, если фильтр уже проверил именно этот токен в рамках запроса.
+     * Позволяет обработчикам не разбирать токен повторно.
+     */
+    public static Optional<TokenPrincipal> getVerifiedPrincipal(HttpServletRequest request, String token) {
+        if (request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE) instanceof VerifiedToken verified
+                && verified.token().equals(token)) {
+            return Optional.of(verified.principal());
+        }
+        return Optional.empty();
+    }
+
+    // Публичные эндпоинты пропускаем целиком - токен там не нужен.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return publicEndpoints.matches(request);
     }
 
     // Основной метод фильтра, который вызывается для каждого HTTP-запроса.
@@ -49,29 +86,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Формат заголовка: "Authorization: Bearer <token>"
         String token = getTokenFromRequest(request);
 
-        // Проверяем, что токен присутствует и валиден (подпись корректна, срок действия не истек)
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            try {
-                // Извлекаем имя пользователя (email) из токена
-                String username = jwtTokenProvider.getUsernameFromToken(token);
-                // Извлекаем роль пользователя из токена (например, "ROLE_USER" или "ROLE_ADMIN")
-                String role = jwtTokenProvider.getRoleFromToken(token);
-
-                // Создаем объект аутентификации Spring Security
-                // Второй параметр (null) - это credentials (пароль), который не нужен для JWT
-                // Третий параметр - список ролей пользователя
-                UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(username, null,
-                                Collections.singletonList(new SimpleGrantedAuthority(role)));
-
-                // Устанавливаем аутентификацию в контекст Spring Security
-                // Теперь другие компоненты приложения могут получить текущего пользователя через
-                SecurityContextHolder.getContext().setAuthentication(auth);
-            } catch (Exception e) {
-                // Если при извлечении данных из токена произошла ошибка (например, токен поврежден),
-                // очищаем контекст безопасности - запрос будет обработан как неаутентифицированный
-                SecurityContextHolder.clearContext();
-            }
+        if (token != null) {
+            // Не разбираем токен сразу: подменяем контекст безопасности на отложенный.
+            // Supplier будет вызван только при первом обращении к SecurityContext
+            // (например, AuthorizationFilter для authenticated() эндпоинтов) и только один раз.
+            SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+            Supplier<SecurityContext> previous = strategy.getDeferredContext();
+            strategy.setDeferredContext(SingletonSupplier.of(() -> resolveContext(token, request, strategy, previous)));
         }
 
         // Продолжаем выполнение цепочки фильтров
@@ -79,6 +100,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Проверяет токен (подпись, срок действия) и строит контекст безопасности с пользователем и ролью.
+    // Если токен невалиден, возвращается исходный (неаутентифицированный) контекст.
+    private SecurityContext resolveContext(String token,
+                                           HttpServletRequest request,
+                                           SecurityContextHolderStrategy strategy,
+                                           Supplier<SecurityContext> previous) {
+        TokenPrincipal principal = jwtTokenProvider.parseToken(token).orElse(null);
+        if (principal == null || principal.role() == null) {
+            return previous.get();
+        }
+
+        // Создаем объект аутентификации Spring Security
+        // Второй параметр (null) - это credentials (пароль), который не нужен для JWT
+        // Третий параметр - список ролей пользователя
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(principal.username(), null,
+                        Collections.singletonList(new SimpleGrantedAuthority(principal.role())));
+        auth.setDetails(principal);
+        request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, new VerifiedToken(token, principal));
+
+        SecurityContext context = strategy.createEmptyContext();
+        context.setAuthentication(auth);
+        return context;
+    }
+
     // Извлекает JWT токен из заголовка Authorization HTTP-запроса.
     private String getTokenFromRequest(HttpServletRequest request) {
         // Получаем значение заголовка Authorization из запроса
@@ -93,4 +139,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Если заголовок отсутствует или имеет неверный формат, возвращаем null
         return null;
     }
+
+    private record VerifiedToken(String token, TokenPrincipal principal) {
+    }
 }
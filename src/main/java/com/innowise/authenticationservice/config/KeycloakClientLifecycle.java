@@ -0,0 +1,60 @@
+package com.innowise.authenticationservice.config;
+
+import java.util.function.Supplier;
+
+import org.keycloak.admin.client.Keycloak;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.HotSwappableTargetSource;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Keycloak admin client, который переживает checkpoint/restore (CRaC).
+ * Бин Keycloak - прокси над сменным экземпляром: при checkpoint клиент закрывается (HTTP соединения
+ * и выданный токен не попадают в снимок), при restore создается новый с учетными данными из текущего окружения.
+ * Потребители (KeycloakService) держат ссылку на прокси и замены не замечают.
+ */
+public class KeycloakClientLifecycle implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(KeycloakClientLifecycle.class);
+
+    private final Supplier<Keycloak> clientFactory;
+    private final HotSwappableTargetSource targetSource;
+    private final Keycloak client;
+    private volatile boolean running;
+
+    public KeycloakClientLifecycle(Supplier<Keycloak> clientFactory) {
+        this.clientFactory = clientFactory;
+        this.targetSource = new HotSwappableTargetSource(clientFactory.get());
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetSource(targetSource);
+        proxyFactory.setProxyTargetClass(true);
+        this.client = (Keycloak) proxyFactory.getProxy(Keycloak.class.getClassLoader());
+    }
+
+    public Keycloak getClient() {
+        return client;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (((Keycloak) targetSource.getTarget()).isClosed()) {
+            targetSource.swap(clientFactory.get());
+            log.info("Keycloak admin client reopened");
+        }
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        ((Keycloak) targetSource.getTarget()).close();
+        running = false;
+        log.info("Keycloak admin client closed");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -6,8 +6,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.Environment;
 
 @Configuration
+@ImportRuntimeHints(KeycloakRuntimeHints.class)
 @ConditionalOnProperty(name = "keycloak.enabled", havingValue = "true", matchIfMissing = false)
 //name = "keycloak.enabled" - проверяем конфигурационное свойство keycloak.enabled (ищется в application.properties, профилях, переменных окружения и т.д.).
 //havingValue = "true" - если значение свойства равно true, то конфигурация будет применена.
@@ -27,10 +30,6 @@ public class KeycloakConfig {
     @Value("${keycloak.client.id}")
     private String clientId;
 
-    //Client Secret Keycloak
-    @Value("${keycloak.client.secret}")
-    private String clientSecret;
-
     // Auth type: client (default) or admin
     @Value("${keycloak.auth.type:client}")
     private String authType;
@@ -39,14 +38,31 @@ public class KeycloakConfig {
     @Value("${keycloak.admin.username:}")
     private String adminUsername;
 
-    @Value("${keycloak.admin.password:}")
-    private String adminPassword;
-
     @Value("${keycloak.admin.realm:master}")
     private String adminRealm;
 
+    // Секреты (keycloak.client.secret, keycloak.admin.password) читаются из окружения при каждом создании клиента,
+    // чтобы после restore (CRaC) использовались значения нового окружения
+    private final Environment environment;
+
+    public KeycloakConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    // Клиент закрывается при checkpoint и пересоздается при restore (CRaC)
     @Bean
-    public Keycloak keycloak() {
+    public KeycloakClientLifecycle keycloakClientLifecycle() {
+        return new KeycloakClientLifecycle(this::buildKeycloak);
+    }
+
+    @Bean
+    public Keycloak keycloak(KeycloakClientLifecycle keycloakClientLifecycle) {
+        return keycloakClientLifecycle.getClient();
+    }
+
+    private Keycloak buildKeycloak() {
+        String clientSecret = environment.getRequiredProperty("keycloak.client.secret");
+        String adminPassword = environment.getProperty("keycloak.admin.password", "");
         KeycloakBuilder builder = KeycloakBuilder.builder()
                 .serverUrl(keycloakServerUrl);
 
@@ -0,0 +1,55 @@
+package com.innowise.authenticationservice.config;
+
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RealmsResource;
+import org.keycloak.admin.client.resource.RoleMappingResource;
+import org.keycloak.admin.client.resource.RoleResource;
+import org.keycloak.admin.client.resource.RoleScopeResource;
+import org.keycloak.admin.client.resource.RolesResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.admin.client.token.TokenService;
+import org.keycloak.representations.AccessTokenResponse;
+import org.keycloak.representations.idm.CredentialRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Метаданные native-image для Keycloak admin client. Подключаются через KeycloakConfig,
+ * поэтому попадают в образ только если он собран с keycloak.enabled=true (см. профиль native в pom.xml).
+ * RESTEasy создает клиентов как JDK-прокси ресурсных интерфейсов и читает их JAX-RS аннотации,
+ * а представления сериализуются Jackson-ом.
+ */
+public class KeycloakRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final TypeReference RESTEASY_CLIENT_PROXY =
+            TypeReference.of("org.jboss.resteasy.client.jaxrs.internal.proxy.ResteasyClientProxy");
+
+    private static final Class<?>[] RESOURCES = {
+            TokenService.class, RealmsResource.class, RealmResource.class, UsersResource.class, UserResource.class, RolesResource.class,
+            RoleResource.class, RoleMappingResource.class, RoleScopeResource.class
+    };
+
+    private static final Class<?>[] REPRESENTATIONS = {
+            UserRepresentation.class, CredentialRepresentation.class, RoleRepresentation.class,
+            AccessTokenResponse.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> resource : RESOURCES) {
+            hints.reflection().registerType(resource, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.proxies().registerJdkProxy(TypeReference.of(resource), RESTEASY_CLIENT_PROXY);
+        }
+        for (Class<?> representation : REPRESENTATIONS) {
+            hints.reflection().registerType(representation, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("META-INF/services/jakarta.ws.rs.*");
+        hints.resources().registerPattern("META-INF/services/org.jboss.resteasy.*");
+    }
+}
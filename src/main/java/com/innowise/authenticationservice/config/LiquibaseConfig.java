@@ -0,0 +1,44 @@
+package com.innowise.authenticationservice.config;
+
+import java.io.IOException;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Liquibase с пропуском по отпечатку changelog-ов (см. FingerprintedSpringLiquibase).
+ * Заменяет бин из LiquibaseAutoConfiguration, настройки spring.liquibase.* применяются как раньше.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.liquibase", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(LiquibaseProperties.class)
+public class LiquibaseConfig {
+
+    @Bean
+    public SpringLiquibase liquibase(DataSource dataSource, LiquibaseProperties properties,
+                                     @Value("${auth.migrations.mode:always}") FingerprintedSpringLiquibase.Mode mode)
+            throws IOException {
+        String fingerprint = FingerprintedSpringLiquibase.fingerprint(
+                new PathMatchingResourcePatternResolver(), properties.getChangeLog());
+        FingerprintedSpringLiquibase liquibase = new FingerprintedSpringLiquibase(mode, fingerprint);
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(properties.getChangeLog());
+        if (properties.getContexts() != null) {
+            liquibase.setContexts(String.join(",", properties.getContexts()));
+        }
+        liquibase.setDefaultSchema(properties.getDefaultSchema());
+        liquibase.setDropFirst(properties.isDropFirst());
+        liquibase.setClearCheckSums(properties.isClearChecksums());
+        liquibase.setChangeLogParameters(properties.getParameters());
+        liquibase.setShouldRun(properties.isEnabled());
+        return liquibase;
+    }
+}
@@ -0,0 +1,36 @@
+package com.innowise.authenticationservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Профиль migrate: миграции уже выполнены при создании контекста (бин liquibase),
+ * процесс завершается с кодом контекста, не дожидаясь остальных ApplicationRunner и прогрева кэшей.
+ */
+@Component
+@Profile("migrate")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MigrationJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationJob.class);
+
+    private final ConfigurableApplicationContext context;
+
+    public MigrationJob(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Database migrations applied, exiting");
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,47 @@
+package com.innowise.authenticationservice.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import com.innowise.authenticationservice.model.UserVersion;
+
+/**
+ * Метаданные достижимости для native-image сборки (профиль native), которые не выводятся AOT-обработкой Spring:
+ * JJWT создает реализации через рефлексию по имени класса, Liquibase читает changelog-и как ресурсы,
+ * Hibernate строит UserVersion через конструктор из JPQL (select new), Ehcache читает ehcache.xml и свои схемы.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-impl и jjwt-jackson подключены в runtime scope, поэтому классы указаны по имени
+    private static final String[] JJWT_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        hints.resources().registerPattern("db/changelog/*.xml");
+        hints.resources().registerPattern("db/changelog/*.yaml");
+
+        hints.reflection().registerType(UserVersion.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        hints.resources().registerPattern("ehcache.xml");
+        hints.resources().registerPattern("ehcache-*.xsd");
+    }
+}
@@ -0,0 +1,81 @@
+package com.innowise.authenticationservice.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+/**
+ * Фабрика запросов RestTemplate поверх JDK HttpClient, пул keep-alive соединений которого можно закрыть
+ * и открыть заново. При checkpoint (CRaC) клиент закрывается вместе с открытыми сокетами, при restore
+ * создается новый - соединения, установленные до снимка, в восстановленный процесс не попадают.
+ * Останавливается после веб-сервера (фаза ниже), чтобы запросы, которые дорабатывают при завершении, не теряли клиента.
+ */
+public class ReconnectingClientHttpRequestFactory implements ClientHttpRequestFactory, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconnectingClientHttpRequestFactory.class);
+
+    private final Supplier<HttpClient> httpClientFactory;
+    private volatile HttpClient httpClient;
+    private volatile ClientHttpRequestFactory delegate;
+
+    public ReconnectingClientHttpRequestFactory(Supplier<HttpClient> httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+        open();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ClientHttpRequestFactory current = delegate;
+        if (current == null) {
+            current = open();
+        }
+        return current.createRequest(uri, httpMethod);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (httpClient == null) {
+            open();
+            log.info("HTTP client reopened");
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        HttpClient current = httpClient;
+        if (current == null) {
+            return;
+        }
+        httpClient = null;
+        delegate = null;
+        current.close();
+        log.info("HTTP client closed");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return httpClient != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private synchronized ClientHttpRequestFactory open() {
+        if (delegate == null) {
+            httpClient = httpClientFactory.get();
+            delegate = new JdkClientHttpRequestFactory(httpClient);
+        }
+        return delegate;
+    }
+}
@@ -1,5 +1,7 @@
 package com.innowise.authenticationservice.config;
 
+import java.net.http.HttpClient;
+
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,9 +10,16 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestTemplateConfig {
 
+    // Пул соединений к user-service закрывается и открывается заново вокруг checkpoint/restore (CRaC)
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public ReconnectingClientHttpRequestFactory restTemplateRequestFactory() {
+        return new ReconnectingClientHttpRequestFactory(() -> HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build());
     }
-}
 
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, ReconnectingClientHttpRequestFactory requestFactory) {
+        return builder.requestFactory(() -> requestFactory).build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.innowise.authenticationservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает @Scheduled задачи (очистка истекших записей списка отозванных токенов и т.п.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
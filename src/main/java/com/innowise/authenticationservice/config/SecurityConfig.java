@@ -1,15 +1,24 @@
 package com.innowise.authenticationservice.config;
 
+import java.util.ArrayList;
 import java.util.List;
+import jakarta.servlet.DispatcherType;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 // CORS импорты закомментированы - CORS обрабатывается на уровне gateway-service
 // import org.springframework.web.cors.CorsConfiguration;
 // import org.springframework.web.cors.CorsConfigurationSource;
@@ -24,12 +33,25 @@ import com.innowise.authenticationservice.security.JwtTokenProvider;
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+
+    // Внутренний endpoint синхронизации удаления пользователя (только DELETE, защищен API ключом)
+    private static final String INTERNAL_SYNC_ENDPOINT = "/auth/v1/internal/sync/users/**";
+    // Публичные эндпоинты аутентификации
+    private static final String[] PUBLIC_AUTH_ENDPOINTS = {
+            "/auth/v1/login", "/auth/v1/register", "/auth/v1/create-token", "/auth/v1/refresh",
+            "/auth/v1/forward-auth", "/auth/v1/logout"
+    };
+    // Публичные эндпоинты мониторинга
+    private static final String[] PUBLIC_ACTUATOR_ENDPOINTS = {"/actuator/health", "/actuator/info"};
     
      // Провайдер для работы с JWT токенами (валидация, создание, извлечение данных)     
     private final JwtTokenProvider jwtTokenProvider;
+    // Внутренний API ключ: с ним Prometheus собирает метрики
+    private final String internalApiKey;
    
-    public SecurityConfig(JwtTokenProvider jwtTokenProvider) {
+    public SecurityConfig(JwtTokenProvider jwtTokenProvider, @Value("${internal.api.key:}") String internalApiKey) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.internalApiKey = internalApiKey;
     }
 
     // Настраивает цепочку фильтров безопасности Spring Security
@@ -46,19 +68,30 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Настраиваем правила авторизации для различных эндпоинтов
                 .authorizeHttpRequests(auth -> auth
+                        // Асинхронное завершение обработчиков из PriorityLanes: запрос уже авторизован при исходной отправке
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Внутренний технический endpoint для синхронизации удаления пользователя (только для внутренних вызовов от user-service с API ключом)
                         // Должен быть первым, чтобы не перехватывался общим правилом /auth/v1/**
-                        .requestMatchers(HttpMethod.DELETE, "/auth/v1/internal/sync/users/**").permitAll()
+                        .requestMatchers(HttpMethod.DELETE, INTERNAL_SYNC_ENDPOINT).permitAll()
                         // Публичные эндпоинты - доступны без аутентификации
                         // /auth/v1/login - вход пользователя
                         // /auth/v1/register - регистрация нового пользователя
                         // /auth/v1/create-token - создание токена (для внутреннего использования)
                         // /auth/v1/refresh - обновление токена
-                        .requestMatchers("/auth/v1/login", "/auth/v1/register", "/auth/v1/create-token", "/auth/v1/refresh").permitAll()
+                        // /auth/v1/forward-auth - проверка токена для reverse proxy (сам отвечает 401)
+                        // /auth/v1/logout - отзыв токенов (владение токенами подтверждается их передачей в теле)
+                        .requestMatchers(PUBLIC_AUTH_ENDPOINTS).permitAll()
                         // Эндпоинты мониторинга - публичные для health check
                         // /actuator/health - проверка здоровья приложения (доступен без аутентификации)
                         // /actuator/info - информация о приложении (доступен без аутентификации)
-                        .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                        .requestMatchers(PUBLIC_ACTUATOR_ENDPOINTS).permitAll()
+                        // /actuator/prometheus - счетчики отказов по причинам, состояние пулов и кэшей: только Prometheus
+                        // с внутренним API ключом в заголовке X-Internal-Api-Key или администратор
+                        .requestMatchers(EndpointRequest.to("prometheus")).access(AuthorizationManagers.anyOf(
+                                new InternalApiKeyAuthorizationManager(internalApiKey),
+                                AuthorityAuthorizationManager.hasRole("ADMIN")))
+                        // /actuator/jfr - записи JFR содержат стеки потоков, логины и профиль CPU: только администратор
+                        .requestMatchers(EndpointRequest.to("jfr")).hasRole("ADMIN")
                         // Все остальные эндпоинты /auth/v1/** требуют аутентификации
                         .requestMatchers("/auth/v1/**").authenticated()
                         // Любые другие запросы также требуют аутентификации
@@ -84,11 +117,26 @@ public class SecurityConfig {
      * Если токен валиден, извлекает имя пользователя и роль из токена
      * Создает объект аутентификации и устанавливает его в SecurityContext
      * Если токен невалиден или отсутствует, запрос продолжает обработку без аутентификации 
+     * На публичных эндпоинтах фильтр не выполняется, на остальных токен проверяется лениво
      */
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
-        return new JwtAuthenticationFilter(jwtTokenProvider);
+        return new JwtAuthenticationFilter(jwtTokenProvider, publicEndpoints());
+    }
+
+    // Те же публичные эндпоинты, что и в правилах permitAll - для них фильтр не разбирает токен
+    static RequestMatcher publicEndpoints() {
+        PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+        List<RequestMatcher> matchers = new ArrayList<>();
+        matchers.add(paths.matcher(HttpMethod.DELETE, INTERNAL_SYNC_ENDPOINT));
+        for (String pattern : PUBLIC_AUTH_ENDPOINTS) {
+            matchers.add(paths.matcher(pattern));
+        }
+        for (String pattern : PUBLIC_ACTUATOR_ENDPOINTS) {
+            matchers.add(paths.matcher(pattern));
+        }
+        return new OrRequestMatcher(matchers);
     }
 
     /**
@@ -1,40 +1,71 @@
 package com.innowise.authenticationservice.controller;
 
+import java.time.Duration;
+import java.util.Optional;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import com.innowise.authenticationservice.admission.PriorityLanes;
+import com.innowise.authenticationservice.config.JwtAuthenticationFilter;
 import com.innowise.authenticationservice.dto.LoginRequest;
+import com.innowise.authenticationservice.dto.LogoutRequest;
 import com.innowise.authenticationservice.dto.RefreshTokenRequest;
 import com.innowise.authenticationservice.dto.RegisterRequest;
 import com.innowise.authenticationservice.dto.TokenResponse;
 import com.innowise.authenticationservice.dto.TokenValidationRequest;
 import com.innowise.authenticationservice.dto.TokenValidationResponse;
 import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.security.TokenPrincipal;
 import com.innowise.authenticationservice.service.AuthService;
+import com.innowise.authenticationservice.service.IdempotencyStore;
 
 /**
  * REST контроллер для аутентификации и управления токенами.
  * Предоставляет endpoints для регистрации, входа, обновления токенов и валидации.
+ * Обработчики validate, refresh и forward-auth выполняются в очереди latency, login, register и create-token -
+ * в очереди throughput (PriorityLanes), чтобы BCrypt не задерживал проверку токенов.
+ * register и create-token принимают заголовок Idempotency-Key: повтор запроса с тем же ключом получает
+ * тот же статус и новую пару токенов, не выполняя запрос заново (IdempotencyStore).
  */
 @RestController
 @RequestMapping("/auth/v1")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String USER_HEADER = "X-User";
+    private static final String ROLE_HEADER = "X-Role";
+
     private final AuthService authService;
+    private final PriorityLanes priorityLanes;
+    private final IdempotencyStore idempotencyStore;
     private final String internalApiKey;
+    private final long forwardAuthMaxCacheSeconds;
 
     public AuthController(AuthService authService,
-                         @Value("${internal.api.key:}") String internalApiKey) {
+                         PriorityLanes priorityLanes,
+                         IdempotencyStore idempotencyStore,
+                         @Value("${internal.api.key:}") String internalApiKey,
+                         @Value("${auth.forward-auth.max-cache-seconds:30}") long forwardAuthMaxCacheSeconds) {
         this.authService = authService;
+        this.priorityLanes = priorityLanes;
+        this.idempotencyStore = idempotencyStore;
         this.internalApiKey = internalApiKey;
+        this.forwardAuthMaxCacheSeconds = forwardAuthMaxCacheSeconds;
     }
     /**
      * Аутентификация пользователя по логину и паролю.
@@ -44,8 +75,8 @@ public class AuthController {
      * @return TokenResponse с access и refresh токенами
      */
     @PostMapping("/login")
-    public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authService.login(loginRequest));
+    public WebAsyncTask<ResponseEntity<TokenResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return priorityLanes.throughput(() -> ResponseEntity.ok(authService.login(loginRequest)));
     }
 
     /**
@@ -55,12 +86,21 @@ public class AuthController {
      * используя полученный токен (email будет извлечен из токена автоматически).
      * 
      * @param registerRequest данные для регистрации (login, password, role)
+     * @param idempotencyKey необязательный ключ, по которому повтор запроса получает первоначальный статус и новые токены
      * @return TokenResponse с access и refresh токенами
      */
     @PostMapping("/register")
-    public ResponseEntity<TokenResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        TokenResponse tokenResponse = authService.register(registerRequest);
-        return ResponseEntity.status(201).body(tokenResponse);
+    public WebAsyncTask<ResponseEntity<TokenResponse>> register(
+            @Valid @RequestBody RegisterRequest registerRequest,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        String requestHash = IdempotencyStore.fingerprint(registerRequest.getLogin(), registerRequest.getPassword(),
+                registerRequest.getRole(), registerRequest.getFirstName(), registerRequest.getLastName(),
+                String.valueOf(registerRequest.getBirthDate()));
+        return priorityLanes.throughput(() -> idempotencyStore.execute("register", idempotencyKey, requestHash,
+                registerRequest.getLogin(), () -> {
+                    TokenResponse tokenResponse = authService.register(registerRequest);
+                    return ResponseEntity.status(201).body(tokenResponse);
+                }, authService::reissueTokens));
     }
 
     /**
@@ -71,8 +111,8 @@ public class AuthController {
      * @return TokenResponse с новыми access и refresh токенами
      */
     @PostMapping("/refresh")
-    public ResponseEntity<TokenResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
-        return ResponseEntity.ok(authService.refreshToken(request.getRefreshToken()));
+    public WebAsyncTask<ResponseEntity<TokenResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return priorityLanes.latency(() -> ResponseEntity.ok(authService.refreshToken(request.getRefreshToken())));
     }
 
     /**
@@ -80,11 +120,30 @@ public class AuthController {
      * Используется для совместимости со старыми клиентами.
      * 
      * @param loginRequest данные для входа (login, password)
+     * @param idempotencyKey необязательный ключ, по которому повтор запроса получает первоначальный статус и новые токены
      * @return TokenResponse с access и refresh токенами
      */
     @PostMapping("/create-token")
-    public ResponseEntity<TokenResponse> createToken(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authService.login(loginRequest));
+    public WebAsyncTask<ResponseEntity<TokenResponse>> createToken(
+            @Valid @RequestBody LoginRequest loginRequest,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        String requestHash = IdempotencyStore.fingerprint(loginRequest.getLogin(), loginRequest.getPassword());
+        return priorityLanes.throughput(() -> idempotencyStore.execute("create-token", idempotencyKey, requestHash,
+                loginRequest.getLogin(), () -> ResponseEntity.ok(authService.login(loginRequest)),
+                authService::reissueTokens));
+    }
+
+    /**
+     * Выход из системы: отзывает access и refresh токены текущей сессии.
+     * После вызова токены не проходят /validate, /forward-auth и /refresh, даже если срок их действия не истек.
+     *
+     * @param request access и refresh токены
+     * @return ResponseEntity со статусом 204 No Content
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody LogoutRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
     }
 
 //    @PostMapping("/validate")
@@ -117,10 +176,56 @@ public class AuthController {
      * @return TokenValidationResponse с результатом валидации и информацией о пользователе
      */
     @PostMapping("/validate")
-    public ResponseEntity<TokenValidationResponse> validateToken(
-            @Valid @RequestBody TokenValidationRequest request) {
-        TokenValidationResponse validationResponse = authService.validateToken(request.getToken());
-        return ResponseEntity.ok(validationResponse);
+    public WebAsyncTask<ResponseEntity<TokenValidationResponse>> validateToken(
+            @Valid @RequestBody TokenValidationRequest request,
+            HttpServletRequest httpRequest) {
+        // Если этот же токен уже проверен JwtAuthenticationFilter (пришел в Authorization), не разбираем его повторно
+        Optional<TokenPrincipal> verified = JwtAuthenticationFilter.getVerifiedPrincipal(httpRequest, request.getToken());
+        return priorityLanes.latency(() -> ResponseEntity.ok(verified
+                .map(principal -> new TokenValidationResponse(true, principal.username(), principal.role()))
+                .orElseGet(() -> authService.validateToken(request.getToken()))));
+    }
+
+    /**
+     * Проверка токена для reverse proxy (nginx auth_request, Traefik ForwardAuth).
+     * Читает токен из заголовка Authorization и отвечает без тела:
+     * 200 с заголовками X-User/X-Role, если токен валиден, иначе 401.
+     * Успешный ответ разрешено кэшировать приватно, но не дольше оставшегося времени жизни токена
+     * и не дольше auth.forward-auth.max-cache-seconds.
+     *
+     * @param authorization заголовок Authorization в формате "Bearer {token}"
+     * @return пустой ответ 200 или 401
+     */
+    @GetMapping("/forward-auth")
+    public WebAsyncTask<ResponseEntity<Void>> forwardAuth(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return priorityLanes.latency(() -> doForwardAuth(authorization));
+    }
+
+    private ResponseEntity<Void> doForwardAuth(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return unauthorized();
+        }
+
+        TokenPrincipal principal = authService.verifyToken(authorization.substring(BEARER_PREFIX.length()))
+                .orElse(null);
+        if (principal == null) {
+            return unauthorized();
+        }
+
+        long maxAge = Math.min(principal.remainingSeconds(), forwardAuthMaxCacheSeconds);
+        return ResponseEntity.ok()
+                .header(USER_HEADER, principal.username())
+                .header(ROLE_HEADER, principal.role())
+                .header(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePrivate())
+                .build();
+    }
+
+    private ResponseEntity<Void> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .cacheControl(CacheControl.noStore())
+                .build();
     }
 
     /**
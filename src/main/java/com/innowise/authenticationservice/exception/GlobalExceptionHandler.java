@@ -2,7 +2,10 @@ package com.innowise.authenticationservice.exception;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -13,6 +16,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
@@ -26,6 +30,10 @@ import io.jsonwebtoken.security.SignatureException;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Через сколько секунд клиенту повторить запрос, отклоненный из-за перегрузки.
+    @Value("${auth.admission.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
     /**
      * Обрабатывает исключения аутентификации из нашего сервиса.
      * Возвращает HTTP 401 Unauthorized с кодом AUTHENTICATION_ERROR.
@@ -109,6 +117,35 @@ public class GlobalExceptionHandler {
         return buildErrorResponse("JWT_ERROR", "JWT processing error: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Обрабатывает недопустимое значение заголовка Idempotency-Key.
+     * Возвращает HTTP 400 Bad Request с кодом INVALID_IDEMPOTENCY_KEY.
+     */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKeyException(final InvalidIdempotencyKeyException e) {
+        return buildErrorResponse("INVALID_IDEMPOTENCY_KEY", e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Обрабатывает повторное использование Idempotency-Key с другим запросом.
+     * Возвращает HTTP 422 Unprocessable Entity с кодом IDEMPOTENCY_KEY_REUSED.
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReuseException(final IdempotencyKeyReuseException e) {
+        return buildErrorResponse("IDEMPOTENCY_KEY_REUSED", e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Обрабатывает переполнение очереди PriorityLanes и истечение времени ожидания в ней.
+     * Возвращает HTTP 503 Service Unavailable с заголовком Retry-After.
+     */
+    @ExceptionHandler({RejectedExecutionException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleOverload(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service is overloaded, retry later"));
+    }
+
     /**
      * Обрабатывает общие исключения времени выполнения.
      * Возвращает HTTP 400 Bad Request с сообщением об ошибке.
@@ -0,0 +1,5 @@
+package com.innowise.authenticationservice.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {super(message);}
+}
@@ -0,0 +1,5 @@
+package com.innowise.authenticationservice.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {super(message);}
+}
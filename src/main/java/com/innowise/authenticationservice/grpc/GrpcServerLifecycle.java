@@ -0,0 +1,97 @@
+package com.innowise.authenticationservice.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+
+/**
+ * Управляет жизненным циклом gRPC сервера вместе с Spring контекстом.
+ * Сервер стартует после инициализации бинов и останавливается при закрытии контекста.
+ * Вызовы выполняются в отдельном пуле (grpc.server.executor-threads), а не в event loop Netty:
+ * при промахе UserVersionCache валидация читает пользователя из БД, и блокировка event loop
+ * задержала бы все вызовы на соединениях этого потока.
+ */
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+    private static final long SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final int port;
+    private final List<BindableService> services;
+    private final List<ServerInterceptor> interceptors;
+    private final int executorThreads;
+    private volatile Server server;
+    private volatile ExecutorService executor;
+
+    public GrpcServerLifecycle(int port, int executorThreads, List<BindableService> services,
+                               List<ServerInterceptor> interceptors) {
+        this.port = port;
+        this.executorThreads = executorThreads;
+        this.services = services;
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(executorThreads, runnable -> {
+            Thread thread = new Thread(runnable, "grpc-validate-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+                .executor(executor);
+        services.forEach(builder::addService);
+        interceptors.forEach(builder::intercept);
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, e);
+        }
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor.shutdown();
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // Фактический порт (полезно, если в конфигурации указан 0)
+    public int getPort() {
+        Server current = server;
+        return current != null ? current.getPort() : port;
+    }
+}
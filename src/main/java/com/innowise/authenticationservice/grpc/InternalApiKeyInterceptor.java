@@ -0,0 +1,47 @@
+package com.innowise.authenticationservice.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+/**
+ * Пропускает к gRPC сервисам только вызовы с внутренним API ключом (internal.api.key)
+ * в метаданных x-internal-api-key - так же, как REST endpoint /internal/sync проверяет заголовок X-Internal-Api-Key.
+ * Если ключ не настроен, отклоняются все вызовы: порт не должен проверять токены для кого угодно.
+ */
+public class InternalApiKeyInterceptor implements ServerInterceptor {
+
+    public static final Metadata.Key<String> API_KEY =
+            Metadata.Key.of("x-internal-api-key", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final byte[] expectedKey;
+
+    public InternalApiKeyInterceptor(String internalApiKey) {
+        this.expectedKey = internalApiKey == null || internalApiKey.isBlank()
+                ? null
+                : internalApiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isConfigured() {
+        return expectedKey != null;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String apiKey = headers.get(API_KEY);
+        // Сравнение за постоянное время, чтобы ключ нельзя было подобрать по времени ответа
+        if (expectedKey == null || apiKey == null
+                || !MessageDigest.isEqual(expectedKey, apiKey.getBytes(StandardCharsets.UTF_8))) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Invalid or missing internal API key"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+}
@@ -0,0 +1,69 @@
+package com.innowise.authenticationservice.grpc;
+
+import com.innowise.authenticationservice.dto.TokenValidationResponse;
+import com.innowise.authenticationservice.grpc.v1.TokenValidationServiceGrpc;
+import com.innowise.authenticationservice.grpc.v1.ValidateTokenRequest;
+import com.innowise.authenticationservice.grpc.v1.ValidateTokenResponse;
+import com.innowise.authenticationservice.service.AuthService;
+
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC реализация валидации токенов.
+ * Использует ту же логику, что и REST endpoint POST /auth/v1/validate (AuthService.validateToken),
+ * но без JSON-сериализации и с переиспользованием одного HTTP/2 соединения.
+ */
+public class TokenValidationGrpcService extends TokenValidationServiceGrpc.TokenValidationServiceImplBase {
+
+    private final AuthService authService;
+
+    public TokenValidationGrpcService(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    public void validate(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+        responseObserver.onNext(validate(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<ValidateTokenRequest> validateStream(StreamObserver<ValidateTokenResponse> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateTokenRequest request) {
+                // Отвечаем сразу на каждый токен, не дожидаясь конца потока
+                responseObserver.onNext(validate(request));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Клиент оборвал поток - отвечать некому
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private ValidateTokenResponse validate(ValidateTokenRequest request) {
+        ValidateTokenResponse.Builder response = ValidateTokenResponse.newBuilder()
+                .setRequestId(request.getRequestId());
+        if (request.getToken().isEmpty()) {
+            return response.setValid(false).build();
+        }
+
+        TokenValidationResponse result = authService.validateToken(request.getToken());
+        response.setValid(result.isValid());
+        // В protobuf строковые поля не могут быть null
+        if (result.getUsername() != null) {
+            response.setUsername(result.getUsername());
+        }
+        if (result.getRole() != null) {
+            response.setRole(result.getRole());
+        }
+        return response.build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.innowise.authenticationservice.invalidation;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Шина инвалидации локальных кэшей между репликами auth-service поверх PostgreSQL LISTEN/NOTIFY.
+ * publish() не обращается к БД: ключ попадает в буфер, где повторы схлопываются (coalescing),
+ * а буфер раз в auth.invalidation.flush-interval-ms отправляется одним запросом pg_notify по всем темам.
+ * Если publish вызван внутри транзакции, ключ попадает в буфер только после ее фиксации,
+ * чтобы другие узлы не перечитали данные до коммита.
+ * Прием уведомлений - InvalidationListenerContainer.
+ * Канал CHANNEL не настраивается: в него же пишет триггер users_bump_token_version (changelog 005),
+ * и при другом канале изменения роли и пароля в БД перестали бы сбрасывать кэши узлов.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    public static final String CHANNEL = "auth_invalidation";
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS payload";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    // тема -> ключи, ожидающие отправки
+    private final Map<String, Set<String>> pending = new ConcurrentHashMap<>();
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate, @Value("${auth.invalidation.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Сообщает другим узлам, что ключ в теме изменился.
+     *
+     * @param topic тема (InvalidationTopics)
+     * @param key измененный ключ
+     */
+    public void publish(String topic, String key) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(topic, key);
+                }
+            });
+        } else {
+            enqueue(topic, key);
+        }
+    }
+
+    /**
+     * Отправляет накопленные ключи. Все payload уходят одним запросом (одна транзакция NOTIFY).
+     * При ошибке ключи возвращаются в буфер и будут отправлены в следующий раз.
+     */
+    @Scheduled(fixedDelayString = "${auth.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> batch = new HashMap<>();
+        for (String topic : pending.keySet()) {
+            Set<String> keys = pending.remove(topic);
+            if (keys != null) {
+                batch.put(topic, keys);
+            }
+        }
+        List<String> payloads = new ArrayList<>();
+        batch.forEach((topic, keys) -> payloads.addAll(InvalidationMessage.encode(nodeId, topic, keys)));
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                Array array = connection.createArrayOf("text", payloads.toArray());
+                try (var statement = connection.prepareStatement(NOTIFY_SQL)) {
+                    statement.setString(1, CHANNEL);
+                    statement.setArray(2, array);
+                    statement.executeQuery().close();
+                } finally {
+                    array.free();
+                }
+                return null;
+            });
+            log.debug("Sent {} invalidation notifications for topics {}", payloads.size(), batch.keySet());
+        } catch (RuntimeException e) {
+            log.warn("Failed to send invalidation notifications, will retry: {}", e.getMessage());
+            batch.forEach((topic, keys) -> keys.forEach(key -> enqueue(topic, key)));
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public String channel() {
+        return CHANNEL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // compute() атомарен для темы: flush() забирает набор через remove() и после этого его никто не меняет.
+    private void enqueue(String topic, String key) {
+        pending.compute(topic, (t, keys) -> {
+            Set<String> result = keys != null ? keys : new LinkedHashSet<>();
+            result.add(key);
+            return result;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.innowise.authenticationservice.invalidation;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Подписчик шины инвалидации: локальный кэш, который нужно синхронизировать с другими узлами.
+ */
+public interface InvalidationListener {
+
+    // Тема, на которую подписан слушатель (см. InvalidationTopics).
+    String topic();
+
+    // Ключи, измененные на другом узле.
+    void onInvalidation(Collection<String> keys);
+
+    /**
+     * Догоняющая синхронизация после переподключения: уведомления, отправленные пока соединение
+     * было разорвано, потеряны, поэтому слушатель перечитывает из БД изменения начиная с since.
+     */
+    void onResync(Instant since);
+}
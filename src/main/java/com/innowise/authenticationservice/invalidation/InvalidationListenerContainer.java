@@ -0,0 +1,159 @@
+package com.innowise.authenticationservice.invalidation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Прием уведомлений шины инвалидации (LISTEN) на отдельном соединении с PostgreSQL.
+ * Соединение не берется из пула Hikari: LISTEN привязан к сессии и держит соединение постоянно.
+ * Свои сообщения (по nodeId) пропускаются - локальный кэш уже обновлен при публикации.
+ * При разрыве соединение переоткрывается с паузой auth.invalidation.reconnect-delay-ms, после чего
+ * слушатели получают onResync с моментом последнего успешного опроса (минус запас), чтобы догнать
+ * изменения, уведомления о которых были потеряны.
+ */
+@Component
+public class InvalidationListenerContainer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationListenerContainer.class);
+    // Запас на расхождение часов узлов и задержку коммита при догоняющей синхронизации
+    private static final Duration RESYNC_MARGIN = Duration.ofSeconds(5);
+
+    private final InvalidationBus bus;
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<String, List<InvalidationListener>> listenersByTopic;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final Clock clock = Clock.systemUTC();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+    // Момент последнего успешного опроса; null - соединения еще не было
+    private volatile Instant lastPolled;
+
+    public InvalidationListenerContainer(InvalidationBus bus,
+                                         DataSourceProperties dataSourceProperties,
+                                         List<InvalidationListener> listeners,
+                                         @Value("${auth.invalidation.poll-timeout-ms:500}") int pollTimeoutMillis,
+                                         @Value("${auth.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        this.bus = bus;
+        this.dataSourceProperties = dataSourceProperties;
+        this.listenersByTopic = listeners.stream().collect(Collectors.groupingBy(InvalidationListener::topic));
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("invalidation-listener").start(this::listenLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(pollTimeoutMillis * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return bus.isEnabled();
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + bus.channel() + "\"");
+                }
+                log.info("Listening for invalidations on channel '{}' (node {})", bus.channel(), bus.nodeId());
+                if (lastPolled != null) {
+                    resync(lastPolled.minus(RESYNC_MARGIN));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    lastPolled = clock.instant();
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener connection lost, reconnecting in {} ms: {}",
+                            reconnectDelayMillis, e.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        InvalidationMessage message = InvalidationMessage.decode(payload);
+        if (message == null || bus.nodeId().equals(message.nodeId())) {
+            return;
+        }
+        for (InvalidationListener listener : listenersByTopic.getOrDefault(message.topic(), List.of())) {
+            try {
+                listener.onInvalidation(message.keys());
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener for topic '{}' failed: {}", message.topic(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void resync(Instant since) {
+        log.info("Resyncing local caches with changes since {}", since);
+        listenersByTopic.values().stream().flatMap(List::stream).forEach(listener -> {
+            try {
+                listener.onResync(since);
+            } catch (RuntimeException e) {
+                log.error("Resync of topic '{}' failed: {}", listener.topic(), e.getMessage(), e);
+            }
+        });
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
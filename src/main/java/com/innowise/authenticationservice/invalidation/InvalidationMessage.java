@@ -0,0 +1,61 @@
+package com.innowise.authenticationservice.invalidation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Пакет ключей одной темы, передаваемый через NOTIFY.
+ * Формат payload: "nodeId|topic" и далее ключи, по одному на строку.
+ * Payload NOTIFY ограничен 8000 байт, поэтому большой набор ключей режется на несколько сообщений.
+ *
+ * @param nodeId идентификатор узла-отправителя (свои сообщения узел пропускает)
+ * @param topic тема
+ * @param keys измененные ключи
+ */
+record InvalidationMessage(String nodeId, String topic, List<String> keys) {
+
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final char HEADER_SEPARATOR = '|';
+    private static final char KEY_SEPARATOR = '\n';
+
+    // Кодирует ключи в один или несколько payload, каждый не длиннее MAX_PAYLOAD_BYTES.
+    static List<String> encode(String nodeId, String topic, Collection<String> keys) {
+        String header = nodeId + HEADER_SEPARATOR + topic;
+        int headerBytes = utf8Length(header);
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(header);
+        int payloadBytes = headerBytes;
+        for (String key : keys) {
+            int keyBytes = utf8Length(key) + 1;
+            if (payloadBytes + keyBytes > MAX_PAYLOAD_BYTES && payloadBytes > headerBytes) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(header);
+                payloadBytes = headerBytes;
+            }
+            payload.append(KEY_SEPARATOR).append(key);
+            payloadBytes += keyBytes;
+        }
+        if (payloadBytes > headerBytes) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    // Разбирает payload; возвращает null, если формат не распознан.
+    static InvalidationMessage decode(String payload) {
+        String[] lines = payload.split(String.valueOf(KEY_SEPARATOR));
+        int separator = lines[0].indexOf(HEADER_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        return new InvalidationMessage(lines[0].substring(0, separator), lines[0].substring(separator + 1),
+                List.copyOf(Arrays.asList(lines).subList(1, lines.length)));
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,15 @@
+package com.innowise.authenticationservice.invalidation;
+
+/**
+ * Темы шины инвалидации.
+ */
+public final class InvalidationTopics {
+
+    // Отозванный токен, ключ - "jti|exp (epoch millis)"
+    public static final String REVOKED_TOKEN = "revoked-token";
+    // Изменение или удаление пользователя, ключ - login
+    public static final String USER = "user";
+
+    private InvalidationTopics() {
+    }
+}
@@ -0,0 +1,57 @@
+package com.innowise.authenticationservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Базовое JFR событие горячих путей аутентификации.
+ * Длительность измеряется самим JFR (begin/end), поля заполняются только если событие будет записано,
+ * поэтому при выключенной записи стоимость сводится к проверке shouldCommit().
+ */
+@Category({"Authentication Service"})
+@StackTrace(false)
+public abstract class AuthEvent extends Event {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("User Key")
+    @Description("Первые 8 байт SHA-256 от логина: позволяет связать события одного пользователя без хранения email")
+    String userKey;
+
+    // Логин в открытом виде; transient - JFR его не сохраняет, хеш считается только при записи события.
+    transient String login;
+
+    protected AuthEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    // Привязывает событие к пользователю, если он известен в месте вызова.
+    public AuthEvent forUser(String login) {
+        this.login = login;
+        return this;
+    }
+
+    // Завершает замер и записывает событие с указанным результатом.
+    void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.userKey = JfrUserKey.hash(login != null ? login : JfrUserKey.current());
+            commit();
+        }
+    }
+}
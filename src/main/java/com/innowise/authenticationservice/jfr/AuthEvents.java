@@ -0,0 +1,43 @@
+package com.innowise.authenticationservice.jfr;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+
+/**
+ * Обертки для замера участков кода JFR событиями.
+ * Результат события - success, либо failure при исключении, либо значение outcomeOf для успешного вызова.
+ * Внутри AuthMetrics.withoutRecording (прогрев) события не записываются.
+ */
+public final class AuthEvents {
+
+    private AuthEvents() {
+    }
+
+    public static <T> T record(AuthEvent event, Supplier<T> action) {
+        return record(event, action, result -> AuthEvent.OUTCOME_SUCCESS);
+    }
+
+    public static <T> T record(AuthEvent event, Supplier<T> action, Function<T, String> outcomeOf) {
+        if (AuthMetrics.isRecordingSuppressed()) {
+            return action.get();
+        }
+        event.begin();
+        String outcome = AuthEvent.OUTCOME_FAILURE;
+        try {
+            T result = action.get();
+            outcome = outcomeOf.apply(result);
+            return result;
+        } finally {
+            event.finish(outcome);
+        }
+    }
+
+    public static void run(AuthEvent event, Runnable action) {
+        record(event, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.innowise.authenticationservice.jfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Actuator endpoint /actuator/jfr для профилирования в production без внешних профайлеров.
+ * POST - запускает запись (события аутентификации без порога + сэмплы CPU),
+ * DELETE - останавливает запись и возвращает сводку по горячим путям,
+ * GET - состояние текущей записи.
+ * Одновременно может идти только одна запись; она ограничена по времени и останавливается сама.
+ * Endpoint не входит в публичные - доступен только с ролью ROLE_ADMIN (SecurityConfig).
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private static final String RECORDING_NAME = "auth-hot-paths";
+    private static final long DEFAULT_MAX_SECONDS = 300;
+    private static final long DEFAULT_SAMPLE_PERIOD_MILLIS = 20;
+    private static final int DEFAULT_TOP = 20;
+
+    private Recording recording;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NOT_STARTED");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxDurationSeconds", recording.getDuration() != null ? recording.getDuration().toSeconds() : null);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long maxDurationSeconds, @Nullable Long thresholdMillis) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+
+        Duration threshold = Duration.ofMillis(thresholdMillis != null ? thresholdMillis : 0);
+        Recording newRecording = new Recording();
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setDuration(Duration.ofSeconds(maxDurationSeconds != null ? maxDurationSeconds : DEFAULT_MAX_SECONDS));
+        newRecording.enable(PasswordHashEvent.class).withThreshold(threshold);
+        newRecording.enable(TokenEvent.class).withThreshold(threshold);
+        newRecording.enable(OutboundCallEvent.class).withThreshold(threshold);
+        newRecording.enable(JfrRecordingSummarizer.EXECUTION_SAMPLE)
+                .withPeriod(Duration.ofMillis(DEFAULT_SAMPLE_PERIOD_MILLIS));
+        newRecording.start();
+        recording = newRecording;
+        log.info("JFR recording '{}' started, max duration {}", RECORDING_NAME, newRecording.getDuration());
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized JfrSummary stop(@Nullable Integer top) {
+        if (recording == null) {
+            throw new IllegalStateException("JFR recording is not started");
+        }
+        Path file = null;
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Instant start = recording.getStartTime();
+            Instant end = recording.getStopTime() != null ? recording.getStopTime() : Instant.now();
+            file = Files.createTempFile(RECORDING_NAME, ".jfr");
+            recording.dump(file);
+            return JfrRecordingSummarizer.summarize(file, Duration.between(start, end), top != null ? top : DEFAULT_TOP);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JFR recording", e);
+        } finally {
+            closeRecording();
+            deleteQuietly(file);
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete JFR dump {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.innowise.authenticationservice.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Читает файл JFR записи и строит сводку по горячим путям.
+ */
+final class JfrRecordingSummarizer {
+
+    static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    static final Set<String> AUTH_EVENTS = Set.of(PasswordHashEvent.NAME, TokenEvent.NAME, OutboundCallEvent.NAME);
+
+    private JfrRecordingSummarizer() {
+    }
+
+    static JfrSummary summarize(Path file, Duration recorded, int top) throws IOException {
+        Map<List<String>, List<Duration>> durations = new HashMap<>();
+        Map<String, Long> samples = new HashMap<>();
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (AUTH_EVENTS.contains(name)) {
+                    String operation = event.getString("operation");
+                    if (event.hasField("target")) {
+                        operation = event.getString("target") + ":" + operation;
+                    }
+                    durations.computeIfAbsent(List.of(name, operation, String.valueOf(event.getString("outcome"))),
+                            key -> new ArrayList<>()).add(event.getDuration());
+                } else if (EXECUTION_SAMPLE.equals(name)) {
+                    String method = topFrame(event.getStackTrace());
+                    if (method != null) {
+                        samples.merge(method, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        List<JfrSummary.EventStats> events = durations.entrySet().stream()
+                .map(entry -> stats(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(JfrSummary.EventStats::totalMillis).reversed())
+                .limit(top)
+                .toList();
+        List<JfrSummary.HotMethod> hotMethods = samples.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new JfrSummary.HotMethod(entry.getKey(), entry.getValue()))
+                .toList();
+        return new JfrSummary(recorded.toMillis(), events, hotMethods);
+    }
+
+    private static JfrSummary.EventStats stats(List<String> key, List<Duration> values) {
+        long[] nanos = values.stream().mapToLong(Duration::toNanos).sorted().toArray();
+        long total = 0;
+        for (long value : nanos) {
+            total += value;
+        }
+        int p99Index = Math.max(0, (int) Math.ceil(nanos.length * 0.99) - 1);
+        return new JfrSummary.EventStats(key.get(0), key.get(1), key.get(2), nanos.length,
+                toMillis(total), toMillis(nanos[p99Index]), toMillis(nanos[nanos.length - 1]));
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return null;
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
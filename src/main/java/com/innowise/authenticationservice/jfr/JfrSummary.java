@@ -0,0 +1,26 @@
+package com.innowise.authenticationservice.jfr;
+
+import java.util.List;
+
+/**
+ * Сводка по остановленной JFR записи: статистика событий аутентификации и самые горячие методы по сэмплам CPU.
+ *
+ * @param durationMillis длительность записи
+ * @param events статистика событий, отсортированная по суммарному времени
+ * @param hotMethods методы с наибольшим числом сэмплов jdk.ExecutionSample (верхний кадр стека)
+ */
+public record JfrSummary(long durationMillis, List<EventStats> events, List<HotMethod> hotMethods) {
+
+    /**
+     * Статистика одной группы событий (тип + операция + результат).
+     */
+    public record EventStats(String event, String operation, String outcome, long count,
+                             double totalMillis, double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * Метод и количество сэмплов, в которых он был верхним кадром.
+     */
+    public record HotMethod(String method, long samples) {
+    }
+}
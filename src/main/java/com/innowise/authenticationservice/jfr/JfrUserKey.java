@@ -0,0 +1,55 @@
+package com.innowise.authenticationservice.jfr;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Ключ пользователя для JFR событий.
+ * Логин не попадает в запись: сохраняются только первые 8 байт SHA-256 (16 hex символов).
+ * Для участков, где логин не передается явно (например, BCrypt), логин привязывается к потоку на время операции.
+ */
+public final class JfrUserKey {
+
+    private static final int KEY_BYTES = 8;
+    private static final ThreadLocal<String> CURRENT_LOGIN = new ThreadLocal<>();
+
+    private JfrUserKey() {
+    }
+
+    // Выполняет действие с логином, привязанным к текущему потоку.
+    public static <T> T callWith(String login, Supplier<T> action) {
+        String previous = CURRENT_LOGIN.get();
+        CURRENT_LOGIN.set(login);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_LOGIN.remove();
+            } else {
+                CURRENT_LOGIN.set(previous);
+            }
+        }
+    }
+
+    static String current() {
+        return CURRENT_LOGIN.get();
+    }
+
+    // Возвращает усеченный SHA-256 от логина (без учета регистра) или null, если логин неизвестен.
+    public static String hash(String login) {
+        if (login == null || login.isBlank()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(login.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, KEY_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
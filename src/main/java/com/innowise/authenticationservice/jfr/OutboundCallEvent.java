@@ -0,0 +1,24 @@
+package com.innowise.authenticationservice.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Исходящий вызов во внешний сервис (user-service, Keycloak).
+ */
+@Name(OutboundCallEvent.NAME)
+@Label("Outbound Call")
+@Description("HTTP вызовы user-service и Keycloak Admin API")
+public class OutboundCallEvent extends AuthEvent {
+
+    public static final String NAME = "com.innowise.auth.OutboundCall";
+
+    @Label("Target")
+    String target;
+
+    public OutboundCallEvent(String target, String operation) {
+        super(operation);
+        this.target = target;
+    }
+}
@@ -0,0 +1,22 @@
+package com.innowise.authenticationservice.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Хеширование или проверка пароля BCrypt (operation = encode / matches).
+ * Для matches неверный пароль записывается с результатом mismatch.
+ */
+@Name(PasswordHashEvent.NAME)
+@Label("Password Hash")
+@Description("BCrypt encode/matches")
+public class PasswordHashEvent extends AuthEvent {
+
+    public static final String NAME = "com.innowise.auth.PasswordHash";
+    public static final String OUTCOME_MISMATCH = "mismatch";
+
+    public PasswordHashEvent(String operation) {
+        super(operation);
+    }
+}
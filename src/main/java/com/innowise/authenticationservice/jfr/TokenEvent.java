@@ -0,0 +1,25 @@
+package com.innowise.authenticationservice.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Подпись или проверка JWT (operation = sign / verify).
+ * Проверка токена выполняется на каждом запросе, поэтому по умолчанию пишутся только вызовы дольше 1 мс;
+ * запись через /actuator/jfr снимает порог.
+ */
+@Name(TokenEvent.NAME)
+@Label("JWT Token")
+@Description("Подпись и проверка JWT (HS256)")
+@Threshold("1 ms")
+public class TokenEvent extends AuthEvent {
+
+    public static final String NAME = "com.innowise.auth.Token";
+    public static final String OUTCOME_INVALID = "invalid";
+
+    public TokenEvent(String operation) {
+        super(operation);
+    }
+}
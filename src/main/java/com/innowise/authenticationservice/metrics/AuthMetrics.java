@@ -0,0 +1,142 @@
+package com.innowise.authenticationservice.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Метрики горячих путей аутентификации (Micrometer, публикуются через /actuator/prometheus).
+ * auth.operation - полное время операции (login, register, refresh, validate, logout, delete) с результатом;
+ * auth.step - время отдельных шагов внутри операций (BCrypt, БД, подпись токена, внешние вызовы);
+ * auth.failures - количество отказов по операции и причине.
+ * Гистограммы для таймеров включаются в application.properties (management.metrics.distribution.*).
+ * Набор тегов конечен, поэтому таймеры и счетчики регистрируются один раз и дальше берутся из локальных карт:
+ * на горячем пути нет ни builder-а, ни поиска в реестре.
+ * Прогрев (AuthPathWarmer) выполняется внутри withoutRecording: его синтетические вызовы не попадают
+ * ни в метрики, ни в JFR события (AuthEvents).
+ */
+@Component
+public class AuthMetrics {
+
+    public static final String OPERATION_TIMER = "auth.operation";
+    public static final String STEP_TIMER = "auth.step";
+    public static final String FAILURE_COUNTER = "auth.failures";
+
+    // Операции
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+    public static final String REFRESH = "refresh";
+    public static final String VALIDATE = "validate";
+    public static final String DELETE = "delete";
+    public static final String LOGOUT = "logout";
+
+    // Шаги внутри операций
+    public static final String STEP_BCRYPT = "bcrypt";
+    public static final String STEP_DB = "db";
+    public static final String STEP_TOKEN_SIGN = "token_sign";
+    public static final String STEP_TOKEN_VERIFY = "token_verify";
+    public static final String STEP_USER_SERVICE = "user_service";
+    public static final String STEP_KEYCLOAK = "keycloak";
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_FAILURE = "failure";
+
+    // Поток выполняет прогрев: метрики и JFR события не записываются.
+    private static final ThreadLocal<Boolean> RECORDING_SUPPRESSED = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    // Зарегистрированные метры по (имя, значение тега, outcome/reason).
+    private final ConcurrentMap<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Выполняет действие, не записывая на текущем потоке метрики auth.* и JFR события.
+    public static <T> T withoutRecording(Supplier<T> action) {
+        Boolean previous = RECORDING_SUPPRESSED.get();
+        RECORDING_SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            RECORDING_SUPPRESSED.set(previous);
+        }
+    }
+
+    public static boolean isRecordingSuppressed() {
+        return RECORDING_SUPPRESSED.get() == Boolean.TRUE;
+    }
+
+    // Замеряет операцию целиком; результат (success/failure) определяется по выброшенному исключению.
+    public <T> T recordOperation(String operation, Supplier<T> action) {
+        return record(OPERATION_TIMER, "operation", operation, action);
+    }
+
+    public void runOperation(String operation, Runnable action) {
+        recordOperation(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Замеряет отдельный шаг (например, BCrypt или запрос к БД).
+    public <T> T recordStep(String step, Supplier<T> action) {
+        return record(STEP_TIMER, "step", step, action);
+    }
+
+    public void runStep(String step, Runnable action) {
+        recordStep(step, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Увеличивает счетчик отказов для операции с указанной причиной.
+    public void recordFailure(String operation, String reason) {
+        if (isRecordingSuppressed()) {
+            return;
+        }
+        failureCounters.computeIfAbsent(new MeterKey(FAILURE_COUNTER, operation, reason),
+                key -> Counter.builder(FAILURE_COUNTER)
+                        .description("Authentication failures by operation and reason")
+                        .tag("operation", operation)
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment();
+    }
+
+    private <T> T record(String timerName, String tagName, String tagValue, Supplier<T> action) {
+        if (isRecordingSuppressed()) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        String outcome = OUTCOME_FAILURE;
+        try {
+            T result = action.get();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            timer(timerName, tagName, tagValue, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String timerName, String tagName, String tagValue, String outcome) {
+        return timers.computeIfAbsent(new MeterKey(timerName, tagValue, outcome),
+                key -> Timer.builder(timerName)
+                        .tag(tagName, tagValue)
+                        .tag("outcome", outcome)
+                        .register(registry));
+    }
+
+    private record MeterKey(String name, String tag, String qualifier) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.innowise.authenticationservice.model;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Непрозрачный refresh токен. Сам токен не хранится - только его SHA-256.
+ * Все токены, полученные последовательной ротацией от одного входа, образуют семейство (familyId):
+ * повторное использование уже замененного токена отзывает все семейство.
+ * В БД первичный ключ - (token_hash, expires_at), так как таблица секционирована по expires_at;
+ * изменения выполняются запросами RefreshTokenRepository с обоими полями, чтобы затрагивалась одна секция.
+ * Время хранится в UTC.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@NoArgsConstructor
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private String userLogin;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Момент ротации; непустое значение означает, что токен уже заменен новым
+    private LocalDateTime usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @Transient
+    private boolean isNew = true;
+
+    public RefreshToken(String tokenHash, LocalDateTime expiresAt, String familyId, String userLogin,
+                        LocalDateTime createdAt) {
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
+        this.familyId = familyId;
+        this.userLogin = userLogin;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.innowise.authenticationservice.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Отозванный токен (jti) - постоянная копия списка отзыва.
+ * Запись нужна до истечения срока действия токена, после этого удаляется плановой очисткой.
+ * Время хранится в UTC.
+ * Идентификатор задается приложением, поэтому реализован Persistable: save() выполняет INSERT без предварительного SELECT.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@NoArgsConstructor
+public class RevokedToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_id", nullable = false, length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public RevokedToken(String tokenId, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    @Override
+    public String getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
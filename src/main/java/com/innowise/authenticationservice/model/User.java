@@ -1,6 +1,7 @@
 package com.innowise.authenticationservice.model;
 
 import java.time.LocalDateTime;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -12,20 +13,35 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @AllArgsConstructor
 public class User {
+    // Регионы второго уровня кэша Hibernate (ehcache.xml)
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-login";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Логин не меняется после регистрации: поиск по нему идет через natural id кэш
+    @NaturalId
     @NotBlank
     @Column(unique = true, nullable = false)
     private String login;
@@ -43,6 +59,21 @@ public class User {
 
     private LocalDateTime updatedAt;
 
+    // Версия учетных данных (claim ver в JWT). Увеличивается триггером БД при смене роли или пароля,
+    // поэтому приложение ее не записывает.
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long tokenVersion;
+
+    // Последний вход (UTC) и число входов. Пишутся отложенно пачками (LoginActivityTracker), а не через сущность,
+    // поэтому значения в кэше второго уровня могут отставать на окно сброса.
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lastLoginAt;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long loginCount;
+
     public User() {
         this.createdAt = LocalDateTime.now();
     }
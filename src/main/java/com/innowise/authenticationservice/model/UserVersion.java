@@ -0,0 +1,11 @@
+package com.innowise.authenticationservice.model;
+
+/**
+ * Данные пользователя, достаточные для выдачи и проверки токенов без загрузки сущности User.
+ *
+ * @param login логин (email)
+ * @param role роль
+ * @param tokenVersion версия учетных данных (claim ver в JWT)
+ */
+public record UserVersion(String login, Role role, long tokenVersion) {
+}
@@ -0,0 +1,31 @@
+package com.innowise.authenticationservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import com.innowise.authenticationservice.model.RefreshToken;
+
+/**
+ * Запросы к refresh_tokens всегда передают expires_at вместе с хешем:
+ * PostgreSQL отбрасывает лишние секции и выполняет один поиск по первичному ключу.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    @Query("select t from RefreshToken t where t.tokenHash = :tokenHash and t.expiresAt = :expiresAt")
+    Optional<RefreshToken> findToken(String tokenHash, LocalDateTime expiresAt);
+
+    // Атомарно помечает токен использованным; 0 - токен уже использован или отозван параллельным запросом.
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :usedAt where t.tokenHash = :tokenHash and t.expiresAt = :expiresAt"
+            + " and t.usedAt is null and t.revoked = false")
+    int markUsed(String tokenHash, LocalDateTime expiresAt, LocalDateTime usedAt);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(String familyId);
+}
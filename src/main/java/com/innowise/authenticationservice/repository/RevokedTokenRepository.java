@@ -0,0 +1,28 @@
+package com.innowise.authenticationservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.innowise.authenticationservice.model.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // Действующие (еще не истекшие) отозванные токены для перестроения фильтра Блума.
+    @Query("select r from RevokedToken r where r.expiresAt > :now")
+    List<RevokedToken> findActive(LocalDateTime now);
+
+    // Догоняющая синхронизация: токены, отозванные начиная с since и еще не истекшие.
+    @Query("select r from RevokedToken r where r.revokedAt >= :since and r.expiresAt > :now")
+    List<RevokedToken> findActiveRevokedSince(LocalDateTime since, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
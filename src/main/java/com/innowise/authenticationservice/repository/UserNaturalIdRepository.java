@@ -0,0 +1,15 @@
+package com.innowise.authenticationservice.repository;
+
+import java.util.Optional;
+
+import com.innowise.authenticationservice.model.User;
+
+/**
+ * Поиск пользователя по natural id (login) через второй уровень кэша Hibernate.
+ * Реализация (UserNaturalIdRepositoryImpl) подменяет производный запрос findByLogin в UserRepository,
+ * поэтому вызывающему коду ничего менять не нужно.
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByLogin(String login);
+}
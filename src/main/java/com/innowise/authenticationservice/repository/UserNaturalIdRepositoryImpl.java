@@ -0,0 +1,28 @@
+package com.innowise.authenticationservice.repository;
+
+import java.util.Optional;
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.Session;
+
+import com.innowise.authenticationservice.model.User;
+
+/**
+ * bySimpleNaturalId сначала смотрит в natural id кэш (login -> id), затем в кэш сущностей;
+ * к БД обращается только при промахе, и результат кладется в оба региона.
+ */
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<User> findByLogin(String login) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(login);
+    }
+}
@@ -1,13 +1,20 @@
 package com.innowise.authenticationservice.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.innowise.authenticationservice.model.User;
+import com.innowise.authenticationservice.model.UserVersion;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByLogin(String login);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     boolean existsByLogin(String login);
+
+    // Версии указанных пользователей для UserVersionCache (без password_hash и дат).
+    @Query("select new com.innowise.authenticationservice.model.UserVersion(u.login, u.role, u.tokenVersion) "
+            + "from User u where u.login in :logins")
+    List<UserVersion> findVersions(Collection<String> logins);
 }
@@ -0,0 +1,123 @@
+package com.innowise.authenticationservice.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.innowise.authenticationservice.invalidation.InvalidationListener;
+import com.innowise.authenticationservice.invalidation.InvalidationTopics;
+import com.innowise.authenticationservice.model.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Второй уровень кэша Hibernate для User (регионы users и users-by-login, см. ehcache.xml).
+ * Изменения через этот узел Hibernate вытесняет сам; изменения с других узлов и прямые изменения в БД
+ * (триггер users_bump_token_version) приходят через InvalidationBus (тема user) и вытесняются здесь.
+ * Публикует попадания и промахи регионов из статистики Hibernate: auth.user.cache.gets{region, result},
+ * auth.user.cache.puts{region} и auth.user.cache.hit.ratio{region}.
+ */
+@Slf4j
+@Component
+public class UserSecondLevelCache implements InvalidationListener, MeterBinder {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public UserSecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @Override
+    public String topic() {
+        return InvalidationTopics.USER;
+    }
+
+    // Вытесняет natural id и сущности указанных пользователей.
+    @Override
+    public void onInvalidation(Collection<String> logins) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdCacheAccessStrategy();
+        try (Session session = sessionFactory.openSession()) {
+            SharedSessionContractImplementor sessionImplementor = (SharedSessionContractImplementor) session;
+            for (String login : logins) {
+                Object key = naturalIds.generateCacheKey(login, persister, sessionImplementor);
+                Object id = naturalIds.get(sessionImplementor, key);
+                naturalIds.evict(key);
+                if (id != null) {
+                    sessionFactory.getCache().evictEntityData(User.class, id);
+                }
+            }
+        }
+    }
+
+    // Пропущенные уведомления неизвестны - регионы очищаются целиком.
+    @Override
+    public void onResync(Instant since) {
+        evictAll();
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictNaturalIdData(User.class);
+        sessionFactory.getCache().evictEntityData(User.class);
+        log.info("User second-level cache evicted");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : new String[] {User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION}) {
+            FunctionCounter.builder("auth.user.cache.gets", statistics, s -> hits(s, region))
+                    .tag("region", region)
+                    .tag("result", "hit")
+                    .description("Обращения к региону второго уровня кэша Hibernate")
+                    .register(registry);
+            FunctionCounter.builder("auth.user.cache.gets", statistics, s -> misses(s, region))
+                    .tag("region", region)
+                    .tag("result", "miss")
+                    .description("Обращения к региону второго уровня кэша Hibernate")
+                    .register(registry);
+            FunctionCounter.builder("auth.user.cache.puts", statistics, s -> puts(s, region))
+                    .tag("region", region)
+                    .description("Записи в регион второго уровня кэша Hibernate")
+                    .register(registry);
+            Gauge.builder("auth.user.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                    .tag("region", region)
+                    .description("Доля попаданий в регион второго уровня кэша Hibernate")
+                    .register(registry);
+        }
+    }
+
+    private static double hits(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : regionStatistics.getHitCount();
+    }
+
+    private static double misses(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : regionStatistics.getMissCount();
+    }
+
+    private static double puts(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : regionStatistics.getPutCount();
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        double hits = hits(statistics, region);
+        double total = hits + misses(statistics, region);
+        return total == 0 ? Double.NaN : hits / total;
+    }
+}
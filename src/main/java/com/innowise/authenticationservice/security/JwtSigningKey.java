@@ -0,0 +1,62 @@
+package com.innowise.authenticationservice.security;
+
+import java.security.MessageDigest;
+import javax.crypto.SecretKey;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.security.Keys;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ключ подписи JWT (HS256), построенный из jwt.secret один раз, а не на каждую подпись и проверку.
+ * При checkpoint/restore (CRaC) Spring останавливает и заново запускает Lifecycle-бины: при запуске
+ * секрет перечитывается из окружения, поэтому восстановленный из снимка процесс подписывает токены
+ * секретом нового окружения (JWT_SECRET из Kubernetes Secret), а не тем, что был при создании снимка.
+ */
+@Slf4j
+@Component
+public class JwtSigningKey implements SmartLifecycle {
+
+    static final String SECRET_PROPERTY = "jwt.secret";
+
+    private final Environment environment;
+    private volatile SecretKey key;
+    private volatile boolean running;
+
+    public JwtSigningKey(Environment environment) {
+        this.environment = environment;
+        this.key = load();
+    }
+
+    public SecretKey get() {
+        return key;
+    }
+
+    @Override
+    public void start() {
+        SecretKey reloaded = load();
+        if (!MessageDigest.isEqual(reloaded.getEncoded(), key.getEncoded())) {
+            log.info("JWT signing key reloaded from {}", SECRET_PROPERTY);
+        }
+        key = reloaded;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private SecretKey load() {
+        return Keys.hmacShaKeyFor(environment.getRequiredProperty(SECRET_PROPERTY).getBytes());
+    }
+}
@@ -1,82 +1,138 @@
 package com.innowise.authenticationservice.security;
 
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import com.innowise.authenticationservice.jfr.AuthEvents;
+import com.innowise.authenticationservice.jfr.TokenEvent;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
 import com.innowise.authenticationservice.model.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 
 import lombok.Getter;
 
 /**
  * Компонент для создания и валидации JSON Web Token (JWT).
  * Используется библиотека io.jsonwebtoken (JJWT).
- * Генерирует access и refresh токены, валидирует токены, извлекает данные из токенов.
+ * Генерирует access токены, валидирует токены, извлекает данные из токенов.
+ * Refresh токены - непрозрачные, их выдает RefreshTokenService.
  */
 @Component
 public class JwtTokenProvider {
-    //Симметричный секрет, которым подписываются токены (HS256).
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+
+    // Версия учетных данных пользователя (users.token_version)
+    public static final String VERSION_CLAIM = "ver";
 
     //Срок действия access токена в миллисекундах.
     @Getter
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    //Срок действия refresh токена в миллисекундах.
-    @Value("${jwt.refresh.expiration}")
-    private long refreshExpiration;
+    // Метрики: время подписи и проверки токенов (auth.step и JFR событие TokenEvent).
+    private final AuthMetrics authMetrics;
 
-    //Генерация симметричного ключа для подписи токенов.
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Отозванные токены (logout): проверяются по jti при каждой валидации.
+    private final TokenRevocationStore revocationStore;
+
+    // Текущие роль и версия учетных данных пользователей: токены прежней версии или роли не проходят проверку.
+    private final UserVersionCache userVersionCache;
+
+    //Симметричный ключ, которым подписываются токены (HS256), из jwt.secret.
+    private final JwtSigningKey signingKey;
+
+    public JwtTokenProvider(AuthMetrics authMetrics, TokenRevocationStore revocationStore,
+                            UserVersionCache userVersionCache, JwtSigningKey signingKey) {
+        this.authMetrics = authMetrics;
+        this.revocationStore = revocationStore;
+        this.userVersionCache = userVersionCache;
+        this.signingKey = signingKey;
     }
 
-    //Генерация access токена.
-    public String generateAccessToken(String username, Role role) {
-        return generateToken(username, role, jwtExpiration);
+    private SecretKey getSigningKey() {
+        return signingKey.get();
     }
 
-    //Генерация refresh токена.
-    public String generateRefreshToken(String username, Role role) {
-        return generateToken(username, role, refreshExpiration);
+    //Генерация access токена для указанной версии учетных данных пользователя.
+    public String generateAccessToken(String username, Role role, long tokenVersion) {
+        return generateToken(username, role, tokenVersion, jwtExpiration);
     }
 
     // Генерация JWT токена с указанным сроком действия.
-    // В токен добавляются: имя пользователя (subject), роль, время создания и время истечения.
+    // В токен добавляются: идентификатор (jti), имя пользователя (subject), роль, версия учетных данных (ver),
+    // время создания и время истечения.
     // Токен подписывается симметричным ключом с использованием алгоритма HS256.
-    private String generateToken(String username, Role role, long jwtExpiration) {
+    private String generateToken(String username, Role role, long tokenVersion, long jwtExpiration) {
         Date now = new Date();
         Date expireDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
-                .setSubject(username)
-                .claim("role", role.name())
-                .setIssuedAt(now)
-                .setExpiration(expireDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return authMetrics.recordStep(AuthMetrics.STEP_TOKEN_SIGN,
+                () -> AuthEvents.record(new TokenEvent("sign").forUser(username), () -> Jwts.builder()
+                        .setId(UUID.randomUUID().toString())
+                        .setSubject(username)
+                        .claim("role", role.name())
+                        .claim(VERSION_CLAIM, tokenVersion)
+                        .setIssuedAt(now)
+                        .setExpiration(expireDate)
+                        .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                        .compact()));
     }
 
-    // Валидация JWT токена: проверка подписи и срока действия.
-    // Возвращает true, если токен валиден, false - если токен поврежден, истек или имеет неверную подпись.
+    // Валидация JWT токена: проверка подписи, срока действия, отзыва (logout) и версии учетных данных.
+    // Возвращает true, если токен валиден, false - если токен поврежден, истек, отозван, устарел или имеет неверную подпись.
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        TokenEvent event = new TokenEvent("verify");
+        return authMetrics.recordStep(AuthMetrics.STEP_TOKEN_VERIFY, () -> AuthEvents.record(event, () -> {
+            try {
+                Claims claims = Jwts.parserBuilder()
+                        .setSigningKey(getSigningKey())
+                        .build()
+                        .parseClaimsJws(token)
+                        .getBody();
+                event.forUser(claims.getSubject());
+                return isActive(claims);
+            } catch (JwtException | IllegalArgumentException e) {
+                return false;
+            }
+        }, valid -> valid ? TokenEvent.OUTCOME_SUCCESS : TokenEvent.OUTCOME_INVALID));
+    }
+
+    // Проверяет токен и извлекает имя пользователя, роль, срок действия и jti за один разбор.
+    // Возвращает пустой Optional, если токен поврежден, истек, отозван, устарел или имеет неверную подпись.
+    public Optional<TokenPrincipal> parseToken(String token) {
+        TokenEvent event = new TokenEvent("verify");
+        return authMetrics.recordStep(AuthMetrics.STEP_TOKEN_VERIFY, () -> AuthEvents.record(event, () -> {
+            try {
+                Claims claims = Jwts.parserBuilder()
+                        .setSigningKey(getSigningKey())
+                        .build()
+                        .parseClaimsJws(token)
+                        .getBody();
+                event.forUser(claims.getSubject());
+                if (!isActive(claims)) {
+                    return Optional.<TokenPrincipal>empty();
+                }
+                return Optional.of(new TokenPrincipal(claims.getSubject(), claims.get("role", String.class),
+                        claims.getExpiration(), claims.getId()));
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.<TokenPrincipal>empty();
+            }
+        }, principal -> principal.isPresent() ? TokenEvent.OUTCOME_SUCCESS : TokenEvent.OUTCOME_INVALID));
+    }
+
+    // Токен не отозван, пользователь существует, а его роль и версия совпадают с токеном.
+    // Токены, выданные до появления claim ver, считаются выданными версии 0.
+    private boolean isActive(Claims claims) {
+        Number version = claims.get(VERSION_CLAIM, Number.class);
+        return !revocationStore.isRevoked(claims.getId())
+                && userVersionCache.isCurrent(claims.getSubject(), claims.get("role", String.class),
+                        version == null ? 0 : version.longValue());
     }
 
     // Извлекает имя пользователя (email) из JWT токена (поле subject).
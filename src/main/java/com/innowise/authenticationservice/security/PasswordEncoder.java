@@ -1,8 +1,15 @@
 package com.innowise.authenticationservice.security;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import com.innowise.authenticationservice.jfr.AuthEvents;
+import com.innowise.authenticationservice.jfr.PasswordHashEvent;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+
 /**
  * Компонент для хеширования и проверки паролей.
  * Использует алгоритм BCrypt для безопасного хранения паролей в базе данных.
@@ -11,16 +18,42 @@ import org.springframework.stereotype.Component;
 public class PasswordEncoder {
     // BCrypt encoder для хеширования паролей с автоматической генерацией соли.
     private final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
+    // Метрики: время BCrypt публикуется как шаг auth.step{step="bcrypt"} и как JFR событие PasswordHashEvent.
+    private final AuthMetrics authMetrics;
+    // Число хеширований, выполняющихся прямо сейчас: сверх числа ядер они ждут процессор (учитывается SaturationMonitor).
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public PasswordEncoder(AuthMetrics authMetrics) {
+        this.authMetrics = authMetrics;
+    }
 
     // Хеширует пароль в открытом виде с использованием BCrypt.
     // Каждый вызов генерирует новый хеш (из-за случайной соли), поэтому нельзя сравнить два хеша напрямую.
     public String encode(String rawPassword) {
-        return bCryptPasswordEncoder.encode(rawPassword);
+        return hashing(() -> authMetrics.recordStep(AuthMetrics.STEP_BCRYPT,
+                () -> AuthEvents.record(new PasswordHashEvent("encode"), () -> bCryptPasswordEncoder.encode(rawPassword))));
     }
 
     // Проверяет, соответствует ли пароль в открытом виде сохраненному хешу.
     // Возвращает true, если пароль совпадает, false - если не совпадает.
     public boolean matches(String rawPassword, String encodedPassword) {
-        return bCryptPasswordEncoder.matches(rawPassword, encodedPassword);
+        return hashing(() -> authMetrics.recordStep(AuthMetrics.STEP_BCRYPT,
+                () -> AuthEvents.record(new PasswordHashEvent("matches"),
+                        () -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword),
+                        matched -> matched ? PasswordHashEvent.OUTCOME_SUCCESS : PasswordHashEvent.OUTCOME_MISMATCH)));
+    }
+
+    // Количество хеширований BCrypt, выполняющихся в данный момент.
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private <T> T hashing(Supplier<T> action) {
+        inFlight.incrementAndGet();
+        try {
+            return action.get();
+        } finally {
+            inFlight.decrementAndGet();
+        }
     }
 }
@@ -0,0 +1,20 @@
+package com.innowise.authenticationservice.security;
+
+import java.util.Date;
+
+/**
+ * Данные пользователя, извлеченные из проверенного JWT токена за один разбор.
+ *
+ * @param username имя пользователя (email, поле subject)
+ * @param role роль пользователя (например, "ROLE_USER")
+ * @param expiration время истечения срока действия токена
+ * @param tokenId идентификатор токена (jti), используется для отзыва при logout
+ */
+public record TokenPrincipal(String username, String role, Date expiration, String tokenId) {
+
+    // Оставшееся время жизни токена в секундах (0, если токен уже истек).
+    public long remainingSeconds() {
+        long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+        return Math.max(0, remainingMillis / 1000);
+    }
+}
@@ -0,0 +1,211 @@
+package com.innowise.authenticationservice.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.innowise.authenticationservice.invalidation.InvalidationBus;
+import com.innowise.authenticationservice.invalidation.InvalidationListener;
+import com.innowise.authenticationservice.invalidation.InvalidationTopics;
+import com.innowise.authenticationservice.model.RevokedToken;
+import com.innowise.authenticationservice.repository.RevokedTokenRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Список отозванных токенов (denylist) по идентификатору токена (jti).
+ * Проверка при валидации идет в два шага без обращения к БД:
+ * 1) фильтр Блума - несколько чтений битов без блокировок; почти все токены не отозваны и отсекаются здесь;
+ * 2) только при срабатывании фильтра - точный поиск в ConcurrentHashMap.
+ * Постоянная копия хранится в таблице revoked_tokens: из нее список загружается при старте и фильтр
+ * периодически строится заново (auth.revocation.rebuild-interval-ms), что убирает из него истекшие токены.
+ * Запись нужна только до истечения срока действия токена: после exp токен и так не пройдет проверку подписи.
+ * Для очистки записи раскладываются по корзинам времени истечения (ширина auth.revocation.bucket-seconds);
+ * очистка снимает целиком истекшие корзины с начала упорядоченной карты, не просматривая остальные записи.
+ * Отзыв на одном узле рассылается остальным через InvalidationBus (тема revoked-token).
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore implements InvalidationListener {
+
+    private static final char KEY_SEPARATOR = '|';
+
+    // jti -> время истечения токена (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    // номер корзины (exp / ширина корзины) -> jti, истекающие в этой корзине
+    private final ConcurrentSkipListMap<Long, Set<String>> expiryBuckets = new ConcurrentSkipListMap<>();
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final InvalidationBus invalidationBus;
+    private final long bucketMillis;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Clock clock;
+
+    // Текущий фильтр; заменяется целиком при перестроении
+    private volatile RevocationBloomFilter filter;
+
+    @Autowired
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                                InvalidationBus invalidationBus,
+                                @Value("${auth.revocation.bucket-seconds:60}") long bucketSeconds,
+                                @Value("${auth.revocation.bloom.expected-revocations:100000}") long expectedRevocations,
+                                @Value("${auth.revocation.bloom.false-positive-rate:0.001}") double falsePositiveRate) {
+        this(revokedTokenRepository, invalidationBus, Duration.ofSeconds(bucketSeconds), expectedRevocations,
+                falsePositiveRate, Clock.systemUTC());
+    }
+
+    TokenRevocationStore(RevokedTokenRepository revokedTokenRepository, InvalidationBus invalidationBus,
+                         Duration bucketWidth, long expectedRevocations, double falsePositiveRate, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.invalidationBus = invalidationBus;
+        this.bucketMillis = bucketWidth.toMillis();
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.filter = RevocationBloomFilter.create(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Отзывает токен до момента его истечения. Уже истекшие токены не сохраняются.
+     * Запись сначала сохраняется в БД, затем добавляется в память и рассылается другим узлам.
+     *
+     * @param tokenId идентификатор токена (jti)
+     * @param expiresAt время истечения токена (exp)
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt.toEpochMilli() <= clock.millis() || revoked.containsKey(tokenId)) {
+            return;
+        }
+        try {
+            revokedTokenRepository.save(new RevokedToken(tokenId, LocalDateTime.ofInstant(expiresAt, ZoneOffset.UTC)));
+        } catch (DataIntegrityViolationException e) {
+            // Токен уже отозван на другом узле
+            log.debug("Token {} is already revoked", tokenId);
+        }
+        add(tokenId, expiresAt.toEpochMilli());
+        invalidationBus.publish(InvalidationTopics.REVOKED_TOKEN, tokenId + KEY_SEPARATOR + expiresAt.toEpochMilli());
+    }
+
+    @Override
+    public String topic() {
+        return InvalidationTopics.REVOKED_TOKEN;
+    }
+
+    // Токены, отозванные на другом узле: ключ "jti|exp".
+    @Override
+    public void onInvalidation(Collection<String> keys) {
+        for (String key : keys) {
+            int separator = key.lastIndexOf(KEY_SEPARATOR);
+            if (separator > 0) {
+                add(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+            }
+        }
+    }
+
+    // После разрыва LISTEN-соединения дочитываем из БД токены, отозванные за время разрыва.
+    @Override
+    public void onResync(Instant since) {
+        LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        List<RevokedToken> missed = revokedTokenRepository.findActiveRevokedSince(
+                LocalDateTime.ofInstant(since, ZoneOffset.UTC), now);
+        for (RevokedToken token : missed) {
+            add(token.getTokenId(), token.getExpiresAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        log.info("Revocation resync since {}: {} tokens", since, missed.size());
+    }
+
+    // Проверка при каждой валидации токена: фильтр Блума, и только при срабатывании - точный поиск.
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Загружает действующие отозванные токены из БД и строит фильтр заново.
+     * Новый фильтр подменяет старый одной volatile записью; после подмены в него повторно добавляются
+     * записи из памяти, чтобы не потерять токены, отозванные во время перестроения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${auth.revocation.rebuild-interval-ms:300000}",
+            fixedDelayString = "${auth.revocation.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        List<RevokedToken> active;
+        try {
+            active = revokedTokenRepository.findActive(LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC));
+        } catch (DataAccessException e) {
+            log.error("Failed to load revoked tokens, keeping current filter: {}", e.getMessage());
+            return;
+        }
+        for (RevokedToken token : active) {
+            add(token.getTokenId(), token.getExpiresAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        RevocationBloomFilter rebuilt = RevocationBloomFilter.create(
+                Math.max(expectedRevocations, 2L * revoked.size()), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        revoked.keySet().forEach(rebuilt::put);
+        log.info("Revocation filter rebuilt: {} revoked tokens, {} bits, {} hash functions",
+                revoked.size(), rebuilt.bitCount(), rebuilt.hashCount());
+    }
+
+    /**
+     * Удаляет записи токенов, срок действия которых истек.
+     * Снимаются только корзины, полностью лежащие в прошлом; стоимость пропорциональна числу удаляемых записей.
+     * Истекшие строки в БД удаляются одним запросом по индексу expires_at.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long currentBucket = clock.millis() / bucketMillis;
+        int removed = 0;
+        Map.Entry<Long, Set<String>> bucket;
+        while ((bucket = expiryBuckets.firstEntry()) != null && bucket.getKey() < currentBucket) {
+            if (expiryBuckets.remove(bucket.getKey(), bucket.getValue())) {
+                for (String tokenId : bucket.getValue()) {
+                    revoked.remove(tokenId);
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug("Purged {} expired revoked tokens, {} remaining", removed, revoked.size());
+        }
+        try {
+            revokedTokenRepository.deleteExpired(LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC));
+        } catch (DataAccessException e) {
+            log.warn("Failed to delete expired revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    // Добавляет запись в точный список и фильтр (сначала в список - см. rebuild()).
+    private void add(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.millis()) {
+            return;
+        }
+        if (revoked.putIfAbsent(tokenId, expiresAtMillis) == null) {
+            expiryBuckets.computeIfAbsent(expiresAtMillis / bucketMillis, bucket -> ConcurrentHashMap.newKeySet())
+                    .add(tokenId);
+        }
+        filter.put(tokenId);
+    }
+}
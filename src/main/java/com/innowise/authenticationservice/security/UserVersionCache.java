@@ -0,0 +1,157 @@
+package com.innowise.authenticationservice.security;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innowise.authenticationservice.invalidation.InvalidationListener;
+import com.innowise.authenticationservice.invalidation.InvalidationTopics;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.model.Role;
+import com.innowise.authenticationservice.model.UserVersion;
+import com.innowise.authenticationservice.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Версии учетных данных пользователей в памяти: login -> (роль, token_version).
+ * Позволяет при refresh и при проверке access токена убедиться, что пользователь существует и его роль
+ * и версия совпадают с токеном, не обращаясь к БД. Смена роли или пароля увеличивает версию (триггер в БД),
+ * удаление пользователя оставляет в кэше отметку об отсутствии - выданные токены перестают проходить проверку сразу.
+ * Значение упаковано в один long (версия и номер роли).
+ * Кэш ограничен auth.user-versions.max-size записями (Caffeine, вытесняются редко используемые) и заполняется
+ * по обращениям: таблица пользователей целиком в память не загружается. Промах читается из БД один раз
+ * (одновременные промахи по одному логину ждут одного запроса) и запоминается, в том числе отрицательный результат.
+ * Изменения с других узлов и из БД приходят через InvalidationBus (тема user).
+ */
+@Slf4j
+@Component
+public class UserVersionCache implements InvalidationListener {
+
+    // Отметка "пользователя нет" (удален или не существует)
+    private static final long ABSENT = -1L;
+    private static final int ROLE_BITS = 8;
+    private static final Role[] ROLES = Role.values();
+
+    private final UserRepository userRepository;
+    private final AuthMetrics authMetrics;
+
+    // login -> tokenVersion << ROLE_BITS | role.ordinal(), либо ABSENT
+    private final Cache<String, Long> versions;
+
+    public UserVersionCache(UserRepository userRepository, AuthMetrics authMetrics,
+                            @Value("${auth.user-versions.max-size:200000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.authMetrics = authMetrics;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Текущие роль и версия пользователя.
+     *
+     * @param login логин пользователя
+     * @return данные пользователя или пустой Optional, если пользователя нет
+     */
+    public Optional<UserVersion> find(String login) {
+        long packed = versions.get(login, this::loadOne);
+        return packed == ABSENT ? Optional.empty() : Optional.of(unpack(login, packed));
+    }
+
+    // Проверяет, что токен выдан текущей версии учетных данных пользователя с той же ролью.
+    public boolean isCurrent(String login, String role, long tokenVersion) {
+        return find(login)
+                .filter(user -> user.tokenVersion() == tokenVersion && user.role().name().equals(role))
+                .isPresent();
+    }
+
+    // Запоминает данные, только что прочитанные из БД или созданные (регистрация). Более старая версия не перезаписывает новую.
+    public void put(UserVersion user) {
+        versions.asMap().merge(user.login(), pack(user), (current, updated) ->
+                current != ABSENT && current >>> ROLE_BITS > updated >>> ROLE_BITS ? current : updated);
+    }
+
+    // Отмечает пользователя удаленным; внутри транзакции - после ее фиксации.
+    public void markDeleted(String login) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.put(login, ABSENT);
+                }
+            });
+        } else {
+            versions.put(login, ABSENT);
+        }
+    }
+
+    // Убирает запись; следующее обращение перечитает пользователя из БД.
+    public void evict(String login) {
+        versions.invalidate(login);
+    }
+
+    public long size() {
+        return versions.estimatedSize();
+    }
+
+    @Override
+    public String topic() {
+        return InvalidationTopics.USER;
+    }
+
+    // Пользователи, измененные или удаленные на другом узле или в БД: перечитываются одним запросом.
+    @Override
+    public void onInvalidation(Collection<String> logins) {
+        try {
+            versions.putAll(load(logins));
+        } catch (DataAccessException e) {
+            // Без актуальных данных запись нельзя оставлять: следующее обращение перечитает ее из БД
+            log.warn("Failed to reload {} users, evicting: {}", logins.size(), e.getMessage());
+            versions.invalidateAll(logins);
+        }
+    }
+
+    // Уведомления за время разрыва потеряны - кэш сбрасывается и заполняется заново по обращениям.
+    @Override
+    public void onResync(Instant since) {
+        versions.invalidateAll();
+        log.info("User versions evicted after invalidation resync");
+    }
+
+    private Long loadOne(String login) {
+        return load(List.of(login)).get(login);
+    }
+
+    // Читает пользователей из БД; отсутствующие отмечаются ABSENT.
+    private Map<String, Long> load(Collection<String> logins) {
+        List<UserVersion> found = authMetrics.recordStep(AuthMetrics.STEP_DB, () -> userRepository.findVersions(logins));
+        Map<String, Long> loaded = new HashMap<>();
+        for (String login : logins) {
+            loaded.put(login, ABSENT);
+        }
+        for (UserVersion user : found) {
+            loaded.put(user.login(), pack(user));
+        }
+        return loaded;
+    }
+
+    private static long pack(UserVersion user) {
+        return user.tokenVersion() << ROLE_BITS | user.role().ordinal();
+    }
+
+    private static UserVersion unpack(String login, long packed) {
+        return new UserVersion(login, ROLES[(int) (packed & ((1 << ROLE_BITS) - 1))], packed >>> ROLE_BITS);
+    }
+}
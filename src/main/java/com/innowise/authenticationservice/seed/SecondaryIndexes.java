@@ -0,0 +1,91 @@
+package com.innowise.authenticationservice.seed;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Вторичные индексы и уникальные ограничения таблицы (все, кроме первичного ключа).
+ * Перед массовой загрузкой они удаляются и после нее строятся заново: построение индекса по готовой таблице
+ * (сортировка один раз) в разы быстрее поддержки B-tree на каждую вставленную строку.
+ * Определения читаются из каталога PostgreSQL, поэтому список индексов не дублирует миграции Liquibase.
+ */
+final class SecondaryIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondaryIndexes.class);
+
+    private static final String UNIQUE_CONSTRAINTS_SQL = """
+            SELECT conname, pg_get_constraintdef(oid) FROM pg_constraint
+            WHERE conrelid = ?::regclass AND contype = 'u'
+            ORDER BY conname
+            """;
+    private static final String INDEXES_SQL = """
+            SELECT i.indexname, i.indexdef FROM pg_indexes i
+            WHERE i.schemaname = ? AND i.tablename = ?
+              AND i.indexname NOT IN (SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass)
+            ORDER BY i.indexname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private final String table;
+    private final List<String> dropStatements = new ArrayList<>();
+    private final List<String> createStatements = new ArrayList<>();
+
+    private SecondaryIndexes(JdbcTemplate jdbcTemplate, String schema, String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.table = table;
+    }
+
+    // Читает текущие определения индексов и ограничений таблицы.
+    static SecondaryIndexes of(JdbcTemplate jdbcTemplate, String schema, String table) {
+        SecondaryIndexes indexes = new SecondaryIndexes(jdbcTemplate, schema, table);
+        String qualified = schema + "." + table;
+        jdbcTemplate.query(UNIQUE_CONSTRAINTS_SQL, rs -> {
+            String name = rs.getString(1);
+            indexes.dropStatements.add("ALTER TABLE " + qualified + " DROP CONSTRAINT " + name);
+            indexes.createStatements.add("ALTER TABLE " + qualified + " ADD CONSTRAINT " + name + " " + rs.getString(2));
+        }, qualified);
+        jdbcTemplate.query(INDEXES_SQL, rs -> {
+            indexes.dropStatements.add("DROP INDEX " + schema + "." + rs.getString(1));
+            indexes.createStatements.add(rs.getString(2));
+        }, schema, table, qualified);
+        return indexes;
+    }
+
+    // Удаляет индексы; DDL для восстановления пишется в лог на случай аварийного завершения загрузки.
+    void drop() {
+        createStatements.forEach(ddl -> log.info("Dropping for bulk load, restore with: {};", ddl));
+        dropStatements.forEach(jdbcTemplate::execute);
+    }
+
+    // Строит индексы заново; maintenance_work_mem ускоряет сортировку при построении.
+    void create(String maintenanceWorkMem) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET maintenance_work_mem = '" + maintenanceWorkMem + "'");
+                for (String ddl : createStatements) {
+                    long started = System.nanoTime();
+                    statement.execute(ddl);
+                    log.info("Built in {} ms: {}", (System.nanoTime() - started) / 1_000_000, ddl);
+                }
+                statement.execute("RESET maintenance_work_mem");
+            }
+            return null;
+        });
+    }
+
+    int size() {
+        return createStatements.size();
+    }
+
+    String table() {
+        return schema + "." + table;
+    }
+}
@@ -0,0 +1,95 @@
+package com.innowise.authenticationservice.seed;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Фикстуры, согласованные с засеянной таблицей users:
+ * auth-credentials.csv - логины и пароли для нагрузочных клиентов;
+ * user-service-users.csv - профили для заглушки user-service;
+ * keycloak-users-NNNN.json - пользователи для Partial Import в realm Keycloak (по chunkSize в файле,
+ * чтобы каждый файл импортировался за разумное время).
+ * Файлы пишутся потоково и не держат набор в памяти.
+ */
+final class SeedFixtureWriter implements AutoCloseable {
+
+    private final Path directory;
+    private final int chunkSize;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Writer credentials;
+    private final Writer profiles;
+    private JsonGenerator keycloak;
+    private int keycloakUsers;
+    private int keycloakChunk;
+
+    SeedFixtureWriter(Path directory, int chunkSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.chunkSize = chunkSize;
+        this.credentials = Files.newBufferedWriter(directory.resolve("auth-credentials.csv"), StandardCharsets.UTF_8);
+        this.profiles = Files.newBufferedWriter(directory.resolve("user-service-users.csv"), StandardCharsets.UTF_8);
+        credentials.write("login,password,role\n");
+        profiles.write("email,firstName,lastName,birthDate\n");
+    }
+
+    void write(SeedUser user) throws IOException {
+        credentials.write(user.login() + "," + user.password() + "," + user.role().name() + "\n");
+        profiles.write(user.login() + "," + user.firstName() + "," + user.lastName() + "," + user.birthDate() + "\n");
+        writeKeycloakUser(user);
+    }
+
+    private void writeKeycloakUser(SeedUser user) throws IOException {
+        if (keycloak == null || keycloakUsers == chunkSize) {
+            closeKeycloakChunk();
+            OutputStream out = Files.newOutputStream(
+                    directory.resolve(String.format("keycloak-users-%04d.json", keycloakChunk++)));
+            keycloak = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            keycloak.writeStartObject();
+            keycloak.writeStringField("ifResourceExists", "SKIP");
+            keycloak.writeArrayFieldStart("users");
+            keycloakUsers = 0;
+        }
+        keycloak.writeStartObject();
+        keycloak.writeStringField("username", user.login());
+        keycloak.writeStringField("email", user.login());
+        keycloak.writeBooleanField("enabled", true);
+        keycloak.writeBooleanField("emailVerified", true);
+        keycloak.writeStringField("firstName", user.firstName());
+        keycloak.writeStringField("lastName", user.lastName());
+        keycloak.writeArrayFieldStart("realmRoles");
+        keycloak.writeString(user.role().name());
+        keycloak.writeEndArray();
+        keycloak.writeArrayFieldStart("credentials");
+        keycloak.writeStartObject();
+        keycloak.writeStringField("type", "password");
+        keycloak.writeStringField("value", user.password());
+        keycloak.writeBooleanField("temporary", false);
+        keycloak.writeEndObject();
+        keycloak.writeEndArray();
+        keycloak.writeEndObject();
+        keycloakUsers++;
+    }
+
+    private void closeKeycloakChunk() throws IOException {
+        if (keycloak != null) {
+            keycloak.writeEndArray();
+            keycloak.writeEndObject();
+            keycloak.close();
+            keycloak = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Writer ignoredCredentials = credentials; Writer ignoredProfiles = profiles) {
+            closeKeycloakChunk();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.innowise.authenticationservice.seed;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.innowise.authenticationservice.model.Role;
+
+/**
+ * Синтетический пользователь набора данных для нагрузочного тестирования.
+ *
+ * @param index порядковый номер пользователя в наборе
+ * @param login уникальный логин (email)
+ * @param role роль
+ * @param password пароль в открытом виде (для фикстур нагрузочных клиентов и Keycloak)
+ * @param passwordSlot номер хеша в пуле BCrypt-хешей, соответствующего паролю
+ * @param createdAt дата регистрации
+ * @param firstName имя (профиль user-service)
+ * @param lastName фамилия (профиль user-service)
+ * @param birthDate дата рождения (профиль user-service)
+ */
+record SeedUser(long index, String login, Role role, String password, int passwordSlot, LocalDateTime createdAt,
+                String firstName, String lastName, LocalDate birthDate) {
+}
@@ -0,0 +1,79 @@
+package com.innowise.authenticationservice.seed;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import com.innowise.authenticationservice.model.Role;
+
+/**
+ * Детерминированный генератор пользователей: пользователь с номером n всегда одинаков для одного seed,
+ * поэтому таблица users и фикстуры Keycloak и user-service, построенные отдельными проходами, совпадают.
+ * Логины похожи на реальные (имя.фамилия.номер@домен) и уникальны за счет номера;
+ * все домены лежат в зоне load.test, чтобы синтетические записи нельзя было спутать с настоящими.
+ */
+final class SeedUserGenerator {
+
+    static final String DOMAIN_SUFFIX = ".load.test";
+
+    private static final String[] FIRST_NAMES = {
+            "alexander", "maria", "ivan", "anna", "dmitry", "elena", "sergey", "olga", "andrey", "natalia",
+            "pavel", "irina", "nikolai", "tatiana", "mikhail", "svetlana", "artem", "yulia", "maxim", "ekaterina",
+            "vladimir", "daria", "kirill", "polina", "egor", "alina", "roman", "victoria", "denis", "ksenia"};
+    private static final String[] LAST_NAMES = {
+            "ivanov", "petrov", "sidorov", "smirnov", "kuznetsov", "popov", "vasilev", "sokolov", "mikhailov",
+            "novikov", "fedorov", "morozov", "volkov", "alekseev", "lebedev", "semenov", "egorov", "pavlov",
+            "kozlov", "stepanov", "nikolaev", "orlov", "andreev", "makarov", "nikitin", "zakharov"};
+    private static final String[] DOMAINS = {"mail", "inbox", "corp", "edu", "post", "web"};
+    private static final int REGISTRATION_SPAN_DAYS = 3 * 365;
+    private static final LocalDateTime REGISTRATION_END = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final long seed;
+    private final long adminPerMillion;
+    private final int passwordSlots;
+
+    /**
+     * @param seed начальное значение генератора
+     * @param adminRatio доля администраторов (0..1)
+     * @param passwordSlots размер пула BCrypt-хешей
+     */
+    SeedUserGenerator(long seed, double adminRatio, int passwordSlots) {
+        this.seed = seed;
+        this.adminPerMillion = Math.round(adminRatio * 1_000_000);
+        this.passwordSlots = passwordSlots;
+    }
+
+    SeedUser user(long index) {
+        long hash = mix(seed + index);
+        String firstName = FIRST_NAMES[(int) Long.remainderUnsigned(hash, FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[(int) Long.remainderUnsigned(hash >>> 8, LAST_NAMES.length)];
+        String domain = DOMAINS[(int) Long.remainderUnsigned(hash >>> 16, DOMAINS.length)];
+        Role role = Long.remainderUnsigned(hash >>> 24, 1_000_000) < adminPerMillion ? Role.ROLE_ADMIN : Role.ROLE_USER;
+        int slot = (int) (index % passwordSlots);
+        LocalDateTime createdAt = REGISTRATION_END
+                .minusSeconds(Long.remainderUnsigned(mix(hash), REGISTRATION_SPAN_DAYS * 86_400L));
+        LocalDate birthDate = LocalDate.of(1960, 1, 1)
+                .plusDays(Long.remainderUnsigned(hash >>> 32, 45 * 365));
+
+        String login = firstName + "." + lastName + "." + index + "@" + domain + DOMAIN_SUFFIX;
+        return new SeedUser(index, login, role, password(slot), slot, createdAt,
+                capitalize(firstName), capitalize(lastName), birthDate);
+    }
+
+    // Пароль, соответствующий хешу из пула с номером slot.
+    static String password(int slot) {
+        return "Seed#" + slot + "pw";
+    }
+
+    // splitmix64: равномерное перемешивание номера пользователя
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String capitalize(String value) {
+        return value.substring(0, 1).toUpperCase(Locale.ROOT) + value.substring(1);
+    }
+}
@@ -0,0 +1,213 @@
+package com.innowise.authenticationservice.seed;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.innowise.authenticationservice.security.PasswordEncoder;
+
+/**
+ * Заполняет таблицу users синтетическим набором (миллионы строк) для проверки планов запросов, размеров индексов
+ * и попаданий в кэш на объеме, близком к production.
+ * Запуск: java -jar app.jar --spring.profiles.active=seed --seed.users=10000000
+ * (вместе с профилем окружения, например seed,local). Веб-сервер не поднимается; по окончании приложение завершается.
+ *
+ * Порядок работы:
+ * 1) пул BCrypt-хешей считается заранее (seed.hash-pool-size хешей параллельно) - пароль пользователя n
+ *    равен Seed#{n mod размер пула}pw, поэтому BCrypt не считается на каждую строку;
+ * 2) вторичные индексы и уникальные ограничения users удаляются (SecondaryIndexes);
+ * 3) строки загружаются командой COPY пачками по seed.batch-size, каждая пачка - отдельная фиксация;
+ * 4) индексы строятся заново, выполняется ANALYZE, в лог выводятся размеры таблицы и индексов;
+ * 5) для первых seed.fixtures.users пользователей пишутся фикстуры Keycloak, user-service и нагрузочных клиентов.
+ */
+@Component
+@Profile("seed")
+public class UserDatasetSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDatasetSeeder.class);
+
+    private static final String SCHEMA = "public";
+    private static final String TABLE = "users";
+    private static final String COPY_SQL =
+            "COPY public.users (login, password_hash, role, created_at, token_version) FROM STDIN";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int COPY_BUFFER_BYTES = 1 << 20;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationContext applicationContext;
+
+    @Value("${seed.users:1000000}")
+    private long users;
+    @Value("${seed.batch-size:1000000}")
+    private long batchSize;
+    @Value("${seed.admin-ratio:0.001}")
+    private double adminRatio;
+    @Value("${seed.hash-pool-size:64}")
+    private int hashPoolSize;
+    @Value("${seed.random-seed:20250101}")
+    private long randomSeed;
+    @Value("${seed.reset:false}")
+    private boolean reset;
+    @Value("${seed.maintenance-work-mem:512MB}")
+    private String maintenanceWorkMem;
+    @Value("${seed.fixtures.dir:target/seed-fixtures}")
+    private Path fixturesDir;
+    @Value("${seed.fixtures.users:100000}")
+    private long fixtureUsers;
+    @Value("${seed.fixtures.keycloak-chunk:10000}")
+    private int keycloakChunk;
+    @Value("${seed.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    public UserDatasetSeeder(DataSource dataSource, JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                             ApplicationContext applicationContext) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        SeedUserGenerator generator = new SeedUserGenerator(randomSeed, adminRatio, hashPoolSize);
+
+        prepareTable();
+        List<String> hashPool = hashPool();
+        SecondaryIndexes indexes = SecondaryIndexes.of(jdbcTemplate, SCHEMA, TABLE);
+        log.info("Seeding {} users into {}: dropping {} secondary indexes", users, indexes.table(), indexes.size());
+        indexes.drop();
+        try {
+            copyUsers(generator, hashPool);
+        } finally {
+            // Индексы восстанавливаются и при ошибке загрузки, иначе таблица останется без уникальности логина
+            indexes.create(maintenanceWorkMem);
+        }
+        jdbcTemplate.execute("ANALYZE " + indexes.table());
+        logSizes();
+        writeFixtures(generator);
+        log.info("Seeding finished in {} s", (System.nanoTime() - started) / 1_000_000_000);
+
+        if (exitOnCompletion) {
+            // Планировщик и слушатель инвалидаций держат JVM; инструмент одноразовый, поэтому выходим явно
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    // Повторный запуск на уже засеянной таблице дал бы дубликаты логинов - требуем явного seed.reset=true.
+    private void prepareTable() {
+        String pattern = "%" + SeedUserGenerator.DOMAIN_SUFFIX;
+        Boolean seeded = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM public.users WHERE login LIKE ?)", Boolean.class, pattern);
+        if (Boolean.TRUE.equals(seeded)) {
+            if (!reset) {
+                throw new IllegalStateException("users already contains seeded rows (*" + SeedUserGenerator.DOMAIN_SUFFIX
+                        + "); run with seed.reset=true to replace them");
+            }
+            int deleted = jdbcTemplate.update("DELETE FROM public.users WHERE login LIKE ?", pattern);
+            log.info("Deleted {} previously seeded users", deleted);
+        }
+    }
+
+    private List<String> hashPool() {
+        long started = System.nanoTime();
+        List<String> pool = IntStream.range(0, hashPoolSize).parallel()
+                .mapToObj(slot -> passwordEncoder.encode(SeedUserGenerator.password(slot)))
+                .toList();
+        log.info("Computed {} BCrypt hashes in {} ms", pool.size(), (System.nanoTime() - started) / 1_000_000);
+        return pool;
+    }
+
+    private void copyUsers(SeedUserGenerator generator, List<String> hashPool) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                // Потеря последних пачек при аварии не страшна - набор синтетический и воспроизводимый
+                statement.execute("SET synchronous_commit TO off");
+            }
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            for (long from = 0; from < users; from += batchSize) {
+                long to = Math.min(users, from + batchSize);
+                long started = System.nanoTime();
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        new PGCopyOutputStream(pgConnection, COPY_SQL, COPY_BUFFER_BYTES), StandardCharsets.UTF_8),
+                        COPY_BUFFER_BYTES)) {
+                    for (long index = from; index < to; index++) {
+                        writeRow(out, generator.user(index), hashPool);
+                    }
+                }
+                long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+                log.info("Copied users {}..{} ({} rows/s)", from, to - 1, (to - from) * 1000 / millis);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RESET synchronous_commit");
+            }
+        }
+    }
+
+    // Строка в текстовом формате COPY: значения через табуляцию, логины и хеши не содержат спецсимволов.
+    private static void writeRow(Writer out, SeedUser user, List<String> hashPool) throws IOException {
+        out.write(user.login());
+        out.write('\t');
+        out.write(hashPool.get(user.passwordSlot()));
+        out.write('\t');
+        out.write(user.role().name());
+        out.write('\t');
+        out.write(TIMESTAMP.format(user.createdAt()));
+        out.write("\t0\n");
+    }
+
+    private void logSizes() {
+        jdbcTemplate.query("""
+                SELECT pg_size_pretty(pg_relation_size('public.users')),
+                       pg_size_pretty(pg_indexes_size('public.users')),
+                       (SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.users'::regclass)
+                """, rs -> {
+            log.info("users: table {}, indexes {}, ~{} rows", rs.getString(1), rs.getString(2), rs.getLong(3));
+        });
+        jdbcTemplate.query("""
+                SELECT indexrelname, pg_size_pretty(pg_relation_size(indexrelid)) FROM pg_stat_user_indexes
+                WHERE relid = 'public.users'::regclass ORDER BY indexrelname
+                """, rs -> {
+            log.info("  index {}: {}", rs.getString(1), rs.getString(2));
+        });
+    }
+
+    private void writeFixtures(SeedUserGenerator generator) throws IOException {
+        long count = Math.min(users, fixtureUsers);
+        if (count <= 0) {
+            return;
+        }
+        try (SeedFixtureWriter writer = new SeedFixtureWriter(fixturesDir, keycloakChunk)) {
+            for (long index = 0; index < count; index++) {
+                writer.write(generator.user(index));
+            }
+        }
+        log.info("Wrote fixtures for {} users to {}", count, fixturesDir.toAbsolutePath());
+    }
+}
@@ -1,18 +1,30 @@
 package com.innowise.authenticationservice.service;
 
+import java.util.Optional;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.innowise.authenticationservice.audit.AuditTrail;
 import com.innowise.authenticationservice.client.UserServiceClient;
 import com.innowise.authenticationservice.dto.LoginRequest;
+import com.innowise.authenticationservice.dto.LogoutRequest;
 import com.innowise.authenticationservice.dto.RegisterRequest;
 import com.innowise.authenticationservice.dto.TokenResponse;
 import com.innowise.authenticationservice.dto.TokenValidationResponse;
 import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.invalidation.InvalidationBus;
+import com.innowise.authenticationservice.invalidation.InvalidationTopics;
+import com.innowise.authenticationservice.jfr.JfrUserKey;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
 import com.innowise.authenticationservice.model.Role;
 import com.innowise.authenticationservice.model.User;
+import com.innowise.authenticationservice.model.UserVersion;
 import com.innowise.authenticationservice.repository.UserRepository;
 import com.innowise.authenticationservice.security.JwtTokenProvider;
 import com.innowise.authenticationservice.security.PasswordEncoder;
+import com.innowise.authenticationservice.security.TokenPrincipal;
+import com.innowise.authenticationservice.security.TokenRevocationStore;
+import com.innowise.authenticationservice.security.UserVersionCache;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,18 +38,66 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserServiceClient userServiceClient;
+    private final AuthMetrics authMetrics;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final InvalidationBus invalidationBus;
+    private final RefreshTokenService refreshTokenService;
+    private final RefreshCoalescer refreshCoalescer;
+    private final UserVersionCache userVersionCache;
+    private final AuditTrail auditTrail;
+    private final LoginActivityTracker loginActivityTracker;
+    private final IdempotencyStore idempotencyStore;
 
-    @Transactional(readOnly = true)
+    /**
+     * Вход по логину и паролю. Транзакция на запись: RefreshTokenService.issue присоединяется к ней,
+     * и в транзакции только на чтение (FlushMode.MANUAL) INSERT refresh токена не был бы выполнен.
+     * Последний вход и счетчик входов записываются отложенно (LoginActivityTracker), а не отдельным UPDATE.
+     */
+    @Transactional
     public TokenResponse login(LoginRequest loginRequest) {
-        User user = userRepository.findByLogin(loginRequest.getLogin())
-                .orElseThrow(() -> new AuthenticationException("Invalid login or password"));
+        return authMetrics.recordOperation(AuthMetrics.LOGIN,
+                () -> JfrUserKey.callWith(loginRequest.getLogin(), () -> doLogin(loginRequest)));
+    }
+
+    private TokenResponse doLogin(LoginRequest loginRequest) {
+        User user = authMetrics.recordStep(AuthMetrics.STEP_DB, () -> userRepository.findByLogin(loginRequest.getLogin()))
+                .orElseThrow(() -> failure(AuthMetrics.LOGIN, loginRequest.getLogin(), "user_not_found",
+                        "Invalid login or password"));
 
         if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPasswordHash())) {
-            throw new AuthenticationException("Invalid login or password");
+            throw failure(AuthMetrics.LOGIN, user.getLogin(), "bad_password", "Invalid login or password");
         }
 
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getLogin(), user.getRole());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getLogin(), user.getRole());
+        userVersionCache.put(new UserVersion(user.getLogin(), user.getRole(), user.getTokenVersion()));
+        String accessToken = jwtTokenProvider.generateAccessToken(user.getLogin(), user.getRole(), user.getTokenVersion());
+        String refreshToken = refreshTokenService.issue(user.getLogin());
+        loginActivityTracker.recordLogin(user.getLogin());
+        auditTrail.success(AuthMetrics.LOGIN, user.getLogin());
+
+        return new TokenResponse(accessToken, refreshToken, jwtTokenProvider.getJwtExpiration());
+    }
+
+    /**
+     * Выдает новую пару токенов на повтор уже выполненного register или create-token с тем же Idempotency-Key
+     * (IdempotencyStore): пароль проверен первым запросом, отпечаток повтора с ним совпал.
+     * Роль и версия учетных данных берутся из UserVersionCache, BCrypt и запрос к таблице users не выполняются.
+     *
+     * @param login логин из первого запроса
+     * @return TokenResponse с новыми access и refresh токенами
+     * @throws AuthenticationException если пользователь не найден
+     */
+    @Transactional
+    public TokenResponse reissueTokens(String login) {
+        return authMetrics.recordOperation(AuthMetrics.LOGIN, () -> JfrUserKey.callWith(login, () -> doReissueTokens(login)));
+    }
+
+    private TokenResponse doReissueTokens(String login) {
+        UserVersion user = userVersionCache.find(login)
+                .orElseThrow(() -> failure(AuthMetrics.LOGIN, login, "user_not_found", "Invalid login or password"));
+
+        String accessToken = jwtTokenProvider.generateAccessToken(user.login(), user.role(), user.tokenVersion());
+        String refreshToken = refreshTokenService.issue(user.login());
+        auditTrail.success(AuthMetrics.LOGIN, user.login());
 
         return new TokenResponse(accessToken, refreshToken, jwtTokenProvider.getJwtExpiration());
     }
@@ -53,10 +113,15 @@ public class AuthService {
      * @return TokenResponse с access и refresh токенами
      */
     public TokenResponse register(RegisterRequest registerRequest) {
+        return authMetrics.recordOperation(AuthMetrics.REGISTER,
+                () -> JfrUserKey.callWith(registerRequest.getLogin(), () -> doRegister(registerRequest)));
+    }
+
+    private TokenResponse doRegister(RegisterRequest registerRequest) {
         // Если пользователь уже существует, выбрасываем исключение
-        if (userRepository.existsByLogin(registerRequest.getLogin())) {
+        if (authMetrics.recordStep(AuthMetrics.STEP_DB, () -> userRepository.existsByLogin(registerRequest.getLogin()))) {
             log.warn("Registration attempt for existing user: {}", registerRequest.getLogin());
-            throw new AuthenticationException("Login already exists");
+            throw failure(AuthMetrics.REGISTER, registerRequest.getLogin(), "login_exists", "Login already exists");
         }
 
         // Валидация роли
@@ -70,24 +135,26 @@ public class AuthService {
         try {
             role = Role.valueOf(roleStr);
         } catch (IllegalArgumentException e) {
-            throw new AuthenticationException("Invalid role: " + registerRequest.getRole() + 
-                    ". Valid values: USER, ADMIN, ROLE_USER, ROLE_ADMIN");
+            throw failure(AuthMetrics.REGISTER, registerRequest.getLogin(), "invalid_role",
+                    "Invalid role: " + registerRequest.getRole() + ". Valid values: USER, ADMIN, ROLE_USER, ROLE_ADMIN");
         }
 
         // Запрещаем создавать ADMIN через публичный endpoint
         if (role == Role.ROLE_ADMIN) {
-            throw new AuthenticationException("Cannot register with ADMIN role");
+            throw failure(AuthMetrics.REGISTER, registerRequest.getLogin(), "admin_role", "Cannot register with ADMIN role");
         }
 
         String passwordHash = passwordEncoder.encode(registerRequest.getPassword());
 
         User user = new User(registerRequest.getLogin(), passwordHash, role);
 
-        userRepository.save(user);
+        authMetrics.recordStep(AuthMetrics.STEP_DB, () -> userRepository.save(user));
+        userVersionCache.put(new UserVersion(user.getLogin(), user.getRole(), user.getTokenVersion()));
+        auditTrail.success(AuthMetrics.REGISTER, user.getLogin());
         
         // Сразу выдаем токены после регистрации
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getLogin(), user.getRole());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getLogin(), user.getRole());
+        String accessToken = jwtTokenProvider.generateAccessToken(user.getLogin(), user.getRole(), user.getTokenVersion());
+        String refreshToken = refreshTokenService.issue(user.getLogin());
         
         // ВСЕГДА создаем пользователя в user-service для синхронизации между сервисами
         // Если указаны данные профиля - используем их, иначе создаем с дефолтными значениями
@@ -112,69 +179,111 @@ public class AuthService {
 
     /**
      * Обновляет access токен с помощью refresh токена.
-     * Валидирует refresh токен, извлекает информацию о пользователе и генерирует новую пару токенов.
+     * Refresh токен ротируется: предъявленный гасится, в ответе приходит новый того же семейства.
+     * Повторное предъявление уже замененного токена отзывает все семейство (см. RefreshTokenService).
+     * Роль и версия учетных данных для нового access токена берутся из UserVersionCache, без запроса к таблице users.
+     * Одновременные вызовы с одним и тем же токеном схлопываются и получают один результат (RefreshCoalescer).
      * 
-     * @param refreshToken refresh токен для обновления
+     * @param refreshToken непрозрачный refresh токен
      * @return TokenResponse с новыми access и refresh токенами
-     * @throws AuthenticationException если токен невалиден, роль некорректна или пользователь не найден
+     * @throws AuthenticationException если токен невалиден, уже использован или пользователь не найден
      */
     public TokenResponse refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new AuthenticationException("Invalid refresh token");
-        }
+        return refreshCoalescer.refresh(refreshToken,
+                () -> authMetrics.recordOperation(AuthMetrics.REFRESH, () -> doRefreshToken(refreshToken)));
+    }
 
-        String username = jwtTokenProvider.getUsernameFromToken(refreshToken);
-        String roleStr = jwtTokenProvider.getRoleFromToken(refreshToken);
-        
-        // Валидация роли из токена
-        Role roleFromToken;
-        try {
-            roleFromToken = Role.valueOf(roleStr);
-        } catch (IllegalArgumentException e) {
-            throw new AuthenticationException("Invalid role in refresh token: " + roleStr);
-        }
+    private TokenResponse doRefreshToken(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
 
-        User user = userRepository.findByLogin(username)
-                .orElseThrow(() -> new AuthenticationException("User not found"));
+        UserVersion user = userVersionCache.find(rotation.login())
+                .orElseThrow(() -> failure(AuthMetrics.REFRESH, rotation.login(), "user_not_found", "User not found"));
 
-        // Проверяем, что роль в токене совпадает с ролью в БД (дополнительная проверка безопасности)
-        if (user.getRole() != roleFromToken) {
-            throw new AuthenticationException("Role mismatch: token role does not match user role");
-        }
+        String newAccessToken = jwtTokenProvider.generateAccessToken(user.login(), user.role(), user.tokenVersion());
+        auditTrail.success(AuthMetrics.REFRESH, user.login());
 
-        // Используем роль из БД для генерации новых токенов
-        String newAccessToken = jwtTokenProvider.generateAccessToken(user.getLogin(), user.getRole());
-        String newRefreshToken = jwtTokenProvider.generateRefreshToken(user.getLogin(), user.getRole());
-
-        return new TokenResponse(newAccessToken, newRefreshToken, jwtTokenProvider.getJwtExpiration());
+        return new TokenResponse(newAccessToken, rotation.refreshToken(), jwtTokenProvider.getJwtExpiration());
     }
 
 
     public TokenValidationResponse validateToken(String token) {
+        return authMetrics.recordOperation(AuthMetrics.VALIDATE, () -> doValidateToken(token));
+    }
+
+    // Один разбор и одна проверка подписи на вызов (REST validate, gRPC unary и streaming).
+    private TokenValidationResponse doValidateToken(String token) {
         try {
-            if (jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsernameFromToken(token);
-                String role = jwtTokenProvider.getRoleFromToken(token);
-                return new TokenValidationResponse(true, username, role);
+            Optional<TokenPrincipal> principal = jwtTokenProvider.parseToken(token);
+            if (principal.isPresent()) {
+                return new TokenValidationResponse(true, principal.get().username(), principal.get().role());
             }
+            authMetrics.recordFailure(AuthMetrics.VALIDATE, "invalid_token");
             return new TokenValidationResponse(false, null, null);
         } catch (Exception e) {
+            authMetrics.recordFailure(AuthMetrics.VALIDATE, "error");
             return new TokenValidationResponse(false, null, null);
         }
     }
 
+    /**
+     * Проверяет токен за один разбор и возвращает данные пользователя вместе со сроком действия.
+     * Используется forward-auth endpoint, которому нужно время жизни токена для заголовков кэширования.
+     *
+     * @param token JWT access токен
+     * @return данные пользователя или пустой Optional, если токен невалиден
+     */
+    public Optional<TokenPrincipal> verifyToken(String token) {
+        return jwtTokenProvider.parseToken(token);
+    }
+
+    /**
+     * Завершает сессию: отзывает access токен до истечения его срока действия и семейство refresh токена.
+     * Невалидные или уже истекшие токены пропускаются - повторный logout не является ошибкой.
+     * Отзыв хранится в памяти (TokenRevocationStore), валидация токенов не обращается к БД.
+     * Исходы register и create-token этого логина забываются (IdempotencyStore): повтор запроса
+     * с прежним Idempotency-Key после выхода выполняется заново и не получает токены без пароля.
+     *
+     * @param logoutRequest access и refresh токены текущей сессии
+     */
+    public void logout(LogoutRequest logoutRequest) {
+        authMetrics.runOperation(AuthMetrics.LOGOUT, () -> {
+            Optional<TokenPrincipal> principal = jwtTokenProvider.parseToken(logoutRequest.accessToken());
+            principal.ifPresent(p -> tokenRevocationStore.revoke(p.tokenId(), p.expiration().toInstant()));
+            refreshTokenService.revoke(logoutRequest.refreshToken());
+            principal.map(TokenPrincipal::username).ifPresent(idempotencyStore::evictLogin);
+            auditTrail.success(AuthMetrics.LOGOUT, principal.map(TokenPrincipal::username).orElse(null));
+        });
+    }
+
     /**
      * Удаляет пользователя по email (login) из auth_db.
      * Используется для синхронизации с user-service при удалении пользователя.
+     * Выданные пользователю токены перестают проходить проверку сразу (UserVersionCache),
+     * другие узлы получают инвалидацию пользователя через InvalidationBus после фиксации транзакции.
      * 
      * @param email email (login) пользователя для удаления
      * @throws AuthenticationException если пользователь не найден
      */
     @Transactional
     public void deleteUserByEmail(String email) {
-        User user = userRepository.findByLogin(email)
-                .orElseThrow(() -> new AuthenticationException("User with email " + email + " not found"));
+        authMetrics.runOperation(AuthMetrics.DELETE, () -> doDeleteUserByEmail(email));
+    }
+
+    private void doDeleteUserByEmail(String email) {
+        User user = authMetrics.recordStep(AuthMetrics.STEP_DB, () -> userRepository.findByLogin(email))
+                .orElseThrow(() -> failure(AuthMetrics.DELETE, email, "user_not_found",
+                        "User with email " + email + " not found"));
         
-        userRepository.delete(user);
+        authMetrics.runStep(AuthMetrics.STEP_DB, () -> userRepository.delete(user));
+        userVersionCache.markDeleted(user.getLogin());
+        invalidationBus.publish(InvalidationTopics.USER, user.getLogin());
+        auditTrail.success(AuthMetrics.DELETE, user.getLogin());
+    }
+
+    // Учитывает отказ в метрике auth.failures и журнале аудита и возвращает исключение для выброса.
+    private AuthenticationException failure(String operation, String login, String reason, String message) {
+        authMetrics.recordFailure(operation, reason);
+        auditTrail.failure(operation, login, reason);
+        return new AuthenticationException(message);
     }
 }
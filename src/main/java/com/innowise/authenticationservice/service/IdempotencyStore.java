@@ -0,0 +1,168 @@
+package com.innowise.authenticationservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.innowise.authenticationservice.dto.TokenResponse;
+import com.innowise.authenticationservice.exception.IdempotencyKeyReuseException;
+import com.innowise.authenticationservice.exception.InvalidIdempotencyKeyException;
+import com.innowise.authenticationservice.util.SingleFlight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ответы register и create-token по заголовку Idempotency-Key.
+ * Клиенты повторяют запрос после таймаута шлюза; без ключа каждый повтор заново выполняет BCrypt, вставку
+ * пользователя и вызов user-service, а register затем падает с "Login already exists".
+ * С ключом первый запрос выполняется, а его исход хранится auth.idempotency.ttl-ms: статус ответа, логин
+ * и SHA-256 полей запроса (пароль не хранится). Токены не хранятся: повторы, в том числе пришедшие пока первый
+ * запрос еще выполняется, получают тот же статус с заголовком Idempotent-Replayed и новую пару токенов
+ * (без BCrypt, вставки пользователя и вызова user-service), поэтому повтор не возвращает отозванные токены
+ * и не предъявляет уже ротированный refresh токен. Тот же ключ с другим запросом отклоняется
+ * (IdempotencyKeyReuseException, 422). Logout забывает исходы запросов своего логина (evictLogin).
+ * Ошибки не запоминаются - повтор после ошибки выполняется заново. Ключ длиннее 255 символов отклоняется
+ * (InvalidIdempotencyKeyException, 400).
+ * Число ключей ограничено auth.idempotency.max-keys: при переполнении запросы выполняются без сохранения ответа,
+ * такие запросы считает метрика auth.idempotency.bypassed, а переполнение пишется в лог один раз до освобождения места.
+ * Хранилище работает в пределах одного узла.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final SingleFlight<String, StoredOutcome> outcomes;
+    private final int maxKeys;
+    private final LongAdder bypassed = new LongAdder();
+    private final AtomicBoolean full = new AtomicBoolean();
+
+    public IdempotencyStore(@Value("${auth.idempotency.ttl-ms:120000}") long ttlMillis,
+                            @Value("${auth.idempotency.max-keys:10000}") int maxKeys) {
+        this.outcomes = new SingleFlight<>(Duration.ofMillis(ttlMillis));
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Выполняет запрос или отвечает на повтор запроса с тем же ключом новой парой токенов.
+     *
+     * @param operation операция (register, create-token); ключи разных операций не пересекаются
+     * @param idempotencyKey значение заголовка Idempotency-Key; без него запрос просто выполняется
+     * @param requestHash отпечаток запроса (fingerprint)
+     * @param login логин, которому выдаются токены
+     * @param action выполнение запроса
+     * @param reissue выдача новой пары токенов логину при повторе
+     * @return ответ; повтор - с заголовком Idempotent-Replayed
+     */
+    public ResponseEntity<TokenResponse> execute(String operation, String idempotencyKey, String requestHash,
+                                                 String login, Supplier<ResponseEntity<TokenResponse>> action,
+                                                 Function<String, TokenResponse> reissue) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    IDEMPOTENCY_KEY_HEADER + " must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        if (outcomes.size() >= maxKeys) {
+            bypassed.increment();
+            if (full.compareAndSet(false, true)) {
+                log.warn("Idempotency store is full ({} keys), requests run without storing the response", maxKeys);
+            }
+            return action.get();
+        }
+        if (full.get()) {
+            full.set(false);
+        }
+
+        // Ответ, полученный в этом вызове; если он не заполнен, запрос выполнил другой вызов с тем же ключом
+        AtomicReference<ResponseEntity<TokenResponse>> executed = new AtomicReference<>();
+        StoredOutcome stored = outcomes.execute(operation + ':' + idempotencyKey, () -> {
+            ResponseEntity<TokenResponse> response = action.get();
+            executed.set(response);
+            return new StoredOutcome(requestHash, response.getStatusCode().value(), login);
+        });
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(
+                    IDEMPOTENCY_KEY_HEADER + " was already used with a different request");
+        }
+        if (executed.get() != null) {
+            return executed.get();
+        }
+        return ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(reissue.apply(stored.login()));
+    }
+
+    /**
+     * Забывает исходы запросов логина: повтор с тем же ключом после logout выполняется заново,
+     * а не получает токены без пароля.
+     *
+     * @param login логин
+     */
+    public void evictLogin(String login) {
+        outcomes.evictIf(outcome -> login.equals(outcome.login()));
+    }
+
+    // Отпечаток запроса: SHA-256 от полей с разделителями, чтобы ("ab", "c") и ("a", "bc") различались.
+    public static String fingerprint(String... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : fields) {
+                if (field != null) {
+                    digest.update(field.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) (field == null ? 1 : 0));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public int size() {
+        return outcomes.size();
+    }
+
+    // Запросы с ключом, выполненные без сохранения ответа из-за переполнения.
+    public long bypassed() {
+        return bypassed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.idempotency.replayed", outcomes, SingleFlight::sharedCalls)
+                .description("Requests answered from the stored outcome of an earlier request with the same Idempotency-Key")
+                .register(registry);
+        FunctionCounter.builder("auth.idempotency.bypassed", bypassed, LongAdder::sum)
+                .description("Requests with an Idempotency-Key run without storing the response because the store was full")
+                .register(registry);
+        Gauge.builder("auth.idempotency.keys", outcomes, SingleFlight::size)
+                .description("Idempotency keys with a stored or in-flight request outcome")
+                .register(registry);
+    }
+
+    // Исход запроса без токенов: статус ответа, логин для повторной выдачи и отпечаток запроса.
+    private record StoredOutcome(String requestHash, int status, String login) {
+    }
+}
@@ -16,6 +16,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Service;
 
+import com.innowise.authenticationservice.jfr.AuthEvents;
+import com.innowise.authenticationservice.jfr.OutboundCallEvent;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
 import com.innowise.authenticationservice.model.Role;
 
 import java.util.Collections;
@@ -27,20 +30,29 @@ import java.util.List;
 public class KeycloakService {
 
     private static final Logger log = LoggerFactory.getLogger(KeycloakService.class);
+    private static final String JFR_TARGET = "keycloak";//Target для JFR событий OutboundCallEvent
 
     private final Keycloak keycloak;//Keycloak клиент для взаимодействия с Keycloak сервером
     private final String realm;//Realm Keycloak
+    private final AuthMetrics authMetrics;//Время вызовов Keycloak публикуется как auth.step{step="keycloak"}
 
     @Autowired
-    public KeycloakService(Keycloak keycloak, @Value("${keycloak.realm:}") String realm) {
+    public KeycloakService(Keycloak keycloak, @Value("${keycloak.realm:}") String realm, AuthMetrics authMetrics) {
         this.keycloak = keycloak;
         this.realm = realm;
+        this.authMetrics = authMetrics;
     }
 
     /**
      * Создание пользователя в Keycloak
      */
     public String createUser(String username, String password, Role role, String firstName, String lastName) {
+        return authMetrics.recordStep(AuthMetrics.STEP_KEYCLOAK,
+                () -> AuthEvents.record(new OutboundCallEvent(JFR_TARGET, "createUser").forUser(username),
+                        () -> doCreateUser(username, password, role, firstName, lastName)));
+    }
+
+    private String doCreateUser(String username, String password, Role role, String firstName, String lastName) {
         RealmResource realmResource = keycloak.realm(realm);
         UsersResource usersResource = realmResource.users();
 
@@ -112,6 +124,12 @@ public class KeycloakService {
      * Обновление пароля пользователя в Keycloak
      */
     public void updatePassword(String username, String password) {
+        authMetrics.runStep(AuthMetrics.STEP_KEYCLOAK,
+                () -> AuthEvents.run(new OutboundCallEvent(JFR_TARGET, "updatePassword").forUser(username),
+                        () -> doUpdatePassword(username, password)));
+    }
+
+    private void doUpdatePassword(String username, String password) {
         RealmResource realmResource = keycloak.realm(realm);
         UsersResource usersResource = realmResource.users();
         
@@ -130,6 +148,12 @@ public class KeycloakService {
      * Удаление пользователя из Keycloak
      */
     public void deleteUser(String username) {
+        authMetrics.runStep(AuthMetrics.STEP_KEYCLOAK,
+                () -> AuthEvents.run(new OutboundCallEvent(JFR_TARGET, "deleteUser").forUser(username),
+                        () -> doDeleteUser(username)));
+    }
+
+    private void doDeleteUser(String username) {
         RealmResource realmResource = keycloak.realm(realm);
         UsersResource usersResource = realmResource.users();
         
@@ -143,6 +167,12 @@ public class KeycloakService {
      * Обновление профиля пользователя (логин, имя, фамилия)
      */
     public void updateUserProfile(String currentLogin, String newLogin, String firstName, String lastName) {
+        authMetrics.runStep(AuthMetrics.STEP_KEYCLOAK,
+                () -> AuthEvents.run(new OutboundCallEvent(JFR_TARGET, "updateUserProfile").forUser(currentLogin),
+                        () -> doUpdateUserProfile(currentLogin, newLogin, firstName, lastName)));
+    }
+
+    private void doUpdateUserProfile(String currentLogin, String newLogin, String firstName, String lastName) {
         RealmResource realmResource = keycloak.realm(realm);
         UsersResource usersResource = realmResource.users();
 
@@ -165,6 +195,12 @@ public class KeycloakService {
      * Проверка существования пользователя в Keycloak
      */
     public boolean userExists(String username) {
+        return authMetrics.recordStep(AuthMetrics.STEP_KEYCLOAK,
+                () -> AuthEvents.record(new OutboundCallEvent(JFR_TARGET, "userExists").forUser(username),
+                        () -> doUserExists(username)));
+    }
+
+    private boolean doUserExists(String username) {
         RealmResource realmResource = keycloak.realm(realm);
         UsersResource usersResource = realmResource.users();
         List<UserRepresentation> users = usersResource.search(username);
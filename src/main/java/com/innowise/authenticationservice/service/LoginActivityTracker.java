@@ -0,0 +1,134 @@
+package com.innowise.authenticationservice.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Отложенная запись users.last_login_at (UTC) и users.login_count.
+ * login не пишет в БД: вход только учитывается в карте по логину, и все входы пользователя за окно
+ * auth.login-activity.flush-interval-ms схлопываются в одну строку (последний момент входа, число входов).
+ * Раз в окно карта сбрасывается пачками по auth.login-activity.batch-size пользователей, один UPDATE ... FROM (VALUES ...)
+ * на пачку. Если запись не удалась, учтенные входы возвращаются в карту и попадут в следующий сброс.
+ * При остановке приложения выполняется последний сброс.
+ * Метрики: auth.login.activity.pending (пользователи, ожидающие записи), auth.login.activity.flushed (записанные строки).
+ */
+@Slf4j
+@Component
+public class LoginActivityTracker implements DisposableBean {
+
+    private static final String UPDATE_PREFIX = "UPDATE users u SET"
+            + " last_login_at = GREATEST(u.last_login_at, v.last_login_at),"
+            + " login_count = u.login_count + v.logins"
+            + " FROM (VALUES ";
+    private static final String UPDATE_ROW = "(?, CAST(? AS TIMESTAMP), CAST(? AS BIGINT))";
+    private static final String UPDATE_SUFFIX = ") AS v(login, last_login_at, logins) WHERE u.login = v.login";
+
+    /**
+     * Накопленные входы пользователя.
+     *
+     * @param lastLoginAt последний вход
+     * @param logins число входов
+     */
+    record Activity(Instant lastLoginAt, long logins) {
+
+        Activity plus(Activity other) {
+            return new Activity(lastLoginAt.isAfter(other.lastLoginAt) ? lastLoginAt : other.lastLoginAt,
+                    logins + other.logins);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Clock clock;
+    private final Map<String, Activity> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+
+    @Autowired
+    public LoginActivityTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                @Value("${auth.login-activity.batch-size:500}") int batchSize) {
+        this(jdbcTemplate, meterRegistry, batchSize, Clock.systemUTC());
+    }
+
+    LoginActivityTracker(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, int batchSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.flushed = Counter.builder("auth.login.activity.flushed")
+                .description("Users whose last login and login count were written")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.activity.pending", pending, Map::size)
+                .description("Users with logins not yet written")
+                .register(meterRegistry);
+    }
+
+    // Учитывает успешный вход; запись в БД - при следующем сбросе.
+    public void recordLogin(String login) {
+        pending.merge(login, new Activity(clock.instant(), 1), Activity::plus);
+    }
+
+    /**
+     * Записывает накопленные входы. Каждая запись изымается из карты атомарно (remove),
+     * поэтому вход, учтенный во время сброса, попадает либо в эту пачку, либо в следующую, но не теряется.
+     */
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval-ms:5000}")
+    public void flush() {
+        List<Map.Entry<String, Activity>> batch = new ArrayList<>(batchSize);
+        for (String login : pending.keySet()) {
+            Activity activity = pending.remove(login);
+            if (activity == null) {
+                continue;
+            }
+            batch.add(Map.entry(login, activity));
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void write(List<Map.Entry<String, Activity>> batch) {
+        Object[] args = new Object[batch.size() * 3];
+        int i = 0;
+        for (Map.Entry<String, Activity> entry : batch) {
+            args[i++] = entry.getKey();
+            args[i++] = LocalDateTime.ofInstant(entry.getValue().lastLoginAt(), ZoneOffset.UTC);
+            args[i++] = entry.getValue().logins();
+        }
+        String sql = UPDATE_PREFIX + String.join(", ", Collections.nCopies(batch.size(), UPDATE_ROW)) + UPDATE_SUFFIX;
+        try {
+            jdbcTemplate.update(sql, args);
+            flushed.increment(batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Failed to write login activity for {} users, will retry: {}", batch.size(), e.getMessage());
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Activity::plus));
+        }
+    }
+}
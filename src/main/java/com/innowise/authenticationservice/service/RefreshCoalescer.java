@@ -0,0 +1,39 @@
+package com.innowise.authenticationservice.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.innowise.authenticationservice.dto.TokenResponse;
+import com.innowise.authenticationservice.util.SingleFlight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Схлопывает одновременные обновления по одному и тому же refresh токену.
+ * Мобильные клиенты при массовом 401 отправляют несколько /refresh с одним токеном: первый запрос
+ * выполняет ротацию, остальные (в том числе пришедшие в течение auth.refresh.coalescing-grace-ms после него)
+ * получают ту же пару токенов, не проверяя токен, не читая пользователя и не подписывая JWT повторно.
+ * Без схлопывания параллельные запросы выглядели бы как повторное использование токена и отзывали семейство.
+ * Схлопывание работает в пределах одного узла.
+ */
+@Component
+public class RefreshCoalescer {
+
+    private final SingleFlight<String, TokenResponse> singleFlight;
+
+    public RefreshCoalescer(@Value("${auth.refresh.coalescing-grace-ms:2000}") long graceMillis,
+                            MeterRegistry meterRegistry) {
+        this.singleFlight = new SingleFlight<>(Duration.ofMillis(graceMillis));
+        FunctionCounter.builder("auth.refresh.coalesced", singleFlight, SingleFlight::sharedCalls)
+                .description("Refresh calls served by a concurrent refresh with the same token")
+                .register(meterRegistry);
+    }
+
+    public TokenResponse refresh(String refreshToken, Supplier<TokenResponse> rotation) {
+        return singleFlight.execute(refreshToken, rotation);
+    }
+}
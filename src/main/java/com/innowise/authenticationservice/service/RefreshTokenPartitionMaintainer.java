@@ -0,0 +1,151 @@
+package com.innowise.authenticationservice.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Обслуживание секций таблицы refresh_tokens (секционирование по expires_at, одна секция на сутки UTC).
+ * Заранее создает секции на срок жизни refresh токена вперед плюс неделю запаса (секции DEFAULT нет,
+ * токен без секции не сохранится) и удаляет секции, в которых все токены истекли: DROP секции освобождает
+ * место сразу и не нагружает таблицу массовым DELETE и последующим VACUUM.
+ * Секция сначала отсоединяется DETACH PARTITION CONCURRENTLY - без ACCESS EXCLUSIVE на refresh_tokens,
+ * поэтому login и refresh не ждут обслуживания; DROP отсоединенной таблицы блокирует только ее саму.
+ * Работу выполняет одна реплика: обслуживание идет под pg_try_advisory_lock на отдельном соединении
+ * в режиме autocommit (CONCURRENTLY нельзя выполнять в транзакции), остальные реплики пропускают запуск.
+ * Если таблица не секционирована (например, схема создана Hibernate в тестах), истекшие строки удаляются DELETE.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPartitionMaintainer {
+
+    private static final String TABLE = "refresh_tokens";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final String EXPIRED_CONDITION = " WHERE expires_at <= now() AT TIME ZONE 'UTC'";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    // Ключ pg_advisory_lock обслуживания refresh_tokens (общий для всех реплик)
+    private static final long ADVISORY_LOCK_KEY = 0x7265667265736800L;
+    // Запас секций сверх срока жизни токена: столько дней вход продолжит работать, если обслуживание не выполняется
+    private static final int SPARE_DAYS = 7;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int daysAhead;
+    private final Clock clock;
+
+    @Autowired
+    public RefreshTokenPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                           @Value("${jwt.refresh.expiration}") long refreshExpirationMillis) {
+        this(jdbcTemplate, Duration.ofMillis(refreshExpirationMillis), Clock.systemUTC());
+    }
+
+    RefreshTokenPartitionMaintainer(JdbcTemplate jdbcTemplate, Duration refreshExpiration, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Токен, выданный сегодня, истекает не позже чем через refreshExpiration
+        this.daysAhead = (int) Math.ceil(refreshExpiration.toSeconds() / 86_400.0) + SPARE_DAYS;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${auth.refresh-tokens.maintenance-cron:0 5 * * * *}", zone = "UTC")
+    public void maintain() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                // Все запросы - на этом соединении: advisory lock принадлежит сессии
+                JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                if (!Boolean.TRUE.equals(session.queryForObject(
+                        "SELECT pg_try_advisory_lock(?)", Boolean.class, ADVISORY_LOCK_KEY))) {
+                    log.debug("Refresh token partition maintenance is running on another node, skipped");
+                    return null;
+                }
+                try {
+                    maintain(session);
+                } finally {
+                    session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.error("Refresh token partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Обслуживание на соединении, которое держит advisory lock.
+    void maintain(JdbcTemplate session) {
+        if (!isPartitioned(session)) {
+            int deleted = session.update("DELETE FROM " + TABLE + EXPIRED_CONDITION);
+            log.debug("{} is not partitioned, deleted {} expired rows", TABLE, deleted);
+            return;
+        }
+        LocalDate today = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+        createPartitions(session, today);
+        dropExpiredPartitions(session, today);
+    }
+
+    private static boolean isPartitioned(JdbcTemplate session) {
+        Boolean partitioned = session.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid"
+                        + " WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private void createPartitions(JdbcTemplate session, LocalDate today) {
+        for (int day = 0; day <= daysAhead; day++) {
+            LocalDate from = today.plusDays(day);
+            session.execute("CREATE TABLE IF NOT EXISTS " + partitionName(from) + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + from.plusDays(1) + "')");
+        }
+    }
+
+    // Секция за день D содержит токены с expires_at < D+1, поэтому удаляется, как только D+1 <= сегодня.
+    private static void dropExpiredPartitions(JdbcTemplate session, LocalDate today) {
+        List<Map<String, Object>> partitions = session.queryForList(
+                "SELECT c.relname, i.inhdetachpending FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ? AND pg_table_is_visible(c.oid)",
+                TABLE);
+        for (Map<String, Object> row : partitions) {
+            String partition = (String) row.get("relname");
+            LocalDate day = partitionDay(partition);
+            if (day == null || day.plusDays(1).isAfter(today)) {
+                continue;
+            }
+            // Прерванный ранее DETACH ... CONCURRENTLY оставляет секцию в состоянии detach pending
+            String detach = Boolean.TRUE.equals(row.get("inhdetachpending")) ? " FINALIZE" : " CONCURRENTLY";
+            session.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition + detach);
+            session.execute("DROP TABLE IF EXISTS " + partition);
+            log.info("Dropped expired refresh token partition {}", partition);
+        }
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    private static LocalDate partitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
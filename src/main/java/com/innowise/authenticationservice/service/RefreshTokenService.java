@@ -0,0 +1,180 @@
+package com.innowise.authenticationservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.innowise.authenticationservice.audit.AuditTrail;
+import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.model.RefreshToken;
+import com.innowise.authenticationservice.repository.RefreshTokenRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Выдача и ротация непрозрачных refresh токенов.
+ * Формат токена: "{exp в секундах, base36}.{32 случайных байта, base64url}" - около 50 символов вместо JWT.
+ * Время истечения в токене позволяет искать запись сразу в нужной секции refresh_tokens;
+ * подделать его нельзя - в БД хранится SHA-256 от всего токена.
+ * Каждый вызов rotate() гасит предъявленный токен и выдает новый в том же семействе.
+ * Повторное предъявление уже замененного токена считается кражей: отзывается все семейство.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final char EXPIRY_SEPARATOR = '.';
+    private static final int RANDOM_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AuthMetrics authMetrics;
+    private final AuditTrail auditTrail;
+    private final Duration refreshExpiration;
+    private final Clock clock;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               AuthMetrics authMetrics,
+                               AuditTrail auditTrail,
+                               @Value("${jwt.refresh.expiration}") long refreshExpirationMillis) {
+        this(refreshTokenRepository, authMetrics, auditTrail, Duration.ofMillis(refreshExpirationMillis),
+                Clock.systemUTC());
+    }
+
+    RefreshTokenService(RefreshTokenRepository refreshTokenRepository, AuthMetrics authMetrics, AuditTrail auditTrail,
+                        Duration refreshExpiration, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.authMetrics = authMetrics;
+        this.auditTrail = auditTrail;
+        this.refreshExpiration = refreshExpiration;
+        this.clock = clock;
+    }
+
+    /**
+     * Результат ротации.
+     *
+     * @param login владелец токена
+     * @param refreshToken новый refresh токен
+     */
+    public record Rotation(String login, String refreshToken) {
+    }
+
+    /**
+     * Выдает refresh токен нового семейства (вход или регистрация).
+     *
+     * @param login логин пользователя
+     * @return непрозрачный refresh токен
+     */
+    @Transactional
+    public String issue(String login) {
+        return issue(login, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Гасит предъявленный refresh токен и выдает следующий в том же семействе.
+     *
+     * @param rawToken refresh токен от клиента
+     * @return владелец и новый refresh токен
+     * @throws AuthenticationException если токен не найден, истек, отозван или уже использован
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Rotation rotate(String rawToken) {
+        LocalDateTime expiresAt = parseExpiry(rawToken)
+                .orElseThrow(() -> failure(null, "invalid_token", "Invalid refresh token"));
+        String tokenHash = hash(rawToken);
+        RefreshToken token = authMetrics.recordStep(AuthMetrics.STEP_DB,
+                        () -> refreshTokenRepository.findToken(tokenHash, expiresAt))
+                .orElseThrow(() -> failure(null, "invalid_token", "Invalid refresh token"));
+
+        LocalDateTime now = now();
+        if (token.isRevoked() || !token.getExpiresAt().isAfter(now)) {
+            throw failure(token.getUserLogin(), "invalid_token", "Invalid refresh token");
+        }
+        if (token.getUsedAt() != null || authMetrics.recordStep(AuthMetrics.STEP_DB,
+                () -> refreshTokenRepository.markUsed(tokenHash, expiresAt, now)) == 0) {
+            // Токен уже был заменен: его предъявляет кто-то, кроме законного владельца
+            log.warn("Refresh token reuse detected for user {}, revoking token family {}",
+                    token.getUserLogin(), token.getFamilyId());
+            authMetrics.runStep(AuthMetrics.STEP_DB, () -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+            throw failure(token.getUserLogin(), "token_reuse", "Invalid refresh token");
+        }
+        return new Rotation(token.getUserLogin(), issue(token.getUserLogin(), token.getFamilyId()));
+    }
+
+    /**
+     * Отзывает семейство, к которому принадлежит токен (logout). Неизвестные токены пропускаются.
+     *
+     * @param rawToken refresh токен от клиента
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        parseExpiry(rawToken)
+                .flatMap(expiresAt -> refreshTokenRepository.findToken(hash(rawToken), expiresAt))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    private String issue(String login, String familyId) {
+        LocalDateTime now = now();
+        // Точность до секунды: то же значение восстанавливается из токена для поиска по ключу
+        long expiresAtSeconds = now.plus(refreshExpiration).toEpochSecond(ZoneOffset.UTC);
+        byte[] random = new byte[RANDOM_BYTES];
+        secureRandom.nextBytes(random);
+        String rawToken = Long.toString(expiresAtSeconds, Character.MAX_RADIX) + EXPIRY_SEPARATOR
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        RefreshToken token = new RefreshToken(hash(rawToken),
+                LocalDateTime.ofEpochSecond(expiresAtSeconds, 0, ZoneOffset.UTC), familyId, login, now);
+        authMetrics.recordStep(AuthMetrics.STEP_DB, () -> refreshTokenRepository.save(token));
+        return rawToken;
+    }
+
+    private Optional<LocalDateTime> parseExpiry(String rawToken) {
+        int separator = rawToken == null ? -1 : rawToken.indexOf(EXPIRY_SEPARATOR);
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            long expiresAtSeconds = Long.parseLong(rawToken.substring(0, separator), Character.MAX_RADIX);
+            return Optional.of(LocalDateTime.ofInstant(Instant.ofEpochSecond(expiresAtSeconds), ZoneOffset.UTC));
+        } catch (NumberFormatException | DateTimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+
+    private AuthenticationException failure(String login, String reason, String message) {
+        authMetrics.recordFailure(AuthMetrics.REFRESH, reason);
+        auditTrail.failure(AuthMetrics.REFRESH, login, reason);
+        return new AuthenticationException(message);
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.innowise.authenticationservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченный кольцевой буфер без блокировок: много производителей, один потребитель (MPSC).
+ * У каждой ячейки свой номер последовательности (схема Вьюкова): производитель занимает позицию одним CAS
+ * по tail и публикует элемент записью номера с семантикой release; потребитель читает номер с acquire.
+ * offer не ждет и не выделяет память - при заполненном буфере возвращает false, решение принимает вызывающий.
+ *
+ * @param <E> элемент
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    // sequences[i] == pos - ячейка свободна для позиции pos; pos + 1 - в ней опубликован элемент позиции pos
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Позицию head меняет только потребитель; AtomicLong нужен для чтения size() из других потоков.
+    private final AtomicLong head = new AtomicLong();
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавляет элемент. Безопасен для вызова из любого числа потоков.
+     *
+     * @return false, если буфер заполнен
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.weakCompareAndSetVolatile(position, position + 1)) {
+                    elements.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Извлекает до limit опубликованных элементов по порядку. Вызывается только из потока-потребителя.
+     *
+     * @return число извлеченных элементов
+     */
+    public int drain(Consumer<? super E> sink, int limit) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) position & mask;
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            E element = elements.getPlain(index);
+            elements.setPlain(index, null);
+            sequences.setRelease(index, position + mask + 1);
+            position++;
+            drained++;
+            sink.accept(element);
+        }
+        head.lazySet(position);
+        return drained;
+    }
+
+    // Приблизительное число элементов в буфере (для метрик).
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
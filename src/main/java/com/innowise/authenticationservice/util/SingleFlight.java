@@ -0,0 +1,97 @@
+package com.innowise.authenticationservice.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Схлопывание одновременных вызовов с одинаковым ключом (single-flight).
+ * Первый вызов выполняет действие в своем потоке, остальные ждут его результата и получают тот же результат
+ * (или то же исключение). Успешный результат остается доступным еще grace после завершения -
+ * повторы, пришедшие чуть позже первого вызова, тоже получают его; ошибки не запоминаются.
+ *
+ * @param <K> ключ
+ * @param <V> результат
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Duration grace;
+    private final Executor evictionExecutor;
+    private final LongAdder sharedCalls = new LongAdder();
+
+    public SingleFlight(Duration grace) {
+        this.grace = grace;
+        this.evictionExecutor = CompletableFuture.delayedExecutor(grace.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Выполняет действие или присоединяется к уже идущему (недавно завершенному) вызову с тем же ключом.
+     *
+     * @param key ключ схлопывания
+     * @param action действие; выполняется не более одного раза на ключ в пределах окна
+     * @return результат действия
+     */
+    public V execute(K key, Supplier<V> action) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            sharedCalls.increment();
+            return await(existing);
+        }
+        try {
+            V value = action.get();
+            call.complete(value);
+            if (grace.isZero()) {
+                calls.remove(key, call);
+            } else {
+                evictionExecutor.execute(() -> calls.remove(key, call));
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Количество вызовов, получивших чужой результат вместо собственного выполнения.
+    public long sharedCalls() {
+        return sharedCalls.sum();
+    }
+
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * Забывает завершенные вызовы, результат которых подходит под условие, не дожидаясь окончания grace.
+     * Идущие вызовы не затрагиваются.
+     *
+     * @param condition условие на результат вызова
+     */
+    public void evictIf(Predicate<? super V> condition) {
+        calls.values().removeIf(call -> call.isDone() && !call.isCompletedExceptionally()
+                && condition.test(call.join()));
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.innowise.authenticationservice.warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.authenticationservice.dto.LoginRequest;
+import com.innowise.authenticationservice.dto.RegisterRequest;
+import com.innowise.authenticationservice.dto.TokenResponse;
+import com.innowise.authenticationservice.dto.TokenValidationResponse;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.model.Role;
+import com.innowise.authenticationservice.model.UserVersion;
+import com.innowise.authenticationservice.repository.UserRepository;
+import com.innowise.authenticationservice.security.JwtTokenProvider;
+import com.innowise.authenticationservice.security.PasswordEncoder;
+import com.innowise.authenticationservice.security.UserVersionCache;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Прогрев JIT для путей login и validate без изменения данных: пул Hikari заполняется до minimumIdle,
+ * DTO проходят JSON сериализацию и разбор, для синтетического логина (домен .invalid зарезервирован
+ * и не может быть настоящим адресом) выполняются поиск по логину, успешная проверка BCrypt, подпись
+ * и успешная проверка JWT. Чтобы validate и parseToken проходили ветку успеха, а не отказа, на время прогрева
+ * синтетический пользователь кладется в UserVersionCache (в БД его нет) и затем убирается.
+ * Каждый этап ограничен числом итераций и общим бюджетом времени. BCrypt намеренно медленный,
+ * поэтому для него отдельное, небольшое число итераций.
+ * Прогрев выполняется внутри AuthMetrics.withoutRecording: синтетические вызовы не попадают
+ * в метрики auth.* и JFR события.
+ */
+@Slf4j
+@Component
+public class AuthPathWarmer {
+
+    static final String WARMUP_LOGIN = "warmup@auth-service.invalid";
+    private static final String WARMUP_PASSWORD = "warmup-password";
+    // Синтетический пользователь в памяти: токены, подписанные для него, проходят проверку версии и роли
+    private static final UserVersion WARMUP_USER = new UserVersion(WARMUP_LOGIN, Role.ROLE_USER, 0);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserVersionCache userVersionCache;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final int tokenIterations;
+    private final int passwordIterations;
+    private final Duration timeBudget;
+    private volatile boolean warmedUp;
+
+    public AuthPathWarmer(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          JwtTokenProvider jwtTokenProvider, UserVersionCache userVersionCache,
+                          ObjectMapper objectMapper, DataSource dataSource,
+                          @Value("${auth.warmup.token-iterations:20000}") int tokenIterations,
+                          @Value("${auth.warmup.password-iterations:20}") int passwordIterations,
+                          @Value("${auth.warmup.time-budget-ms:15000}") long timeBudgetMs) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userVersionCache = userVersionCache;
+        this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        this.tokenIterations = tokenIterations;
+        this.passwordIterations = passwordIterations;
+        this.timeBudget = Duration.ofMillis(timeBudgetMs);
+    }
+
+    /**
+     * Выполняет прогрев.
+     *
+     * @return длительность прогрева
+     */
+    public Duration warmUp() {
+        return AuthMetrics.withoutRecording(this::doWarmUp);
+    }
+
+    private Duration doWarmUp() {
+        long started = System.nanoTime();
+        long deadline = started + timeBudget.toNanos();
+
+        int connections = prefillPool();
+
+        int json = 0;
+        for (; json < tokenIterations && System.nanoTime() < deadline; json++) {
+            jsonRoundTrip(json);
+        }
+
+        int passwords = 0;
+        String hash = passwordEncoder.encode(WARMUP_PASSWORD);
+        for (; passwords < passwordIterations && System.nanoTime() < deadline; passwords++) {
+            userRepository.findByLogin(WARMUP_LOGIN);
+            passwordEncoder.matches(WARMUP_PASSWORD, hash);
+        }
+
+        int tokens = 0;
+        userVersionCache.put(WARMUP_USER);
+        try {
+            for (; tokens < tokenIterations && System.nanoTime() < deadline; tokens++) {
+                String token = jwtTokenProvider.generateAccessToken(WARMUP_LOGIN, Role.ROLE_USER, 0);
+                jwtTokenProvider.validateToken(token);
+                jwtTokenProvider.parseToken(token);
+            }
+        } finally {
+            userVersionCache.evict(WARMUP_LOGIN);
+        }
+
+        warmedUp = true;
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Login and validate paths warmed up in {} ms: {} pool connections, {} JSON / {} password / {} token iterations",
+                elapsed.toMillis(), connections, json, passwords, tokens);
+        return elapsed;
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    // Одновременно занимает minimumIdle соединений и возвращает их в пул, чтобы первые запросы не ждали установки соединений.
+    private int prefillPool() {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari == null) {
+            return 0;
+        }
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < hikari.getMinimumIdle(); i++) {
+                connections.add(hikari.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to pre-fill connection pool: {}", e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to return warm-up connection", e);
+                }
+            }
+        }
+        return connections.size();
+    }
+
+    private void jsonRoundTrip(int iteration) {
+        try {
+            String login = "user" + iteration + "@auth-service.invalid";
+            objectMapper.readValue(objectMapper.writeValueAsBytes(new LoginRequest(login, WARMUP_PASSWORD)),
+                    LoginRequest.class);
+            RegisterRequest register = new RegisterRequest();
+            register.setLogin(login);
+            register.setPassword(WARMUP_PASSWORD);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(register), RegisterRequest.class);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(
+                    new TokenResponse("access-" + iteration, "refresh-" + iteration, 900_000L)), TokenResponse.class);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(
+                    new TokenValidationResponse(true, login, Role.ROLE_USER.name())), TokenValidationResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("JSON warm-up failed", e);
+        }
+    }
+}
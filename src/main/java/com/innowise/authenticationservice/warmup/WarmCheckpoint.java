@@ -0,0 +1,47 @@
+package com.innowise.authenticationservice.warmup;
+
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Снимок уже прогретого процесса (CRaC): после старта (и прогрева WarmupRunner, если он включен)
+ * создается checkpoint. Восстановленный из снимка процесс стартует мгновенно и сразу с
+ * скомпилированным JIT кодом.
+ *
+ * Перед снимком Spring останавливает Lifecycle-бины (пул Hikari, HTTP клиент user-service, Keycloak,
+ * gRPC сервер, веб-сервер), после restore запускает их снова, перечитывая секреты (JwtSigningKey).
+ * Требует JDK с CRaC и -XX:CRaCCheckpointTo=<dir>; процесс, создавший снимок, завершается.
+ * Восстановление: java -XX:CRaCRestoreFrom=<dir>.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.crac.checkpoint-after-warmup", havingValue = "true")
+public class WarmCheckpoint {
+
+    private final AuthPathWarmer authPathWarmer;
+
+    public WarmCheckpoint(AuthPathWarmer authPathWarmer) {
+        this.authPathWarmer = authPathWarmer;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkpoint() {
+        if (!authPathWarmer.isWarmedUp()) {
+            authPathWarmer.warmUp();
+        }
+        log.info("Creating CRaC checkpoint of the warmed-up process");
+        try {
+            Core.checkpointRestore();
+            log.info("Restored from CRaC checkpoint");
+        } catch (CheckpointException | RestoreException | UnsupportedOperationException e) {
+            log.error("CRaC checkpoint failed, continuing without it", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.innowise.authenticationservice.warmup;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Прогрев при старте до готовности: Spring Boot переводит readiness в ACCEPTING_TRAFFIC только
+ * после выполнения всех ApplicationRunner (событие ApplicationReadyEvent), поэтому пока идет прогрев,
+ * /actuator/health/readiness отвечает DOWN и под не получает трафик, а liveness уже UP.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private final AuthPathWarmer authPathWarmer;
+
+    public WarmupRunner(AuthPathWarmer authPathWarmer) {
+        this.authPathWarmer = authPathWarmer;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        authPathWarmer.warmUp();
+    }
+}
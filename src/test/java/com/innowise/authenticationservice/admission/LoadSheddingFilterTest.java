@@ -0,0 +1,86 @@
+package com.innowise.authenticationservice.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для LoadSheddingFilter.
+ * Проверяет, что при насыщении отбрасываются только запросы низкого приоритета, а проверка токенов проходит.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoadSheddingFilterTest {
+
+    @Mock
+    private SaturationMonitor saturationMonitor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoadSheddingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LoadSheddingFilter(saturationMonitor, new ObjectMapper(), meterRegistry, 3);
+    }
+
+    @Test
+    @DisplayName("ELEVATED - register получает 503 с Retry-After")
+    void elevated_ShouldShedRegister() throws Exception {
+        when(saturationMonitor.current()).thenReturn(saturation(SaturationLevel.ELEVATED));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/v1/register"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        assertEquals(1, meterRegistry.get("auth.admission.shed").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    @DisplayName("ELEVATED - login проходит")
+    void elevated_ShouldAdmitLogin() throws Exception {
+        when(saturationMonitor.current()).thenReturn(saturation(SaturationLevel.ELEVATED));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/v1/login"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("CRITICAL - validate и refresh проходят, login отбрасывается")
+    void critical_ShouldAdmitOnlyHighPriority() throws Exception {
+        when(saturationMonitor.current()).thenReturn(saturation(SaturationLevel.CRITICAL));
+
+        for (String path : new String[] {"/auth/v1/validate", "/auth/v1/refresh", "/actuator/health/readiness"}) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("POST", path), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest(), path);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/v1/login"), response, new MockFilterChain());
+        assertEquals(503, response.getStatus());
+    }
+
+    private static Saturation saturation(SaturationLevel level) {
+        return new Saturation(0, 10, 0, 0, 200, 0, 200, 0, 0, level);
+    }
+}
@@ -0,0 +1,80 @@
+package com.innowise.authenticationservice.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * Тесты для PriorityLanes.
+ */
+class PriorityLanesTest {
+
+    private final PriorityLanes lanes = new PriorityLanes(1, 1, 1, 1, 1_000);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        lanes.destroy();
+    }
+
+    @Test
+    @DisplayName("переполненная очередь throughput отклоняет задачу, очередь latency продолжает работать")
+    void throughput_ShouldReject_WhenQueueIsFull() throws Exception {
+        AsyncTaskExecutor throughput = lanes.throughput(() -> true).getExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        throughput.submit(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        throughput.submit(() -> true);
+        assertEquals(1, lanes.throughputQueued());
+
+        assertThrows(RejectedExecutionException.class, () -> throughput.submit(() -> true));
+        assertTrue(lanes.latency(() -> true).getExecutor().submit(() -> true).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("обработчик, дождавшийся потока после таймаута, не выполняется")
+    void throughput_ShouldSkipHandler_WhenDeadlinePassedInQueue() throws Exception {
+        PriorityLanes shortLanes = new PriorityLanes(1, 1, 1, 1, 50);
+        try {
+            AtomicBoolean handled = new AtomicBoolean();
+            WebAsyncTask<Boolean> task = shortLanes.throughput(() -> handled.getAndSet(true));
+            AsyncTaskExecutor throughput = task.getExecutor();
+            CountDownLatch started = new CountDownLatch(1);
+            throughput.submit(() -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> queued = throughput.submit(task.getCallable());
+
+            Thread.sleep(100);
+            release.countDown();
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AsyncRequestTimeoutException.class, error.getCause());
+            assertFalse(handled.get());
+        } finally {
+            shortLanes.destroy();
+        }
+    }
+}
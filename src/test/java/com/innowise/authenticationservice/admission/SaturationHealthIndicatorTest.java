@@ -0,0 +1,95 @@
+package com.innowise.authenticationservice.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.SimpleHttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.SimpleStatusAggregator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
+
+/**
+ * Тесты для SaturationHealthIndicator.
+ */
+class SaturationHealthIndicatorTest {
+
+    private static final Saturation CRITICAL =
+            new Saturation(10, 10, 4, 200, 200, 0, 0, 0, 1.2, SaturationLevel.CRITICAL);
+
+    private final SaturationMonitor saturationMonitor = mock(SaturationMonitor.class);
+    private final MutableClock clock = new MutableClock();
+    private final SaturationHealthIndicator indicator = new SaturationHealthIndicator(saturationMonitor, 60_000, clock);
+
+    @Test
+    @DisplayName("CRITICAL - 503 в группе readiness, корневой статус не меняется")
+    void health_ShouldAffectReadinessGroupOnly_WhenCritical() {
+        when(saturationMonitor.current()).thenReturn(CRITICAL);
+
+        Status status = indicator.health().getStatus();
+
+        assertEquals(SaturationHealthIndicator.SATURATED, status);
+        // Корень: порядок статусов по умолчанию
+        assertEquals(Status.UP, StatusAggregator.getDefault().getAggregateStatus(Set.of(Status.UP, status)));
+        // Группа readiness: application-kubernetes.properties
+        SimpleStatusAggregator readiness =
+                new SimpleStatusAggregator("down", "out-of-service", "saturated", "up", "unknown");
+        Status readinessStatus = readiness.getAggregateStatus(Set.of(Status.UP, status));
+        assertEquals(SaturationHealthIndicator.SATURATED, readinessStatus);
+        assertEquals(503, new SimpleHttpCodeStatusMapper(Map.of("saturated", 503)).getStatusCode(readinessStatus));
+    }
+
+    @Test
+    @DisplayName("вывод из балансировки ограничен readiness-max-out-ms на эпизод CRITICAL")
+    void health_ShouldReturnToRotation_AfterMaxOut() {
+        when(saturationMonitor.current()).thenReturn(CRITICAL);
+        assertEquals(SaturationHealthIndicator.SATURATED, indicator.health().getStatus());
+
+        clock.advance(Duration.ofSeconds(61));
+        Health capped = indicator.health();
+
+        assertEquals(Status.UP, capped.getStatus());
+        assertEquals(true, capped.getDetails().get("readinessCapped"));
+
+        // Новый эпизод после выхода из CRITICAL снова выводит под из балансировки
+        when(saturationMonitor.current()).thenReturn(Saturation.IDLE);
+        assertEquals(Status.UP, indicator.health().getStatus());
+        when(saturationMonitor.current()).thenReturn(CRITICAL);
+        assertEquals(SaturationHealthIndicator.SATURATED, indicator.health().getStatus());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.innowise.authenticationservice.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.security.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для SaturationMonitor и SaturationLevel.
+ */
+class SaturationMonitorTest {
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final PriorityLanes priorityLanes = mock(PriorityLanes.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(priorityLanes.throughputQueueCapacity()).thenReturn(200);
+    }
+
+    @Test
+    @DisplayName("без нагрузки уровень NORMAL")
+    void measure_ShouldBeNormal_WhenIdle() {
+        Saturation saturation = monitor().measure(SaturationLevel.NORMAL);
+
+        assertEquals(SaturationLevel.NORMAL, saturation.level());
+        assertEquals(0, saturation.pressure());
+    }
+
+    @Test
+    @DisplayName("заполненная очередь throughput (BCrypt) переводит узел в CRITICAL")
+    void measure_ShouldBeCritical_WhenBcryptQueueIsFull() {
+        when(priorityLanes.throughputQueued()).thenReturn(200);
+
+        Saturation saturation = monitor().measure(SaturationLevel.NORMAL);
+
+        assertEquals(SaturationLevel.CRITICAL, saturation.level());
+        assertEquals(200, saturation.bcryptQueued());
+    }
+
+    @Test
+    @DisplayName("p99 выше доли цели переводит узел в ELEVATED")
+    void measure_ShouldBeElevated_WhenP99ApproachesTarget() {
+        record(AuthMetrics.VALIDATE, 450);
+
+        Saturation saturation = monitor().measure(SaturationLevel.NORMAL);
+
+        assertEquals(SaturationLevel.ELEVATED, saturation.level());
+        assertTrue(saturation.p99Millis() >= 400);
+    }
+
+    @Test
+    @DisplayName("p99 login и register (BCrypt, user-service) не входит в давление")
+    void measure_ShouldIgnoreP99_OfThroughputOperations() {
+        record(AuthMetrics.REGISTER, 5_000);
+        record(AuthMetrics.LOGIN, 5_000);
+
+        Saturation saturation = monitor().measure(SaturationLevel.NORMAL);
+
+        assertEquals(SaturationLevel.NORMAL, saturation.level());
+        assertEquals(0, saturation.p99Millis());
+    }
+
+    @Test
+    @DisplayName("замеры выполняет собственный поток, без общего планировщика")
+    void start_ShouldSampleOnOwnThread() throws Exception {
+        when(priorityLanes.throughputQueued()).thenReturn(200);
+        SaturationMonitor monitor = monitor();
+
+        monitor.start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (monitor.current().level() != SaturationLevel.CRITICAL && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(SaturationLevel.CRITICAL, monitor.current().level());
+        } finally {
+            monitor.stop();
+        }
+        assertFalse(monitor.isRunning());
+    }
+
+    @Test
+    @DisplayName("из CRITICAL узел выходит только ниже порога отбрасывания")
+    void level_ShouldKeepCritical_UntilBelowShedThreshold() {
+        assertEquals(SaturationLevel.CRITICAL, SaturationLevel.of(0.9, SaturationLevel.CRITICAL, 0.8, 1.0));
+        assertEquals(SaturationLevel.ELEVATED, SaturationLevel.of(0.9, SaturationLevel.NORMAL, 0.8, 1.0));
+        assertEquals(SaturationLevel.NORMAL, SaturationLevel.of(0.5, SaturationLevel.CRITICAL, 0.8, 1.0));
+    }
+
+    @Test
+    @DisplayName("запросы HIGH не отбрасываются ни на каком уровне")
+    void sheds_ShouldNeverShedHighPriority() {
+        for (SaturationLevel level : SaturationLevel.values()) {
+            assertFalse(level.sheds(RequestPriority.HIGH));
+        }
+        assertTrue(SaturationLevel.ELEVATED.sheds(RequestPriority.LOW));
+        assertFalse(SaturationLevel.ELEVATED.sheds(RequestPriority.NORMAL));
+        assertTrue(SaturationLevel.CRITICAL.sheds(RequestPriority.NORMAL));
+    }
+
+    private SaturationMonitor monitor() {
+        return new SaturationMonitor(mock(DataSource.class), passwordEncoder, priorityLanes, meterRegistry,
+                0.8, 1.0, 500, 10);
+    }
+
+    private void record(String operation, long millis) {
+        Timer timer = Timer.builder(AuthMetrics.OPERATION_TIMER).tag("operation", operation)
+                .publishPercentiles(0.99).register(meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            timer.record(Duration.ofMillis(millis));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.innowise.authenticationservice.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для AuditTrail и формата строк AuditEventWriter.
+ */
+class AuditTrailTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final AuditEventWriter writer = mock(AuditEventWriter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("события записываются пачкой потоком-писателем, при остановке буфер дописывается")
+    void start_ShouldWriteBufferedEventsInBatches() throws Exception {
+        List<AuditEvent> written = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0))).when(writer).write(anyList());
+        AuditTrail trail = trail(AuditOverflowPolicy.DROP, 1024);
+
+        trail.start();
+        trail.success(AuthMetrics.LOGIN, "user@example.com");
+        trail.failure(AuthMetrics.LOGIN, "user@example.com", "bad_password");
+        trail.stop();
+
+        assertEquals(List.of(
+                new AuditEvent(NOW, AuthMetrics.LOGIN, "user@example.com", true, null),
+                new AuditEvent(NOW, AuthMetrics.LOGIN, "user@example.com", false, "bad_password")), written);
+        assertEquals(2.0, meterRegistry.get("auth.audit.written").counter().count());
+    }
+
+    @Test
+    @DisplayName("DROP - при заполненном буфере событие отбрасывается и учитывается в метрике")
+    void record_ShouldDropAndCount_WhenBufferIsFull() {
+        AuditTrail trail = trail(AuditOverflowPolicy.DROP, 2);
+
+        for (int i = 0; i < 5; i++) {
+            trail.success(AuthMetrics.LOGIN, "user" + i);
+        }
+
+        assertEquals(2, trail.buffered());
+        assertEquals(3.0, meterRegistry.get("auth.audit.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("BLOCK - запрос ждет не дольше offer-timeout, затем событие отбрасывается")
+    void record_ShouldWaitForTimeout_WhenBlockPolicyAndBufferIsFull() {
+        AuditTrail trail = trail(AuditOverflowPolicy.BLOCK, 2);
+        trail.success(AuthMetrics.LOGIN, "a");
+        trail.success(AuthMetrics.LOGIN, "b");
+
+        long started = System.nanoTime();
+        trail.success(AuthMetrics.LOGIN, "c");
+
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(1.0, meterRegistry.get("auth.audit.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("успех внутри транзакции записывается только после фиксации")
+    void success_ShouldRecordAfterCommit_WhenTransactionIsActive() {
+        AuditTrail trail = trail(AuditOverflowPolicy.DROP, 8);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            trail.success(AuthMetrics.REGISTER, "user@example.com");
+            assertEquals(0, trail.buffered());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, trail.buffered());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("журнал останавливается после graceful shutdown веб-сервера")
+    void stop_ShouldRunAfterWebServerGracefulShutdown() {
+        List<String> stopped = new CopyOnWriteArrayList<>();
+        AuditTrail trail = new AuditTrail(writer, meterRegistry, true, 8, AuditOverflowPolicy.DROP, 20, 100, 10, 10,
+                Clock.fixed(NOW, ZoneOffset.UTC)) {
+            @Override
+            public void stop() {
+                stopped.add("audit");
+                super.stop();
+            }
+        };
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            context.registerBean("auditTrail", AuditTrail.class, () -> trail);
+            context.registerBean("gracefulShutdown", SmartLifecycle.class, () -> new WebServerStub(stopped));
+            context.refresh();
+        }
+
+        assertEquals(List.of("web-server", "audit"), stopped);
+    }
+
+    @Test
+    @DisplayName("ошибка записи оставляет пачку для повтора")
+    void flush_ShouldKeepBatch_WhenWriteFails() throws Exception {
+        doThrow(new SQLException("connection refused")).when(writer).write(anyList());
+        AuditTrail trail = trail(AuditOverflowPolicy.DROP, 8);
+        List<AuditEvent> batch = new ArrayList<>(List.of(new AuditEvent(NOW, AuthMetrics.LOGOUT, "a", true, null)));
+
+        assertEquals(false, trail.flush(batch));
+
+        assertEquals(1, batch.size());
+        assertEquals(1.0, meterRegistry.get("auth.audit.write.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("строка COPY - спецсимволы логина экранируются, отсутствующие значения - \\N")
+    void writeRow_ShouldEscapeCopyTextFormat() throws Exception {
+        StringWriter out = new StringWriter();
+
+        AuditEventWriter.writeRow(out, new AuditEvent(NOW, AuthMetrics.REFRESH, "a\tb\\c\nd", false, null));
+
+        assertEquals("2025-01-01 12:00:00.000000\trefresh\ta\\tb\\\\c\\nd\tf\t\\N\n", out.toString());
+    }
+
+    private AuditTrail trail(AuditOverflowPolicy policy, int capacity) {
+        return new AuditTrail(writer, meterRegistry, true, capacity, policy, 20, 100, 10, 10,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    // Стоит на месте WebServerGracefulShutdownLifecycle: та же фаза, фиксирует момент остановки.
+    private static final class WebServerStub implements SmartLifecycle {
+
+        private final List<String> stopped;
+        private volatile boolean running;
+
+        WebServerStub(List<String> stopped) {
+            this.stopped = stopped;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            stopped.add("web-server");
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.innowise.authenticationservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * Тесты для FingerprintedSpringLiquibase: отпечаток changelog-ов и пропуск Liquibase при совпадении.
+ */
+class FingerprintedSpringLiquibaseTest {
+
+    private static final String CHANGE_LOG = "classpath:db/changelog/master-changelog.xml";
+
+    @TempDir
+    Path classpathRoot;
+
+    @Test
+    @DisplayName("отпечаток меняется при изменении любого файла каталога changelog-ов")
+    void fingerprint_ShouldChange_WhenChangelogChanges() throws Exception {
+        Path changelogs = Files.createDirectories(classpathRoot.resolve("db/changelog"));
+        Files.writeString(changelogs.resolve("master-changelog.xml"), "<databaseChangeLog/>");
+        Files.writeString(changelogs.resolve("001-init.xml"), "<changeSet id=\"1\"/>");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classpathRoot.toUri().toURL()}, null)) {
+            PathMatchingResourcePatternResolver resolver =
+                    new PathMatchingResourcePatternResolver(new DefaultResourceLoader(classLoader));
+            String first = FingerprintedSpringLiquibase.fingerprint(resolver, CHANGE_LOG);
+            assertEquals(first, FingerprintedSpringLiquibase.fingerprint(resolver, CHANGE_LOG));
+
+            Files.writeString(changelogs.resolve("001-init.xml"), "<changeSet id=\"1\" runOnChange=\"true\"/>");
+
+            assertNotEquals(first, FingerprintedSpringLiquibase.fingerprint(resolver, CHANGE_LOG));
+        }
+    }
+
+    @Test
+    @DisplayName("validate: отпечаток совпадает - Liquibase не запускается")
+    void validate_ShouldSkip_WhenFingerprintMatches() throws Exception {
+        FingerprintedSpringLiquibase liquibase =
+                new FingerprintedSpringLiquibase(FingerprintedSpringLiquibase.Mode.VALIDATE, "abc");
+        liquibase.setDataSource(dataSourceReturning("abc"));
+
+        assertDoesNotThrow(liquibase::afterPropertiesSet);
+    }
+
+    @Test
+    @DisplayName("validate: отпечаток не совпадает и есть непримененные changeset-ы - старт прерывается")
+    void validate_ShouldFail_WhenChangeSetsArePending() throws Exception {
+        FingerprintedSpringLiquibase liquibase = validating(List.of("009-new-table::vlad"));
+        liquibase.setDataSource(dataSourceReturning("old"));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, liquibase::afterPropertiesSet);
+        assertTrue(error.getMessage().contains("009-new-table::vlad"));
+    }
+
+    @Test
+    @DisplayName("validate: отпечаток не совпадает, но все changeset-ы сборки применены (БД новее) - старт продолжается")
+    void validate_ShouldStart_WhenDatabaseIsAheadOfBuild() throws Exception {
+        FingerprintedSpringLiquibase liquibase = validating(List.of());
+        liquibase.setDataSource(dataSourceReturning("newer"));
+
+        assertDoesNotThrow(liquibase::afterPropertiesSet);
+    }
+
+    // validate со сверкой changeset-ов без разбора changelog-а
+    private static FingerprintedSpringLiquibase validating(List<String> pending) {
+        return new FingerprintedSpringLiquibase(FingerprintedSpringLiquibase.Mode.VALIDATE, "abc") {
+            @Override
+            List<String> pendingChangeSets() {
+                return pending;
+            }
+        };
+    }
+
+    private static DataSource dataSourceReturning(String fingerprint) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(fingerprint);
+        return dataSource;
+    }
+}
@@ -0,0 +1,42 @@
+package com.innowise.authenticationservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+/**
+ * Тесты для InternalApiKeyAuthorizationManager.
+ */
+class InternalApiKeyAuthorizationManagerTest {
+
+    @Test
+    @DisplayName("запрос с верным ключом разрешен, без ключа или с другим ключом - нет")
+    void check_ShouldGrantOnlyMatchingKey() {
+        InternalApiKeyAuthorizationManager manager = new InternalApiKeyAuthorizationManager("secret-key");
+
+        assertTrue(manager.check(() -> null, context("secret-key")).isGranted());
+        assertFalse(manager.check(() -> null, context("other-key")).isGranted());
+        assertFalse(manager.check(() -> null, context(null)).isGranted());
+    }
+
+    @Test
+    @DisplayName("без настроенного ключа запросы не разрешаются")
+    void check_ShouldDeny_WhenKeyIsNotConfigured() {
+        InternalApiKeyAuthorizationManager manager = new InternalApiKeyAuthorizationManager("");
+
+        assertFalse(manager.check(() -> null, context("")).isGranted());
+        assertFalse(manager.check(() -> null, context(null)).isGranted());
+    }
+
+    private static RequestAuthorizationContext context(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        if (apiKey != null) {
+            request.addHeader(InternalApiKeyAuthorizationManager.API_KEY_HEADER, apiKey);
+        }
+        return new RequestAuthorizationContext(request);
+    }
+}
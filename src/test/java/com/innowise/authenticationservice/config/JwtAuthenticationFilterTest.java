@@ -0,0 +1,99 @@
+package com.innowise.authenticationservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.innowise.authenticationservice.security.JwtTokenProvider;
+import com.innowise.authenticationservice.security.TokenPrincipal;
+
+/**
+ * Тесты для JwtAuthenticationFilter.
+ * Проверяет, что токен не разбирается на публичных эндпоинтах и разбирается лениво и один раз на остальных.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, SecurityConfig.publicEndpoints());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("публичный эндпоинт - токен не разбирается")
+    void publicEndpoint_ShouldNotParseToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/v1/login");
+        request.addHeader("Authorization", "Bearer stale-token");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.getContext().getAuthentication();
+
+        verify(jwtTokenProvider, never()).parseToken(anyString());
+    }
+
+    @Test
+    @DisplayName("защищенный эндпоинт - токен разбирается только при обращении к контексту и один раз")
+    void protectedEndpoint_ShouldParseTokenLazilyOnce() throws Exception {
+        TokenPrincipal principal = new TokenPrincipal("testuser", "ROLE_USER",
+                new Date(System.currentTimeMillis() + 60_000), "token-id");
+        when(jwtTokenProvider.parseToken("valid-token")).thenReturn(Optional.of(principal));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/v1/validate");
+        request.addHeader("Authorization", "Bearer valid-token");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        verify(jwtTokenProvider, never()).parseToken(anyString());
+
+        Authentication first = SecurityContextHolder.getContext().getAuthentication();
+        Authentication second = SecurityContextHolder.getContext().getAuthentication();
+
+        assertEquals("testuser", first.getName());
+        assertTrue(first.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        assertEquals(first, second);
+        verify(jwtTokenProvider, times(1)).parseToken("valid-token");
+        assertEquals(Optional.of(principal), JwtAuthenticationFilter.getVerifiedPrincipal(request, "valid-token"));
+        assertEquals(Optional.empty(), JwtAuthenticationFilter.getVerifiedPrincipal(request, "other-token"));
+    }
+
+    @Test
+    @DisplayName("невалидный токен - контекст остается неаутентифицированным")
+    void invalidToken_ShouldLeaveContextUnauthenticated() throws Exception {
+        when(jwtTokenProvider.parseToken("invalid-token")).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/v1/validate");
+        request.addHeader("Authorization", "Bearer invalid-token");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
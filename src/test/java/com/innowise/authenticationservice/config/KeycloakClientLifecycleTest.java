@@ -0,0 +1,45 @@
+package com.innowise.authenticationservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
+
+/**
+ * Тесты для KeycloakClientLifecycle: клиент закрывается при stop (checkpoint) и пересоздается при start (restore).
+ */
+class KeycloakClientLifecycleTest {
+
+    @Test
+    @DisplayName("после stop/start прокси работает с новым открытым клиентом")
+    void restart_ShouldReopenClient() {
+        AtomicInteger created = new AtomicInteger();
+        KeycloakClientLifecycle lifecycle = new KeycloakClientLifecycle(() -> {
+            created.incrementAndGet();
+            return KeycloakBuilder.builder()
+                    .serverUrl("http://localhost:1")
+                    .realm("test-realm")
+                    .clientId("test-client")
+                    .clientSecret("secret")
+                    .grantType("client_credentials")
+                    .build();
+        });
+        Keycloak client = lifecycle.getClient();
+        lifecycle.start();
+
+        lifecycle.stop();
+        assertTrue(client.isClosed());
+        assertFalse(lifecycle.isRunning());
+
+        lifecycle.start();
+        assertFalse(client.isClosed());
+        assertEquals(2, created.get());
+        client.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.innowise.authenticationservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.innowise.authenticationservice.model.UserVersion;
+
+/**
+ * Тесты для NativeRuntimeHints и KeycloakRuntimeHints.
+ */
+class NativeRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        new KeycloakRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("реализации JJWT доступны для создания через рефлексию")
+    void shouldRegisterJjwtImplementations() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.jackson.io.JacksonSerializer")).test(hints));
+    }
+
+    @Test
+    @DisplayName("changelog-и Liquibase, ehcache.xml и конструктор UserVersion включены в образ")
+    void shouldRegisterResourcesAndProjection() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/changelog/master-changelog.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/changelog/005-add-user-token-version.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserVersion.class).test(hints));
+    }
+
+    @Test
+    @DisplayName("ресурсные интерфейсы Keycloak доступны как JDK-прокси RESTEasy")
+    void shouldRegisterKeycloakProxies() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(
+                TypeReference.of("org.keycloak.admin.client.resource.UsersResource"),
+                TypeReference.of("org.jboss.resteasy.client.jaxrs.internal.proxy.ResteasyClientProxy")).test(hints));
+    }
+}
@@ -1,30 +1,50 @@
 package com.innowise.authenticationservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.authenticationservice.admission.PriorityLanes;
 import com.innowise.authenticationservice.dto.LoginRequest;
+import com.innowise.authenticationservice.dto.LogoutRequest;
 import com.innowise.authenticationservice.dto.RefreshTokenRequest;
 import com.innowise.authenticationservice.dto.RegisterRequest;
 import com.innowise.authenticationservice.dto.TokenResponse;
 import com.innowise.authenticationservice.dto.TokenValidationRequest;
 import com.innowise.authenticationservice.dto.TokenValidationResponse;
 import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.security.TokenPrincipal;
 import com.innowise.authenticationservice.service.AuthService;
+import com.innowise.authenticationservice.service.IdempotencyStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -35,6 +55,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class
 })
 @AutoConfigureMockMvc(addFilters = false)
+@Import({PriorityLanes.class, IdempotencyStore.class})
 class AuthControllerTest {
 
     @Autowired
@@ -74,7 +95,7 @@ class AuthControllerTest {
         when(authService.login(any(LoginRequest.class))).thenReturn(tokenResponse);
 
         // when & then
-        mockMvc.perform(post("/auth/v1/login")
+        perform(post("/auth/v1/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
@@ -96,7 +117,7 @@ class AuthControllerTest {
                 .thenThrow(new AuthenticationException("Invalid login or password"));
 
         // when & then
-        mockMvc.perform(post("/auth/v1/login")
+        perform(post("/auth/v1/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized());
@@ -111,7 +132,7 @@ class AuthControllerTest {
         loginRequest.setPassword("password123");
 
         // when & then
-        mockMvc.perform(post("/auth/v1/login")
+        perform(post("/auth/v1/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isBadRequest());
@@ -126,7 +147,7 @@ class AuthControllerTest {
         loginRequest.setPassword(""); // пустой password
 
         // when & then
-        mockMvc.perform(post("/auth/v1/login")
+        perform(post("/auth/v1/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isBadRequest());
@@ -144,7 +165,7 @@ class AuthControllerTest {
         when(authService.register(any(RegisterRequest.class))).thenReturn(tokenResponse);
 
         // when & then
-        mockMvc.perform(post("/auth/v1/register")
+        perform(post("/auth/v1/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isCreated())
@@ -167,7 +188,7 @@ class AuthControllerTest {
                 .when(authService).register(any(RegisterRequest.class));
 
         // when & then
-        mockMvc.perform(post("/auth/v1/register")
+        perform(post("/auth/v1/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isUnauthorized());
@@ -186,12 +207,92 @@ class AuthControllerTest {
                 .when(authService).register(any(RegisterRequest.class));
 
         // when & then
-        mockMvc.perform(post("/auth/v1/register")
+        perform(post("/auth/v1/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("POST /auth/v1/register - повтор с тем же Idempotency-Key получает первоначальный статус и новые токены")
+    void register_ShouldReissueTokens_WhenIdempotencyKeyIsRepeated() throws Exception {
+        // given
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setLogin("retryuser");
+        registerRequest.setPassword("password123");
+
+        when(authService.register(any(RegisterRequest.class))).thenReturn(tokenResponse);
+        when(authService.reissueTokens("retryuser"))
+                .thenReturn(new TokenResponse("reissued-access-token", "reissued-refresh-token", 900L));
+        String body = objectMapper.writeValueAsString(registerRequest);
+
+        // when & then
+        perform(post("/auth/v1/register")
+                        .header("Idempotency-Key", "register-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        perform(post("/auth/v1/register")
+                        .header("Idempotency-Key", "register-retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.accessToken").value("reissued-access-token"))
+                .andExpect(jsonPath("$.refreshToken").value("reissued-refresh-token"));
+
+        verify(authService, times(1)).register(any(RegisterRequest.class));
+        verify(authService).reissueTokens("retryuser");
+    }
+
+    @Test
+    @DisplayName("POST /auth/v1/register - Idempotency-Key с другим запросом отклоняется")
+    void register_ShouldReturnUnprocessableEntity_WhenIdempotencyKeyIsReusedWithOtherRequest() throws Exception {
+        // given
+        RegisterRequest first = new RegisterRequest();
+        first.setLogin("firstuser");
+        first.setPassword("password123");
+        RegisterRequest second = new RegisterRequest();
+        second.setLogin("seconduser");
+        second.setPassword("password123");
+
+        when(authService.register(any(RegisterRequest.class))).thenReturn(tokenResponse);
+
+        // when & then
+        perform(post("/auth/v1/register")
+                        .header("Idempotency-Key", "register-reused-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isCreated());
+        perform(post("/auth/v1/register")
+                        .header("Idempotency-Key", "register-reused-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(authService, times(1)).register(any(RegisterRequest.class));
+    }
+
+    @Test
+    @DisplayName("POST /auth/v1/register - слишком длинный Idempotency-Key отклоняется с 400")
+    void register_ShouldReturnBadRequest_WhenIdempotencyKeyIsTooLong() throws Exception {
+        // given
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setLogin("newuser");
+        registerRequest.setPassword("password123");
+
+        // when & then
+        perform(post("/auth/v1/register")
+                        .header("Idempotency-Key", "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(authService, never()).register(any(RegisterRequest.class));
+    }
+
     @Test
     @DisplayName("POST /auth/v1/register - валидация: пустой login")
     void register_ShouldReturnBadRequest_WhenLoginIsBlank() throws Exception {
@@ -202,7 +303,7 @@ class AuthControllerTest {
         registerRequest.setRole("USER");
 
         // when & then
-        mockMvc.perform(post("/auth/v1/register")
+        perform(post("/auth/v1/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isBadRequest());
@@ -218,7 +319,7 @@ class AuthControllerTest {
         registerRequest.setRole("USER");
 
         // when & then
-        mockMvc.perform(post("/auth/v1/register")
+        perform(post("/auth/v1/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isBadRequest());
@@ -234,7 +335,7 @@ class AuthControllerTest {
         when(authService.refreshToken(anyString())).thenReturn(tokenResponse);
 
         // when & then
-        mockMvc.perform(post("/auth/v1/refresh")
+        perform(post("/auth/v1/refresh")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(refreshRequest)))
                 .andExpect(status().isOk())
@@ -253,7 +354,7 @@ class AuthControllerTest {
                 .thenThrow(new AuthenticationException("Invalid refresh token"));
 
         // when & then
-        mockMvc.perform(post("/auth/v1/refresh")
+        perform(post("/auth/v1/refresh")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(refreshRequest)))
                 .andExpect(status().isUnauthorized());
@@ -267,7 +368,7 @@ class AuthControllerTest {
         refreshRequest.setRefreshToken(""); // пустой refresh token
 
         // when & then
-        mockMvc.perform(post("/auth/v1/refresh")
+        perform(post("/auth/v1/refresh")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(refreshRequest)))
                 .andExpect(status().isBadRequest());
@@ -284,7 +385,7 @@ class AuthControllerTest {
         when(authService.login(any(LoginRequest.class))).thenReturn(tokenResponse);
 
         // when & then
-        mockMvc.perform(post("/auth/v1/create-token")
+        perform(post("/auth/v1/create-token")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
@@ -302,7 +403,7 @@ class AuthControllerTest {
         when(authService.validateToken(anyString())).thenReturn(validationResponse);
 
         // when & then
-        mockMvc.perform(post("/auth/v1/validate")
+        perform(post("/auth/v1/validate")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validationRequest)))
                 .andExpect(status().isOk())
@@ -326,7 +427,7 @@ class AuthControllerTest {
         when(authService.validateToken(anyString())).thenReturn(invalidResponse);
 
         // when & then
-        mockMvc.perform(post("/auth/v1/validate")
+        perform(post("/auth/v1/validate")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validationRequest)))
                 .andExpect(status().isOk())
@@ -343,10 +444,114 @@ class AuthControllerTest {
         validationRequest.setToken(""); // пустой token
 
         // when & then
-        mockMvc.perform(post("/auth/v1/validate")
+        perform(post("/auth/v1/validate")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validationRequest)))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    @DisplayName("GET /auth/v1/forward-auth - валидный токен")
+    void forwardAuth_ShouldReturnUserHeaders_WhenTokenIsValid() throws Exception {
+        // given
+        // Токен истекает через 10 секунд - кэшировать ответ дольше нельзя
+        TokenPrincipal principal = new TokenPrincipal("testuser", "ROLE_USER",
+                new Date(System.currentTimeMillis() + 10_500), "token-id");
+        when(authService.verifyToken("valid-token")).thenReturn(Optional.of(principal));
+
+        // when & then
+        perform(get("/auth/v1/forward-auth")
+                        .header("Authorization", "Bearer valid-token"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-User", "testuser"))
+                .andExpect(header().string("X-Role", "ROLE_USER"))
+                .andExpect(header().string("Cache-Control", "max-age=10, private"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /auth/v1/forward-auth - невалидный токен")
+    void forwardAuth_ShouldReturnUnauthorized_WhenTokenIsInvalid() throws Exception {
+        // given
+        when(authService.verifyToken("invalid-token")).thenReturn(Optional.empty());
+
+        // when & then
+        perform(get("/auth/v1/forward-auth")
+                        .header("Authorization", "Bearer invalid-token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist("X-User"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    @DisplayName("GET /auth/v1/forward-auth - без заголовка Authorization")
+    void forwardAuth_ShouldReturnUnauthorized_WhenHeaderIsMissing() throws Exception {
+        // when & then
+        perform(get("/auth/v1/forward-auth"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("POST /auth/v1/logout - успешный выход")
+    void logout_ShouldReturnNoContent() throws Exception {
+        // given
+        LogoutRequest logoutRequest = new LogoutRequest("test-access-token", "test-refresh-token");
+
+        // when & then
+        perform(post("/auth/v1/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(logoutRequest)))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(logoutRequest);
+    }
+
+    @Test
+    @DisplayName("POST /auth/v1/logout - ошибка валидации (пустой refresh токен)")
+    void logout_ShouldReturnBadRequest_WhenRefreshTokenIsBlank() throws Exception {
+        // given
+        LogoutRequest logoutRequest = new LogoutRequest("test-access-token", "");
+
+        // when & then
+        perform(post("/auth/v1/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(logoutRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(authService, never()).logout(any());
+    }
+
+    @Test
+    @DisplayName("POST /auth/v1/login - обработчик выполняется асинхронно в очереди throughput")
+    void login_ShouldRunOnThroughputLane() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setLogin("testuser");
+        loginRequest.setPassword("password123");
+        String[] thread = new String[1];
+        when(authService.login(any(LoginRequest.class))).thenAnswer(invocation -> {
+            thread[0] = Thread.currentThread().getName();
+            return tokenResponse;
+        });
+
+        MvcResult result = mockMvc.perform(post("/auth/v1/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        assertTrue(thread[0].startsWith("auth-throughput-"));
+    }
+
+    // Обработчики из PriorityLanes отвечают асинхронно: дожидаемся результата и выполняем async dispatch.
+    private ResultActions perform(RequestBuilder requestBuilder) throws Exception {
+        ResultActions actions = mockMvc.perform(requestBuilder);
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
+    }
+}
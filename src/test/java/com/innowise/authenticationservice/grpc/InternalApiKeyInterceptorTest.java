@@ -0,0 +1,103 @@
+package com.innowise.authenticationservice.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.innowise.authenticationservice.dto.TokenValidationResponse;
+import com.innowise.authenticationservice.grpc.v1.TokenValidationServiceGrpc;
+import com.innowise.authenticationservice.grpc.v1.ValidateTokenRequest;
+import com.innowise.authenticationservice.service.AuthService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+
+/**
+ * Тесты для InternalApiKeyInterceptor.
+ */
+@ExtendWith(MockitoExtension.class)
+class InternalApiKeyInterceptorTest {
+
+    @Mock
+    private AuthService authService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("вызов с верным ключом проходит к сервису")
+    void validate_ShouldPass_WhenApiKeyMatches() throws Exception {
+        start("internal-key");
+        when(authService.validateToken("valid-token"))
+                .thenReturn(new TokenValidationResponse(true, "testuser", "ROLE_USER"));
+
+        assertTrue(stub("internal-key")
+                .validate(ValidateTokenRequest.newBuilder().setToken("valid-token").build())
+                .getValid());
+    }
+
+    @Test
+    @DisplayName("вызов без ключа, с неверным ключом или при ненастроенном ключе отклоняется")
+    void validate_ShouldReject_WhenApiKeyIsMissingOrWrong() throws Exception {
+        start("internal-key");
+        assertUnauthenticated(stub(null));
+        assertUnauthenticated(stub("wrong-key"));
+        tearDown();
+
+        start("");
+        assertUnauthenticated(stub(""));
+        verify(authService, never()).validateToken(anyString());
+    }
+
+    private void start(String internalApiKey) throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(new TokenValidationGrpcService(authService),
+                        new InternalApiKeyInterceptor(internalApiKey)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    private TokenValidationServiceGrpc.TokenValidationServiceBlockingStub stub(String apiKey) {
+        TokenValidationServiceGrpc.TokenValidationServiceBlockingStub stub =
+                TokenValidationServiceGrpc.newBlockingStub(channel);
+        if (apiKey == null) {
+            return stub;
+        }
+        Metadata metadata = new Metadata();
+        metadata.put(InternalApiKeyInterceptor.API_KEY, apiKey);
+        return stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(metadata));
+    }
+
+    private static void assertUnauthenticated(TokenValidationServiceGrpc.TokenValidationServiceBlockingStub stub) {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.validate(ValidateTokenRequest.newBuilder().setToken("valid-token").build()));
+        assertEquals(Status.Code.UNAUTHENTICATED, e.getStatus().getCode());
+    }
+}
@@ -0,0 +1,131 @@
+package com.innowise.authenticationservice.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.innowise.authenticationservice.dto.TokenValidationResponse;
+import com.innowise.authenticationservice.grpc.v1.TokenValidationServiceGrpc;
+import com.innowise.authenticationservice.grpc.v1.ValidateTokenRequest;
+import com.innowise.authenticationservice.grpc.v1.ValidateTokenResponse;
+import com.innowise.authenticationservice.service.AuthService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Тесты для TokenValidationGrpcService.
+ * Используется in-process транспорт gRPC, поэтому сетевой порт не открывается.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenValidationGrpcServiceTest {
+
+    @Mock
+    private AuthService authService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new TokenValidationGrpcService(authService))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Validate - валидный токен")
+    void validate_ShouldReturnUser_WhenTokenIsValid() {
+        when(authService.validateToken("valid-token"))
+                .thenReturn(new TokenValidationResponse(true, "testuser", "ROLE_USER"));
+
+        ValidateTokenResponse response = TokenValidationServiceGrpc.newBlockingStub(channel)
+                .validate(ValidateTokenRequest.newBuilder().setToken("valid-token").setRequestId(7).build());
+
+        assertTrue(response.getValid());
+        assertEquals("testuser", response.getUsername());
+        assertEquals("ROLE_USER", response.getRole());
+        assertEquals(7, response.getRequestId());
+    }
+
+    @Test
+    @DisplayName("Validate - пустой токен не передается в AuthService")
+    void validate_ShouldReturnInvalid_WhenTokenIsEmpty() {
+        ValidateTokenResponse response = TokenValidationServiceGrpc.newBlockingStub(channel)
+                .validate(ValidateTokenRequest.newBuilder().build());
+
+        assertFalse(response.getValid());
+        assertEquals("", response.getUsername());
+        verify(authService, never()).validateToken(anyString());
+    }
+
+    @Test
+    @DisplayName("ValidateStream - ответ на каждый токен с тем же request_id")
+    void validateStream_ShouldAnswerEachRequest() throws Exception {
+        when(authService.validateToken("valid-token"))
+                .thenReturn(new TokenValidationResponse(true, "testuser", "ROLE_USER"));
+        when(authService.validateToken("invalid-token"))
+                .thenReturn(new TokenValidationResponse(false, null, null));
+
+        List<ValidateTokenResponse> responses = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        StreamObserver<ValidateTokenRequest> requests = TokenValidationServiceGrpc.newStub(channel)
+                .validateStream(new StreamObserver<>() {
+                    @Override
+                    public void onNext(ValidateTokenResponse value) {
+                        responses.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        completed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+
+        requests.onNext(ValidateTokenRequest.newBuilder().setToken("valid-token").setRequestId(1).build());
+        requests.onNext(ValidateTokenRequest.newBuilder().setToken("invalid-token").setRequestId(2).build());
+        requests.onCompleted();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, responses.size());
+        assertTrue(responses.get(0).getValid());
+        assertEquals(1, responses.get(0).getRequestId());
+        assertFalse(responses.get(1).getValid());
+        assertEquals(2, responses.get(1).getRequestId());
+    }
+}
@@ -16,6 +16,7 @@ import com.innowise.authenticationservice.dto.TokenValidationResponse;
 import com.innowise.authenticationservice.exception.AuthenticationException;
 import com.innowise.authenticationservice.model.Role;
 import com.innowise.authenticationservice.model.User;
+import com.innowise.authenticationservice.repository.RefreshTokenRepository;
 import com.innowise.authenticationservice.repository.UserRepository;
 import com.innowise.authenticationservice.service.AuthService;
 import com.innowise.authenticationservice.security.JwtTokenProvider;
@@ -37,6 +38,9 @@ class AuthServiceIT extends BaseIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
@@ -129,9 +133,8 @@ class AuthServiceIT extends BaseIntegrationTest {
         assertNotNull(response.getRefreshToken());
         assertTrue(response.getExpiresIn() > 0);
         
-        // Проверяем, что токены валидны
+        // Проверяем, что access токен валиден (refresh токен непрозрачный, не JWT)
         assertTrue(jwtTokenProvider.validateToken(response.getAccessToken()));
-        assertTrue(jwtTokenProvider.validateToken(response.getRefreshToken()));
         
         // Проверяем содержимое токенов
         assertEquals("testuser@example.com", jwtTokenProvider.getUsernameFromToken(response.getAccessToken()));
@@ -188,9 +191,9 @@ class AuthServiceIT extends BaseIntegrationTest {
         assertNotNull(newTokens.getAccessToken());
         assertNotNull(newTokens.getRefreshToken());
         
-        // Проверяем, что новые токены валидны
+        // Проверяем, что новый access токен валиден, а refresh токен заменен следующим
         assertTrue(jwtTokenProvider.validateToken(newTokens.getAccessToken()));
-        assertTrue(jwtTokenProvider.validateToken(newTokens.getRefreshToken()));
+        assertNotEquals(initialTokens.getRefreshToken(), newTokens.getRefreshToken());
         
         // Проверяем содержимое новых токенов
         assertEquals("testuser@example.com", jwtTokenProvider.getUsernameFromToken(newTokens.getAccessToken()));
@@ -199,6 +202,24 @@ class AuthServiceIT extends BaseIntegrationTest {
 
     @Test
     @Order(8)
+    @DisplayName("login, затем refreshToken - refresh токен, выданный при входе, сохранен в БД")
+    void refreshToken_ShouldAcceptTokenIssuedByLogin() {
+        // given
+        authService.register(registerRequest);
+        long tokensBefore = refreshTokenRepository.count();
+
+        // when
+        // Вход выдает refresh токен; его INSERT должен быть выполнен при фиксации транзакции login
+        TokenResponse loginTokens = authService.login(loginRequest);
+
+        // then
+        assertEquals(tokensBefore + 1, refreshTokenRepository.count());
+        TokenResponse refreshed = authService.refreshToken(loginTokens.getRefreshToken());
+        assertEquals("testuser@example.com", jwtTokenProvider.getUsernameFromToken(refreshed.getAccessToken()));
+    }
+
+    @Test
+    @Order(9)
     @DisplayName("refreshToken - ошибка при невалидном refresh токене")
     void refreshToken_ShouldThrowException_WhenRefreshTokenIsInvalid() {
         // given
@@ -213,7 +234,7 @@ class AuthServiceIT extends BaseIntegrationTest {
     }
 
     @Test
-    @Order(9)
+    @Order(10)
     @DisplayName("validateToken - успешная валидация валидного токена")
     void validateToken_ShouldReturnTrue_WhenTokenIsValid() {
         // given
@@ -234,7 +255,7 @@ class AuthServiceIT extends BaseIntegrationTest {
     }
 
     @Test
-    @Order(10)
+    @Order(11)
     @DisplayName("validateToken - возвращает false для невалидного токена")
     void validateToken_ShouldReturnFalse_WhenTokenIsInvalid() {
         // given
@@ -71,6 +71,9 @@ public abstract class BaseIntegrationTest {
             registry.add("spring.datasource.hikari.minimum-idle", () -> "0");
             registry.add("spring.datasource.hikari.maximum-pool-size", () -> "5");
 
+            // Прогрев JIT при старте в тестах не нужен
+            registry.add("auth.warmup.enabled", () -> "false");
+
             // Снижаем уровень логов Hikari в тестах
             registry.add("logging.level.com.zaxxer.hikari", () -> "ERROR");
         } else {
@@ -95,6 +98,8 @@ public abstract class BaseIntegrationTest {
             registry.add("spring.datasource.hikari.idle-timeout", () -> "10000");
             registry.add("spring.datasource.hikari.minimum-idle", () -> "0");
             registry.add("spring.datasource.hikari.maximum-pool-size", () -> "5");
+
+            registry.add("auth.warmup.enabled", () -> "false");
         }
     }
 }
@@ -0,0 +1,137 @@
+package com.innowise.authenticationservice.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.innowise.authenticationservice.dto.LoginRequest;
+import com.innowise.authenticationservice.dto.RegisterRequest;
+import com.innowise.authenticationservice.model.User;
+import com.innowise.authenticationservice.repository.UserRepository;
+import com.innowise.authenticationservice.repository.UserSecondLevelCache;
+import com.innowise.authenticationservice.service.AuthService;
+
+/**
+ * Второй уровень кэша для User: число SQL-запросов на login и refresh с холодным кэшем (до) и с прогретым (после).
+ * Количество запросов берется из статистики Hibernate (prepareStatementCount) и пишется в лог теста.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class UserSecondLevelCacheIT extends BaseIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSecondLevelCacheIT.class);
+
+    private static final int USERS = 20;
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSecondLevelCache userSecondLevelCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<String> logins = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        logins.clear();
+        for (int i = 0; i < USERS; i++) {
+            String login = "cache" + i + "-" + System.nanoTime() + "@example.com";
+            RegisterRequest request = new RegisterRequest();
+            request.setLogin(login);
+            request.setPassword(PASSWORD);
+            request.setRole("USER");
+            authService.register(request);
+            logins.add(login);
+        }
+    }
+
+    @Test
+    @DisplayName("login: с прогретым кэшем пользователь не читается из БД")
+    void login_ShouldIssueFewerStatements_WhenCacheIsWarm() {
+        double cold = statementsPerCall(true, login -> authService.login(loginRequest(login)));
+        double warm = statementsPerCall(false, login -> authService.login(loginRequest(login)));
+
+        log.info("login statements per call: before={} after={}", cold, warm);
+        // С прогретым кэшем остается только INSERT refresh токена; без кэша добавляется хотя бы чтение пользователя
+        assertEquals(1.0, warm, "warm login statements");
+        assertTrue(cold >= warm + 1, "cold=" + cold + " warm=" + warm);
+    }
+
+    @Test
+    @DisplayName("refresh: число запросов не растет при включенном кэше")
+    void refresh_ShouldNotIssueMoreStatements_WhenCacheIsWarm() {
+        List<String> refreshTokens = new ArrayList<>();
+        for (String login : logins) {
+            refreshTokens.add(authService.login(loginRequest(login)).getRefreshToken());
+        }
+
+        double cold = statementsPerCall(true, login -> refreshTokens.set(logins.indexOf(login),
+                authService.refreshToken(refreshTokens.get(logins.indexOf(login))).getRefreshToken()));
+        double warm = statementsPerCall(false, login -> refreshTokens.set(logins.indexOf(login),
+                authService.refreshToken(refreshTokens.get(logins.indexOf(login))).getRefreshToken()));
+
+        log.info("refresh statements per call: before={} after={}", cold, warm);
+        // refresh не читает пользователя (роль и версия - из UserVersionCache), поэтому от кэша не зависит
+        assertEquals(cold, warm, "refresh statements per call");
+    }
+
+    @Test
+    @DisplayName("инвалидация по логину вытесняет пользователя из кэша")
+    void onInvalidation_ShouldEvictUser() {
+        String login = logins.get(0);
+        userRepository.findByLogin(login);
+        User cached = userRepository.findByLogin(login).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(User.class, cached.getId()));
+
+        userSecondLevelCache.onInvalidation(List.of(login));
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, cached.getId()));
+    }
+
+    // Среднее число подготовленных SQL-запросов на вызов; при cold кэш очищается перед каждым вызовом.
+    private double statementsPerCall(boolean cold, Consumer<String> call) {
+        if (!cold) {
+            logins.forEach(userRepository::findByLogin);
+        }
+        long total = 0;
+        for (String login : logins) {
+            if (cold) {
+                userSecondLevelCache.evictAll();
+            }
+            long before = statistics.getPrepareStatementCount();
+            call.accept(login);
+            total += statistics.getPrepareStatementCount() - before;
+        }
+        return (double) total / logins.size();
+    }
+
+    private static LoginRequest loginRequest(String login) {
+        LoginRequest request = new LoginRequest();
+        request.setLogin(login);
+        request.setPassword(PASSWORD);
+        return request;
+    }
+}
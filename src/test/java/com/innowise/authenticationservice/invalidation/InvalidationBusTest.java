@@ -0,0 +1,107 @@
+package com.innowise.authenticationservice.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Тесты для InvalidationBus и формата сообщений InvalidationMessage.
+ */
+@ExtendWith(MockitoExtension.class)
+class InvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("триггер смены роли и пароля уведомляет канал шины")
+    void channel_ShouldMatchUsersTrigger() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/db/changelog/005-add-user-token-version.xml")) {
+            String changelog = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertTrue(changelog.contains("pg_notify('" + InvalidationBus.CHANNEL + "', "));
+        }
+    }
+
+    @Test
+    @DisplayName("flush - повторы схлопываются, все темы уходят одним запросом")
+    void flush_ShouldCoalesceAndSendSingleBatch() {
+        InvalidationBus bus = new InvalidationBus(jdbcTemplate, true);
+        bus.publish(InvalidationTopics.USER, "user@example.com");
+        bus.publish(InvalidationTopics.USER, "user@example.com");
+        bus.publish(InvalidationTopics.REVOKED_TOKEN, "jti|1");
+
+        bus.flush();
+        bus.flush();
+
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    @DisplayName("flush - при ошибке ключи возвращаются в буфер")
+    void flush_ShouldRequeue_WhenNotifyFails() {
+        InvalidationBus bus = new InvalidationBus(jdbcTemplate, true);
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doReturn(null)
+                .when(jdbcTemplate).execute(any(ConnectionCallback.class));
+        bus.publish(InvalidationTopics.USER, "user@example.com");
+
+        bus.flush();
+        bus.flush();
+
+        verify(jdbcTemplate, times(2)).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    @DisplayName("publish - выключенная шина ничего не отправляет")
+    void publish_ShouldDoNothing_WhenDisabled() {
+        InvalidationBus bus = new InvalidationBus(jdbcTemplate, false);
+        bus.publish(InvalidationTopics.USER, "user@example.com");
+
+        bus.flush();
+
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    @DisplayName("encode/decode - большой набор ключей режется по лимиту payload NOTIFY")
+    void encode_ShouldSplitByPayloadLimit() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add("user" + i + "@example.com");
+        }
+
+        List<String> payloads = InvalidationMessage.encode("node-1", InvalidationTopics.USER, keys);
+
+        assertTrue(payloads.size() > 1);
+        List<String> decoded = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= InvalidationMessage.MAX_PAYLOAD_BYTES);
+            InvalidationMessage message = InvalidationMessage.decode(payload);
+            assertEquals("node-1", message.nodeId());
+            assertEquals(InvalidationTopics.USER, message.topic());
+            decoded.addAll(message.keys());
+        }
+        assertEquals(keys, decoded);
+        assertNull(InvalidationMessage.decode("garbage"));
+    }
+}
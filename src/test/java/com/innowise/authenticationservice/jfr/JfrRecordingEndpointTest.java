@@ -0,0 +1,72 @@
+package com.innowise.authenticationservice.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.security.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для JfrRecordingEndpoint и JFR событий аутентификации.
+ * Запускает настоящую JFR запись в текущей JVM и проверяет сводку по событиям.
+ */
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint();
+
+    @AfterEach
+    void tearDown() {
+        if ("RUNNING".equals(endpoint.status().get("state"))) {
+            endpoint.stop(null);
+        }
+    }
+
+    @Test
+    @DisplayName("start/stop - сводка содержит события BCrypt с результатом")
+    void stop_ShouldSummarizePasswordHashEvents() {
+        PasswordEncoder passwordEncoder = new PasswordEncoder(new AuthMetrics(new SimpleMeterRegistry()));
+
+        endpoint.start(60L, null);
+        assertEquals("RUNNING", endpoint.status().get("state"));
+
+        String hash = JfrUserKey.callWith("user@example.com", () -> passwordEncoder.encode("password"));
+        passwordEncoder.matches("password", hash);
+        passwordEncoder.matches("wrong", hash);
+
+        JfrSummary summary = endpoint.stop(null);
+
+        assertTrue(summary.events().stream().anyMatch(stats -> stats.event().equals(PasswordHashEvent.NAME)
+                && stats.operation().equals("encode") && stats.outcome().equals("success") && stats.count() == 1));
+        assertTrue(summary.events().stream().anyMatch(stats -> stats.event().equals(PasswordHashEvent.NAME)
+                && stats.operation().equals("matches") && stats.outcome().equals("mismatch")));
+        assertEquals("NOT_STARTED", endpoint.status().get("state"));
+    }
+
+    @Test
+    @DisplayName("stop без запущенной записи - исключение")
+    void stop_ShouldThrow_WhenNotStarted() {
+        assertThrows(IllegalStateException.class, () -> endpoint.stop(null));
+    }
+
+    @Test
+    @DisplayName("ключ пользователя - усеченный SHA-256 без учета регистра, логин не сохраняется")
+    void userKey_ShouldBeStableTruncatedHash() {
+        String key = JfrUserKey.hash("User@Example.com");
+
+        assertEquals(16, key.length());
+        assertEquals(key, JfrUserKey.hash("user@example.com"));
+        assertNotEquals(key, JfrUserKey.hash("other@example.com"));
+        assertFalse(key.contains("user"));
+        assertNull(JfrUserKey.hash(null));
+    }
+}
@@ -0,0 +1,82 @@
+package com.innowise.authenticationservice.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * HTTP клиент публичного API auth-service для нагрузочных сценариев.
+ * Один HttpClient (HTTP/1.1, пул keep-alive соединений) разделяется всеми виртуальными потоками.
+ */
+final class AuthApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    AuthApiClient(String baseUrl) {
+        this.baseUrl = baseUrl + "/auth/v1";
+    }
+
+    // Пара токенов из TokenResponse; null в полях означает, что запрос завершился ошибкой.
+    record Tokens(String accessToken, String refreshToken) {
+    }
+
+    Tokens register(String login, String password) throws IOException, InterruptedException {
+        return tokens(post("/register", Map.of("login", login, "password", password, "role", "USER")));
+    }
+
+    Tokens login(String login, String password) throws IOException, InterruptedException {
+        return tokens(post("/login", Map.of("login", login, "password", password)));
+    }
+
+    Tokens refresh(String refreshToken) throws IOException, InterruptedException {
+        return tokens(post("/refresh", Map.of("refreshToken", refreshToken)));
+    }
+
+    boolean validate(String accessToken) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/validate", Map.of("token", accessToken));
+        return response.statusCode() == 200 && objectMapper.readTree(response.body()).path("valid").asBoolean();
+    }
+
+    // Проверка, которую выполняет шлюз (nginx auth_request, Traefik ForwardAuth).
+    boolean forwardAuth(String accessToken) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/forward-auth"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Tokens tokens(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200 && response.statusCode() != 201) {
+            return new Tokens(null, null);
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        return new Tokens(json.path("accessToken").asText(null), json.path("refreshToken").asText(null));
+    }
+}
@@ -0,0 +1,183 @@
+package com.innowise.authenticationservice.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.innowise.authenticationservice.AuthenticationServiceApplication;
+
+/**
+ * Нагрузочный прогон auth-service: сервис поднимается целиком (HTTP, Liquibase-миграции, Postgres
+ * в Testcontainers, заглушка user-service) и проходит сценарии:
+ * всплеск регистраций, шторм входов, шторм обновлений токенов и смесь шлюза с преобладанием проверок.
+ * Результат - пропускная способность и перцентили задержки по каждому сценарию (консоль и target/load-test/report.csv).
+ *
+ * В обычную сборку не входит (тег load); запуск: mvn test -Pload-test.
+ * Параметры (системные свойства): load.clients, load.users, load.duration-seconds, load.warmup-seconds,
+ * load.user-service-latency-ms, load.max-error-rate.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+class AuthLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthLoadTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final int USERS = Integer.getInteger("load.users", 500);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration USER_SERVICE_LATENCY =
+            Duration.ofMillis(Long.getLong("load.user-service-latency-ms", 20));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private static final String PASSWORD = "LoadTest#2025";
+    private static final Path REPORT = Path.of("target", "load-test", "report.csv");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("auth_db_load")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static UserServiceStub userService;
+    private static ConfigurableApplicationContext application;
+    private static AuthApiClient client;
+
+    @BeforeAll
+    static void startService() throws IOException {
+        userService = UserServiceStub.start(USER_SERVICE_LATENCY);
+        application = new SpringApplicationBuilder(AuthenticationServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "user.service.base-url=" + userService.baseUrl(),
+                        "user.service.internal-api-key=load-test",
+                        "grpc.server.enabled=false",
+                        "logging.level.com.innowise.authenticationservice=WARN")
+                .run();
+        int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+        client = new AuthApiClient("http://127.0.0.1:" + port);
+    }
+
+    @AfterAll
+    static void stopService() {
+        if (application != null) {
+            application.close();
+        }
+        if (userService != null) {
+            userService.close();
+        }
+    }
+
+    @Test
+    @DisplayName("нагрузочные сценарии: регистрации, входы, обновления токенов, смесь шлюза")
+    void runScenarios() throws Exception {
+        LoadRunner runner = new LoadRunner();
+        List<ScenarioResult> results = new ArrayList<>();
+
+        AtomicInteger nextUser = new AtomicInteger();
+        results.add(runner.run(LoadScenario.burst("signup-burst", CLIENTS, USERS,
+                worker -> () -> client.register(login(nextUser.getAndIncrement()), PASSWORD).accessToken() != null)));
+
+        // Прогрев JIT и пулов соединений; в отчет не входит
+        runner.run(LoadScenario.timed("warmup", CLIENTS, WARMUP, this::loginWorker));
+
+        results.add(runner.run(LoadScenario.timed("login-storm", CLIENTS, DURATION, this::loginWorker)));
+        results.add(runner.run(LoadScenario.timed("refresh-storm", CLIENTS, DURATION, this::refreshWorker)));
+        results.add(runner.run(LoadScenario.timed("gateway-mix", CLIENTS, DURATION, this::gatewayWorker)));
+
+        log.info("Load test report ({} clients, {} users):\n{}", CLIENTS, USERS, LoadReport.format(results));
+        LoadReport.writeCsv(results, REPORT);
+
+        assertEquals(USERS, userService.syncCalls(), "every signup must create a profile in user-service");
+        for (ScenarioResult result : results) {
+            assertTrue(result.errorRate() <= MAX_ERROR_RATE,
+                    () -> result.name() + " error rate " + result.errorRate() + " exceeds " + MAX_ERROR_RATE);
+        }
+    }
+
+    // Каждый клиент входит под своими пользователями по кругу.
+    private LoadScenario.Worker loginWorker(int worker) {
+        AtomicInteger round = new AtomicInteger();
+        return () -> client.login(login((worker + round.getAndIncrement() * CLIENTS) % USERS), PASSWORD)
+                .accessToken() != null;
+    }
+
+    // Каждый клиент ведет свою цепочку refresh токенов: следующий запрос предъявляет токен из предыдущего ответа.
+    private LoadScenario.Worker refreshWorker(int worker) {
+        AuthApiClient.Tokens[] tokens = {loginQuietly(worker)};
+        return () -> {
+            AuthApiClient.Tokens rotated = client.refresh(tokens[0].refreshToken());
+            if (rotated.refreshToken() == null) {
+                tokens[0] = loginQuietly(worker);
+                return false;
+            }
+            tokens[0] = rotated;
+            return true;
+        };
+    }
+
+    // Смесь шлюза: 60% forward-auth, 30% validate, 8% refresh, 2% login.
+    private LoadScenario.Worker gatewayWorker(int worker) {
+        AuthApiClient.Tokens[] tokens = {loginQuietly(worker)};
+        return () -> {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < 60) {
+                return client.forwardAuth(tokens[0].accessToken());
+            }
+            if (roll < 90) {
+                return client.validate(tokens[0].accessToken());
+            }
+            AuthApiClient.Tokens renewed = roll < 98
+                    ? client.refresh(tokens[0].refreshToken())
+                    : client.login(login(worker % USERS), PASSWORD);
+            if (renewed.accessToken() == null) {
+                return false;
+            }
+            tokens[0] = renewed;
+            return true;
+        };
+    }
+
+    private AuthApiClient.Tokens loginQuietly(int worker) {
+        try {
+            AuthApiClient.Tokens tokens = client.login(login(worker % USERS), PASSWORD);
+            if (tokens.accessToken() == null) {
+                throw new IllegalStateException("Login failed for load user " + worker % USERS);
+            }
+            return tokens;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String login(int user) {
+        return "load" + user + "@load.test";
+    }
+}
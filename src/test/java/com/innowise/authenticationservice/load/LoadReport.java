@@ -0,0 +1,46 @@
+package com.innowise.authenticationservice.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Отчет по сценариям: пропускная способность, доля ошибок и перцентили задержки.
+ * Печатается в консоль и сохраняется в CSV (target/load-test/report.csv) для сравнения между прогонами.
+ */
+final class LoadReport {
+
+    private static final String HEADER_FORMAT = "%-22s %10s %8s %10s %9s %9s %9s %9s %9s%n";
+    private static final String ROW_FORMAT = "%-22s %10d %7.2f%% %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+    private static final String CSV_HEADER = "scenario,requests,errors,elapsed_ms,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private LoadReport() {
+    }
+
+    static String format(List<ScenarioResult> results) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, HEADER_FORMAT,
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (ScenarioResult result : results) {
+            report.append(String.format(Locale.ROOT, ROW_FORMAT, result.name(), result.requests(),
+                    result.errorRate() * 100, result.throughput(), result.percentileMillis(50),
+                    result.percentileMillis(90), result.percentileMillis(99), result.percentileMillis(99.9),
+                    result.maxMillis()));
+        }
+        return report.toString();
+    }
+
+    static void writeCsv(List<ScenarioResult> results, Path file) throws IOException {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        for (ScenarioResult result : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n", result.name(),
+                    result.requests(), result.errors(), result.elapsed().toMillis(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                    result.percentileMillis(99.9), result.maxMillis()));
+        }
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, csv);
+    }
+}
@@ -0,0 +1,107 @@
+package com.innowise.authenticationservice.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Выполняет нагрузочные сценарии на виртуальных потоках (замкнутая модель: каждый клиент отправляет
+ * следующий запрос сразу после ответа на предыдущий).
+ * Задержки пишутся в локальный для потока буфер и объединяются после завершения, поэтому замер
+ * не добавляет конкуренции между клиентами.
+ */
+final class LoadRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadRunner.class);
+
+    ScenarioResult run(LoadScenario scenario) throws InterruptedException {
+        log.info("Scenario '{}': {} clients, {} / {} requests max", scenario.name(), scenario.concurrency(),
+                scenario.duration(), scenario.maxRequests() == Long.MAX_VALUE ? "unlimited" : scenario.maxRequests());
+        // Клиенты создаются до начала замера: их подготовка (например, вход) не входит в результат
+        List<LoadScenario.Worker> workers = new ArrayList<>(scenario.concurrency());
+        for (int i = 0; i < scenario.concurrency(); i++) {
+            workers.add(scenario.workers().apply(i));
+        }
+
+        AtomicLong issued = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + scenario.duration().toNanos();
+        List<Future<LatencyLog>> futures = new ArrayList<>(workers.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (LoadScenario.Worker worker : workers) {
+                futures.add(executor.submit(() -> drive(worker, issued, scenario.maxRequests(), deadline)));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        long errors = 0;
+        List<LatencyLog> logs = new ArrayList<>(futures.size());
+        for (Future<LatencyLog> future : futures) {
+            try {
+                LatencyLog latencyLog = future.get();
+                logs.add(latencyLog);
+                errors += latencyLog.errors;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed in scenario " + scenario.name(), e.getCause());
+            }
+        }
+        long[] latencies = LatencyLog.merge(logs);
+        return new ScenarioResult(scenario.name(), latencies.length, errors, elapsed, latencies);
+    }
+
+    private static LatencyLog drive(LoadScenario.Worker worker, AtomicLong issued, long maxRequests, long deadline) {
+        LatencyLog latencyLog = new LatencyLog();
+        while (System.nanoTime() < deadline && issued.getAndIncrement() < maxRequests) {
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                ok = worker.call();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                ok = false;
+            }
+            latencyLog.add(System.nanoTime() - started, ok);
+        }
+        return latencyLog;
+    }
+
+    // Растущий массив задержек одного клиента.
+    private static final class LatencyLog {
+
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long nanos, boolean ok) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        static long[] merge(List<LatencyLog> logs) {
+            long[] merged = new long[logs.stream().mapToInt(latencyLog -> latencyLog.size).sum()];
+            int offset = 0;
+            for (LatencyLog latencyLog : logs) {
+                System.arraycopy(latencyLog.values, 0, merged, offset, latencyLog.size);
+                offset += latencyLog.size;
+            }
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+}
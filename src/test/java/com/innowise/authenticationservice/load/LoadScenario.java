@@ -0,0 +1,38 @@
+package com.innowise.authenticationservice.load;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Нагрузочный сценарий: concurrency виртуальных потоков выполняют запросы в замкнутом цикле,
+ * пока не истечет duration или не будет выполнено maxRequests запросов.
+ *
+ * @param name имя сценария в отчете
+ * @param concurrency число одновременных клиентов
+ * @param duration длительность замера
+ * @param maxRequests предел числа запросов (для всплесков фиксированного размера)
+ * @param workers фабрика клиента по номеру потока; у каждого потока свое состояние (например, цепочка refresh токенов)
+ */
+record LoadScenario(String name, int concurrency, Duration duration, long maxRequests, IntFunction<Worker> workers) {
+
+    // Верхняя граница времени для сценариев, ограниченных числом запросов
+    private static final Duration BURST_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * Один клиент сценария.
+     */
+    @FunctionalInterface
+    interface Worker {
+
+        // Выполняет один запрос; false или исключение - ошибка.
+        boolean call() throws Exception;
+    }
+
+    static LoadScenario timed(String name, int concurrency, Duration duration, IntFunction<Worker> workers) {
+        return new LoadScenario(name, concurrency, duration, Long.MAX_VALUE, workers);
+    }
+
+    static LoadScenario burst(String name, int concurrency, long requests, IntFunction<Worker> workers) {
+        return new LoadScenario(name, concurrency, BURST_TIMEOUT, requests, workers);
+    }
+}
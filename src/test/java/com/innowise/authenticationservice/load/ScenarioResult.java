@@ -0,0 +1,36 @@
+package com.innowise.authenticationservice.load;
+
+import java.time.Duration;
+
+/**
+ * Результат сценария: число запросов, ошибок и отсортированные задержки всех запросов.
+ *
+ * @param name имя сценария
+ * @param requests число выполненных запросов
+ * @param errors число ошибок
+ * @param elapsed фактическое время замера
+ * @param latenciesNanos задержки запросов в наносекундах, по возрастанию
+ */
+record ScenarioResult(String name, long requests, long errors, Duration elapsed, long[] latenciesNanos) {
+
+    double throughput() {
+        return elapsed.isZero() ? 0 : requests * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    // Перцентиль задержки в миллисекундах (nearest-rank).
+    double percentileMillis(double percentile) {
+        if (latenciesNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * latenciesNanos.length);
+        return latenciesNanos[Math.max(0, Math.min(rank, latenciesNanos.length) - 1)] / 1_000_000.0;
+    }
+
+    double maxMillis() {
+        return latenciesNanos.length == 0 ? 0 : latenciesNanos[latenciesNanos.length - 1] / 1_000_000.0;
+    }
+}
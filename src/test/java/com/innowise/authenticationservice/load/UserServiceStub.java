@@ -0,0 +1,71 @@
+package com.innowise.authenticationservice.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Локальная заглушка user-service для нагрузочных прогонов.
+ * Отвечает 201 на POST /api/v1/users/sync (создание профиля при регистрации) с настраиваемой задержкой,
+ * чтобы регистрация нагружала сервис так же, как с реальным user-service, но не зависела от него.
+ */
+final class UserServiceStub implements AutoCloseable {
+
+    static final String SYNC_PATH = "/api/v1/users/sync";
+
+    private final HttpServer server;
+    private final Duration latency;
+    private final LongAdder syncCalls = new LongAdder();
+
+    private UserServiceStub(HttpServer server, Duration latency) {
+        this.server = server;
+        this.latency = latency;
+    }
+
+    static UserServiceStub start(Duration latency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        UserServiceStub stub = new UserServiceStub(server, latency);
+        server.createContext(SYNC_PATH, stub::handleSync);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long syncCalls() {
+        return syncCalls.sum();
+    }
+
+    // Возвращает тело запроса обратно: клиенту нужен только статус 2xx.
+    private void handleSync(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            syncCalls.increment();
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
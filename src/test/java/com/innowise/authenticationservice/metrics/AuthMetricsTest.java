@@ -0,0 +1,61 @@
+package com.innowise.authenticationservice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для AuthMetrics.
+ */
+class AuthMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthMetrics authMetrics = new AuthMetrics(registry);
+
+    @Test
+    @DisplayName("повторные замеры пишутся в один и тот же таймер по операции и результату")
+    void recordOperation_ShouldReuseTimerPerOutcome() {
+        authMetrics.recordOperation(AuthMetrics.LOGIN, () -> "ok");
+        authMetrics.recordOperation(AuthMetrics.LOGIN, () -> "ok");
+        assertThrows(IllegalStateException.class, () -> authMetrics.runOperation(AuthMetrics.LOGIN, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(2, registry.get(AuthMetrics.OPERATION_TIMER)
+                .tag("operation", AuthMetrics.LOGIN).tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get(AuthMetrics.OPERATION_TIMER)
+                .tag("operation", AuthMetrics.LOGIN).tag("outcome", "failure").timer().count());
+        assertEquals(2, registry.get(AuthMetrics.OPERATION_TIMER).timers().size());
+    }
+
+    @Test
+    @DisplayName("отказы считаются по операции и причине")
+    void recordFailure_ShouldCountPerOperationAndReason() {
+        authMetrics.recordFailure(AuthMetrics.LOGIN, "bad_password");
+        authMetrics.recordFailure(AuthMetrics.LOGIN, "bad_password");
+        authMetrics.recordFailure(AuthMetrics.LOGIN, "user_not_found");
+
+        assertEquals(2.0, registry.get(AuthMetrics.FAILURE_COUNTER)
+                .tag("operation", AuthMetrics.LOGIN).tag("reason", "bad_password").counter().count());
+        assertEquals(1.0, registry.get(AuthMetrics.FAILURE_COUNTER)
+                .tag("reason", "user_not_found").counter().count());
+    }
+
+    @Test
+    @DisplayName("внутри withoutRecording метрики не записываются")
+    void withoutRecording_ShouldSkipMeters() {
+        String result = AuthMetrics.withoutRecording(() -> {
+            authMetrics.recordFailure(AuthMetrics.LOGIN, "bad_password");
+            return authMetrics.recordStep(AuthMetrics.STEP_BCRYPT, () -> "ok");
+        });
+
+        assertEquals("ok", result);
+        assertEquals(0, registry.getMeters().size());
+        assertFalse(AuthMetrics.isRecordingSuppressed());
+    }
+}
@@ -0,0 +1,155 @@
+package com.innowise.authenticationservice.nativeimage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Smoke-тест собранного native-образа: бинарник запускается против Postgres в Testcontainers,
+ * проходит Liquibase-миграции, после чего проверяются регистрация, вход, обновление и проверка токена.
+ * Время до готовности (/actuator/health) печатается в лог.
+ *
+ * В обычную сборку не входит (тег native); запуск после mvn -Pnative -DskipTests native:compile:
+ * mvn -Pnative test [-Dnative.binary=target/authentication-service]
+ */
+@Tag("native")
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIf("binaryExists")
+class NativeImageSmokeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeImageSmokeTest.class);
+
+    private static final Path BINARY = Path.of(System.getProperty("native.binary", "target/authentication-service"));
+    private static final Path LOG = Path.of("target", "native-smoke.log");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+    private static final String PASSWORD = "NativeSmoke#2025";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("auth_db_native")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Process process;
+    private static String baseUrl;
+
+    static boolean binaryExists() {
+        return Files.isExecutable(BINARY);
+    }
+
+    @BeforeAll
+    static void startBinary() throws Exception {
+        int port = freePort();
+        baseUrl = "http://localhost:" + port;
+        Files.createDirectories(LOG.getParent());
+
+        long started = System.nanoTime();
+        process = new ProcessBuilder(List.of(
+                BINARY.toAbsolutePath().toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--grpc.server.enabled=false",
+                "--auth.invalidation.enabled=false",
+                // user-service недоступен: регистрация это допускает
+                "--user.service.base-url=http://localhost:1"))
+                .redirectErrorStream(true)
+                .redirectOutput(LOG.toFile())
+                .start();
+
+        awaitHealthy();
+        log.info("Native image ready in {} ms (log: {})", Duration.ofNanos(System.nanoTime() - started).toMillis(), LOG);
+    }
+
+    @AfterAll
+    static void stopBinary() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test
+    @DisplayName("native-образ: регистрация, вход, обновление и проверка токена")
+    void authFlow_ShouldWorkInNativeImage() throws Exception {
+        String login = "native-smoke-" + System.nanoTime() + "@example.com";
+
+        JsonNode registered = post("/register", Map.of("login", login, "password", PASSWORD, "role", "USER"), 201);
+        assertTrue(registered.hasNonNull("accessToken"));
+
+        JsonNode loggedIn = post("/login", Map.of("login", login, "password", PASSWORD), 200);
+        JsonNode refreshed = post("/refresh", Map.of("refreshToken", loggedIn.path("refreshToken").asText()), 200);
+
+        JsonNode validation = post("/validate", Map.of("token", refreshed.path("accessToken").asText()), 200);
+        assertTrue(validation.path("valid").asBoolean());
+        assertEquals(login, validation.path("username").asText());
+    }
+
+    private static void awaitHealthy() throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Native image exited with " + process.exitValue() + ", see " + LOG);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // порт еще не открыт
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Native image not healthy within " + STARTUP_TIMEOUT + ", see " + LOG);
+    }
+
+    private static JsonNode post(String path, Map<String, String> body, int expectedStatus) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/v1" + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(expectedStatus, response.statusCode(), path + ": " + response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
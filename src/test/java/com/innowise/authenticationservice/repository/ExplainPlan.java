@@ -0,0 +1,65 @@
+package com.innowise.authenticationservice.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Разобранный результат EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON).
+ *
+ * @param root корневой узел плана
+ * @param json исходный план (для сообщений об ошибках)
+ */
+record ExplainPlan(JsonNode root, String json) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Узел плана.
+     *
+     * @param nodeType тип узла (Seq Scan, Index Scan, ...)
+     * @param relation таблица (для узлов чтения таблиц)
+     * @param index индекс (для индексных узлов)
+     */
+    record Node(String nodeType, String relation, String index) {
+    }
+
+    static ExplainPlan parse(String json) throws Exception {
+        return new ExplainPlan(OBJECT_MAPPER.readTree(json).get(0).get("Plan"), json);
+    }
+
+    List<Node> nodes() {
+        List<Node> nodes = new ArrayList<>();
+        collect(root, nodes);
+        return nodes;
+    }
+
+    // Последовательное чтение таблицы (или любой ее секции: refresh_tokens_p20250101 относится к refresh_tokens).
+    boolean hasSeqScan(String relation) {
+        return nodes().stream().anyMatch(node -> node.nodeType().equals("Seq Scan") && belongsTo(node, relation));
+    }
+
+    boolean usesIndex() {
+        return nodes().stream().anyMatch(node -> node.index() != null);
+    }
+
+    // Буферы, затронутые выполнением (корневой узел включает буферы всех дочерних).
+    long sharedBuffers() {
+        return root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong();
+    }
+
+    private static boolean belongsTo(Node node, String relation) {
+        return node.relation() != null
+                && (node.relation().equals(relation) || node.relation().startsWith(relation + "_"));
+    }
+
+    private static void collect(JsonNode node, List<Node> nodes) {
+        nodes.add(new Node(node.path("Node Type").asText(), node.path("Relation Name").asText(null),
+                node.path("Index Name").asText(null)));
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+}
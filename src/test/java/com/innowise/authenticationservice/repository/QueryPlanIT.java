@@ -0,0 +1,254 @@
+package com.innowise.authenticationservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.innowise.authenticationservice.model.User;
+
+/**
+ * Регрессионные тесты планов запросов репозиториев.
+ * Схема создается миграциями Liquibase (как в production), users заполняется UserDatasetSeeder (профиль seed),
+ * refresh_tokens и revoked_tokens - генерацией на стороне БД. Для каждого метода репозитория записывается SQL,
+ * который Hibernate реально отправляет (StatementRecorder), и этот же запрос с теми же параметрами выполняется
+ * под EXPLAIN (ANALYZE, BUFFERS). Тест падает, если запрос читает таблицу последовательно, не использует индекс
+ * или затрагивает больше буферов, чем ожидается для точечного доступа.
+ * Объем набора - системное свойство plan.users (по умолчанию 200000 пользователей).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("seed")
+class QueryPlanIT {
+
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+    private static final int USERS = Integer.getInteger("plan.users", 200_000);
+    private static final int TOKENS = 200_000;
+
+    // Точечный доступ по B-tree: несколько уровней индекса и страница таблицы
+    private static final long POINT_LOOKUP_BUFFERS = 16;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("auth_db_plan")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("seed.users", () -> USERS);
+        registry.add("seed.hash-pool-size", () -> 4);
+        registry.add("seed.fixtures.users", () -> 0);
+        registry.add("seed.exit-on-completion", () -> "false");
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    // users заполнен сидером при старте контекста; токены генерируются здесь (в пределах созданных секций).
+    @BeforeAll
+    static void seedTokens(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO public.refresh_tokens (token_hash, expires_at, family_id, user_login, created_at, revoked)
+                SELECT md5(g::text) || md5((g + 1)::text),
+                       date_trunc('second', now() AT TIME ZONE 'utc') + (g % 40) * interval '1 hour' + interval '1 minute',
+                       md5((g / 4)::text),
+                       'user' || (g % ?) || '@load.test',
+                       now() AT TIME ZONE 'utc',
+                       false
+                FROM generate_series(1, ?) AS g
+                """, USERS, TOKENS);
+        jdbcTemplate.update("""
+                INSERT INTO public.revoked_tokens (token_id, expires_at, revoked_at)
+                SELECT md5(g::text),
+                       (now() AT TIME ZONE 'utc') + (g % 900) * interval '1 second' + interval '1 minute',
+                       (now() AT TIME ZONE 'utc') - (g % 86400) * interval '1 second'
+                FROM generate_series(1, ?) AS g
+                """, TOKENS);
+        jdbcTemplate.execute("ANALYZE public.refresh_tokens");
+        jdbcTemplate.execute("ANALYZE public.revoked_tokens");
+    }
+
+    @Test
+    @DisplayName("findByLogin - индекс по login, без последовательного чтения users")
+    void findByLogin_ShouldUseIndex() throws Exception {
+        String login = anyUserLogin();
+        assertIndexed("users", POINT_LOOKUP_BUFFERS, () -> userRepository.findByLogin(login));
+    }
+
+    @Test
+    @DisplayName("existsByLogin - индекс по login")
+    void existsByLogin_ShouldUseIndex() throws Exception {
+        String login = anyUserLogin();
+        assertIndexed("users", POINT_LOOKUP_BUFFERS, () -> userRepository.existsByLogin(login));
+    }
+
+    @Test
+    @DisplayName("findVersions - индекс по login для пакета логинов")
+    void findVersions_ShouldUseIndex() throws Exception {
+        List<String> logins = jdbcTemplate.queryForList(
+                "SELECT login FROM public.users ORDER BY id DESC LIMIT 3", String.class);
+        assertIndexed("users", 3 * POINT_LOOKUP_BUFFERS, () -> userRepository.findVersions(logins));
+    }
+
+    @Test
+    @DisplayName("удаление пользователя по логину - поиск по login и удаление по первичному ключу")
+    void deleteByLogin_ShouldUseIndexes() throws Exception {
+        String login = anyUserLogin();
+        assertIndexed("users", POINT_LOOKUP_BUFFERS, () -> {
+            User user = userRepository.findByLogin(login).orElseThrow();
+            userRepository.delete(user);
+            userRepository.flush();
+        });
+    }
+
+    @Test
+    @DisplayName("refresh токен - поиск и гашение затрагивают одну секцию и первичный ключ")
+    void refreshTokenLookupAndMarkUsed_ShouldPruneAndUseIndex() throws Exception {
+        Map<String, Object> token = jdbcTemplate.queryForMap(
+                "SELECT token_hash, expires_at FROM public.refresh_tokens ORDER BY token_hash LIMIT 1");
+        String hash = (String) token.get("token_hash");
+        LocalDateTime expiresAt = ((Timestamp) token.get("expires_at")).toLocalDateTime();
+
+        assertIndexed("refresh_tokens", POINT_LOOKUP_BUFFERS, () -> refreshTokenRepository.findToken(hash, expiresAt));
+        assertIndexed("refresh_tokens", POINT_LOOKUP_BUFFERS,
+                () -> refreshTokenRepository.markUsed(hash, expiresAt, LocalDateTime.now(ZoneOffset.UTC)));
+    }
+
+    @Test
+    @DisplayName("отзыв семейства refresh токенов - индекс по family_id в каждой секции")
+    void revokeFamily_ShouldUseFamilyIndex() throws Exception {
+        String familyId = jdbcTemplate.queryForObject(
+                "SELECT family_id FROM public.refresh_tokens LIMIT 1", String.class);
+        // Семейство может лежать в любой секции, поэтому индекс проверяется в каждой
+        assertIndexed("refresh_tokens", 8 * POINT_LOOKUP_BUFFERS, () -> refreshTokenRepository.revokeFamily(familyId));
+    }
+
+    @Test
+    @DisplayName("догоняющая синхронизация отзывов - индекс по revoked_at")
+    void findActiveRevokedSince_ShouldUseIndex() throws Exception {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        assertIndexed("revoked_tokens", 64,
+                () -> revokedTokenRepository.findActiveRevokedSince(now.minusSeconds(30), now));
+    }
+
+    @Test
+    @DisplayName("удаление истекших отзывов - индекс по expires_at")
+    void deleteExpired_ShouldUseIndex() throws Exception {
+        assertIndexed("revoked_tokens", POINT_LOOKUP_BUFFERS,
+                () -> revokedTokenRepository.deleteExpired(LocalDateTime.now(ZoneOffset.UTC)));
+    }
+
+    private String anyUserLogin() {
+        return jdbcTemplate.queryForObject(
+                "SELECT login FROM public.users WHERE id = (SELECT max(id) / 2 FROM public.users)", String.class);
+    }
+
+    /**
+     * Выполняет вызов репозитория в откатываемой транзакции, записывая отправленные запросы,
+     * и проверяет план каждого запроса к relation.
+     */
+    private void assertIndexed(String relation, long maxBuffers, Runnable repositoryCall) throws Exception {
+        List<StatementRecorder.RecordedStatement> recorded;
+        RECORDER.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repositoryCall.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            recorded = RECORDER.stop();
+        }
+        List<StatementRecorder.RecordedStatement> statements = recorded.stream()
+                .filter(statement -> statement.sql().contains(relation))
+                .toList();
+        assertFalse(statements.isEmpty(), "no statements against " + relation + " were recorded");
+
+        for (StatementRecorder.RecordedStatement statement : statements) {
+            ExplainPlan plan = explain(statement);
+            String context = statement.sql() + "\n" + plan.json();
+            assertFalse(plan.hasSeqScan(relation), () -> "Sequential scan on " + relation + ":\n" + context);
+            assertTrue(plan.usesIndex(), () -> "No index used:\n" + context);
+            assertTrue(plan.sharedBuffers() <= maxBuffers,
+                    () -> plan.sharedBuffers() + " buffers touched, expected at most " + maxBuffers + ":\n" + context);
+        }
+    }
+
+    // EXPLAIN ANALYZE выполняет запрос, поэтому изменения откатываются.
+    private ExplainPlan explain(StatementRecorder.RecordedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement explain = connection.prepareStatement(
+                    "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())) {
+                for (int i = 0; i < statement.parameters().size(); i++) {
+                    explain.setObject(i + 1, statement.parameters().get(i));
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    return ExplainPlan.parse(resultSet.getString(1));
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.innowise.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Тесты для JwtSigningKey.
+ */
+class JwtSigningKeyTest {
+
+    private static final String SECRET = "firstSecretKeyForJWTGenerationInTests2025";
+    private static final String ROTATED_SECRET = "secondSecretKeyForJWTGenerationInTests2025";
+
+    @Test
+    @DisplayName("ключ строится один раз и переиспользуется")
+    void get_ShouldReturnSameKey() {
+        JwtSigningKey signingKey = new JwtSigningKey(new MockEnvironment().withProperty(JwtSigningKey.SECRET_PROPERTY, SECRET));
+
+        assertSame(signingKey.get(), signingKey.get());
+    }
+
+    @Test
+    @DisplayName("после stop/start (checkpoint/restore) секрет перечитывается из окружения")
+    void start_ShouldReloadSecret() {
+        MockEnvironment environment = new MockEnvironment().withProperty(JwtSigningKey.SECRET_PROPERTY, SECRET);
+        JwtSigningKey signingKey = new JwtSigningKey(environment);
+        signingKey.start();
+
+        signingKey.stop();
+        environment.setProperty(JwtSigningKey.SECRET_PROPERTY, ROTATED_SECRET);
+        signingKey.start();
+
+        assertArrayEquals(ROTATED_SECRET.getBytes(), signingKey.get().getEncoded());
+    }
+}
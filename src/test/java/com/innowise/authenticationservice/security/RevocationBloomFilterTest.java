@@ -0,0 +1,57 @@
+package com.innowise.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для RevocationBloomFilter.
+ */
+class RevocationBloomFilterTest {
+
+    @Test
+    @DisplayName("добавленные значения всегда находятся (нет ложноотрицательных)")
+    void mightContain_ShouldReturnTrue_ForAddedValues() {
+        RevocationBloomFilter filter = RevocationBloomFilter.create(1000, 0.01);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    @DisplayName("доля ложных срабатываний близка к расчетной")
+    void mightContain_ShouldKeepFalsePositiveRateNearTarget() {
+        RevocationBloomFilter filter = RevocationBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("пустой фильтр ничего не содержит")
+    void mightContain_ShouldReturnFalse_WhenEmpty() {
+        RevocationBloomFilter filter = RevocationBloomFilter.create(100, 0.001);
+
+        assertFalse(filter.mightContain(UUID.randomUUID().toString()));
+    }
+}
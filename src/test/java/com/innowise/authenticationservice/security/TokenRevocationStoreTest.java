@@ -0,0 +1,162 @@
+package com.innowise.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.innowise.authenticationservice.invalidation.InvalidationBus;
+import com.innowise.authenticationservice.invalidation.InvalidationTopics;
+import com.innowise.authenticationservice.model.RevokedToken;
+import com.innowise.authenticationservice.repository.RevokedTokenRepository;
+
+/**
+ * Тесты для TokenRevocationStore.
+ * Проверяет отзыв токенов, сохранение в БД, загрузку из БД и очистку записей по корзинам времени истечения.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    private MutableClock clock;
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        store = new TokenRevocationStore(revokedTokenRepository, invalidationBus, Duration.ofSeconds(60), 1000, 0.001, clock);
+    }
+
+    @Test
+    @DisplayName("revoke - токен считается отозванным до очистки и сохраняется в БД")
+    void revoke_ShouldMarkTokenAsRevokedAndPersist() {
+        store.revoke("jti-1", NOW.plusSeconds(900));
+
+        assertTrue(store.isRevoked("jti-1"));
+        assertFalse(store.isRevoked("jti-2"));
+        assertFalse(store.isRevoked(null));
+
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        assertEquals("jti-1", saved.getValue().getTokenId());
+        assertEquals(LocalDateTime.ofInstant(NOW.plusSeconds(900), ZoneOffset.UTC), saved.getValue().getExpiresAt());
+        verify(invalidationBus).publish(InvalidationTopics.REVOKED_TOKEN,
+                "jti-1|" + NOW.plusSeconds(900).toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("onInvalidation - токен, отозванный на другом узле, применяется без обращения к БД")
+    void onInvalidation_ShouldApplyRemoteRevocation() {
+        store.onInvalidation(List.of("remote-jti|" + NOW.plusSeconds(600).toEpochMilli(),
+                "expired-jti|" + NOW.minusSeconds(1).toEpochMilli()));
+
+        assertTrue(store.isRevoked("remote-jti"));
+        assertFalse(store.isRevoked("expired-jti"));
+    }
+
+    @Test
+    @DisplayName("onResync - после переподключения дочитываются токены, отозванные за время разрыва")
+    void onResync_ShouldLoadMissedRevocations() {
+        Instant since = NOW.minusSeconds(30);
+        when(revokedTokenRepository.findActiveRevokedSince(LocalDateTime.ofInstant(since, ZoneOffset.UTC),
+                LocalDateTime.ofInstant(NOW, ZoneOffset.UTC))).thenReturn(List.of(
+                new RevokedToken("missed-jti", LocalDateTime.ofInstant(NOW.plusSeconds(600), ZoneOffset.UTC))));
+
+        store.onResync(since);
+
+        assertTrue(store.isRevoked("missed-jti"));
+    }
+
+    @Test
+    @DisplayName("rebuild - токены, отозванные на другом узле, загружаются из БД")
+    void rebuild_ShouldLoadActiveTokensFromDatabase() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(List.of(
+                new RevokedToken("remote-jti", LocalDateTime.ofInstant(NOW.plusSeconds(600), ZoneOffset.UTC))));
+
+        store.rebuild();
+
+        assertTrue(store.isRevoked("remote-jti"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("revoke - уже истекший токен не сохраняется")
+    void revoke_ShouldIgnoreExpiredToken() {
+        store.revoke("jti-1", NOW.minusSeconds(1));
+
+        assertFalse(store.isRevoked("jti-1"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("purgeExpired - удаляются только записи из полностью истекших корзин")
+    void purgeExpired_ShouldDropOnlyExpiredBuckets() {
+        store.revoke("short", NOW.plusSeconds(90));
+        store.revoke("long", NOW.plusSeconds(3600));
+
+        // Корзина "short" еще не закончилась
+        clock.advance(Duration.ofSeconds(100));
+        store.purgeExpired();
+        assertTrue(store.isRevoked("short"));
+
+        // Корзина "short" целиком в прошлом, "long" остается
+        clock.advance(Duration.ofSeconds(60));
+        store.purgeExpired();
+        assertFalse(store.isRevoked("short"));
+        assertTrue(store.isRevoked("long"));
+        assertEquals(1, store.size());
+    }
+
+    // Часы, которые тест двигает вручную
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
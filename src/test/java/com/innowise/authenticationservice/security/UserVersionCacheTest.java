@@ -0,0 +1,110 @@
+package com.innowise.authenticationservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.model.Role;
+import com.innowise.authenticationservice.model.UserVersion;
+import com.innowise.authenticationservice.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для UserVersionCache.
+ * Проверяет загрузку версий, проверку токенов по роли и версии и инвалидацию пользователей.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserVersionCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserVersionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserVersionCache(userRepository, new AuthMetrics(new SimpleMeterRegistry()), 1000);
+    }
+
+    @Test
+    @DisplayName("после первого чтения проверка токена не обращается к БД и сравнивает роль и версию")
+    void isCurrent_ShouldCompareRoleAndVersion_WithoutDatabase() {
+        when(userRepository.findVersions(List.of("user@test.com")))
+                .thenReturn(List.of(new UserVersion("user@test.com", Role.ROLE_USER, 2)));
+        when(userRepository.findVersions(List.of("admin@test.com")))
+                .thenReturn(List.of(new UserVersion("admin@test.com", Role.ROLE_ADMIN, 0)));
+
+        assertTrue(cache.isCurrent("user@test.com", "ROLE_USER", 2));
+        assertFalse(cache.isCurrent("user@test.com", "ROLE_USER", 1));
+        assertFalse(cache.isCurrent("user@test.com", "ROLE_ADMIN", 2));
+        assertTrue(cache.isCurrent("admin@test.com", "ROLE_ADMIN", 0));
+        assertEquals(Optional.of(new UserVersion("user@test.com", Role.ROLE_USER, 2)), cache.find("user@test.com"));
+        verify(userRepository, times(1)).findVersions(List.of("user@test.com"));
+    }
+
+    @Test
+    @DisplayName("промах читается из БД один раз, отсутствие пользователя тоже запоминается")
+    void find_ShouldCacheNegativeResult() {
+        when(userRepository.findVersions(List.of("ghost@test.com"))).thenReturn(List.of());
+
+        assertEquals(Optional.empty(), cache.find("ghost@test.com"));
+        assertEquals(Optional.empty(), cache.find("ghost@test.com"));
+
+        verify(userRepository, times(1)).findVersions(List.of("ghost@test.com"));
+    }
+
+    @Test
+    @DisplayName("инвалидация перечитывает пользователя: смена роли и удаление делают старые токены недействительными")
+    void onInvalidation_ShouldReloadChangedAndDeletedUsers() {
+        cache.put(new UserVersion("user@test.com", Role.ROLE_USER, 0));
+        cache.put(new UserVersion("gone@test.com", Role.ROLE_USER, 0));
+        when(userRepository.findVersions(List.of("user@test.com", "gone@test.com")))
+                .thenReturn(List.of(new UserVersion("user@test.com", Role.ROLE_ADMIN, 1)));
+
+        cache.onInvalidation(List.of("user@test.com", "gone@test.com"));
+
+        assertFalse(cache.isCurrent("user@test.com", "ROLE_USER", 0));
+        assertTrue(cache.isCurrent("user@test.com", "ROLE_ADMIN", 1));
+        assertFalse(cache.isCurrent("gone@test.com", "ROLE_USER", 0));
+    }
+
+    @Test
+    @DisplayName("удаление вне транзакции применяется сразу, более старая версия не перезаписывает новую")
+    void markDeletedAndPut_ShouldUpdateMap() {
+        cache.put(new UserVersion("user@test.com", Role.ROLE_USER, 3));
+        cache.put(new UserVersion("user@test.com", Role.ROLE_USER, 2));
+        assertTrue(cache.isCurrent("user@test.com", "ROLE_USER", 3));
+
+        cache.markDeleted("user@test.com");
+
+        assertEquals(Optional.empty(), cache.find("user@test.com"));
+    }
+
+    @Test
+    @DisplayName("после resync кэш сбрасывается и перечитывается по обращениям")
+    void onResync_ShouldEvictAll() {
+        cache.put(new UserVersion("user@test.com", Role.ROLE_USER, 0));
+        when(userRepository.findVersions(List.of("user@test.com")))
+                .thenReturn(List.of(new UserVersion("user@test.com", Role.ROLE_USER, 1)));
+
+        cache.onResync(Instant.now());
+
+        assertTrue(cache.isCurrent("user@test.com", "ROLE_USER", 1));
+    }
+}
@@ -0,0 +1,52 @@
+package com.innowise.authenticationservice.seed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.innowise.authenticationservice.model.Role;
+
+/**
+ * Тесты для SeedUserGenerator.
+ */
+class SeedUserGeneratorTest {
+
+    @Test
+    @DisplayName("генерация детерминирована, логины уникальны, доля администраторов близка к заданной")
+    void user_ShouldBeDeterministicAndDistinct() {
+        SeedUserGenerator generator = new SeedUserGenerator(42, 0.01, 16);
+        SeedUserGenerator sameSeed = new SeedUserGenerator(42, 0.01, 16);
+        Set<String> logins = new HashSet<>();
+        int admins = 0;
+        int count = 100_000;
+
+        for (long index = 0; index < count; index++) {
+            SeedUser user = generator.user(index);
+            assertEquals(user, sameSeed.user(index));
+            assertTrue(user.login().endsWith(SeedUserGenerator.DOMAIN_SUFFIX));
+            assertTrue(logins.add(user.login()));
+            if (user.role() == Role.ROLE_ADMIN) {
+                admins++;
+            }
+        }
+
+        assertTrue(admins > count * 0.007 && admins < count * 0.013, "admins: " + admins);
+    }
+
+    @Test
+    @DisplayName("пароль пользователя соответствует хешу из пула с тем же номером")
+    void password_ShouldMatchHashPoolSlot() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        SeedUser user = new SeedUserGenerator(42, 0.01, 16).user(37);
+        String slotHash = encoder.encode(SeedUserGenerator.password(user.passwordSlot()));
+
+        assertEquals(37 % 16, user.passwordSlot());
+        assertTrue(encoder.matches(user.password(), slotHash));
+    }
+}
@@ -1,28 +1,41 @@
 package com.innowise.authenticationservice.service;
 
+import com.innowise.authenticationservice.audit.AuditTrail;
 import com.innowise.authenticationservice.client.UserServiceClient;
 import com.innowise.authenticationservice.dto.LoginRequest;
+import com.innowise.authenticationservice.dto.LogoutRequest;
 import com.innowise.authenticationservice.dto.RegisterRequest;
 import com.innowise.authenticationservice.dto.TokenResponse;
 import com.innowise.authenticationservice.dto.TokenValidationResponse;
 import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.invalidation.InvalidationBus;
+import com.innowise.authenticationservice.invalidation.InvalidationTopics;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
 import com.innowise.authenticationservice.model.Role;
 import com.innowise.authenticationservice.model.User;
+import com.innowise.authenticationservice.model.UserVersion;
 import com.innowise.authenticationservice.repository.UserRepository;
 import com.innowise.authenticationservice.security.JwtTokenProvider;
 import com.innowise.authenticationservice.security.PasswordEncoder;
+import com.innowise.authenticationservice.security.TokenPrincipal;
+import com.innowise.authenticationservice.security.TokenRevocationStore;
+import com.innowise.authenticationservice.security.UserVersionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +58,35 @@ class AuthServiceTest {
     @Mock
     private UserServiceClient userServiceClient;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserVersionCache userVersionCache;
+
+    @Mock
+    private AuditTrail auditTrail;
+
+    @Mock
+    private LoginActivityTracker loginActivityTracker;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Spy
+    private RefreshCoalescer refreshCoalescer = new RefreshCoalescer(0, meterRegistry);
+
     @InjectMocks
     private AuthService authService;
 
@@ -85,9 +127,9 @@ class AuthServiceTest {
         // Это имитирует успешную проверку пароля
         when(passwordEncoder.matches("password123", "$2a$10$hashedPassword")).thenReturn(true);
         // Когда кто-то вызовет jwtTokenProvider.generateAccessToken(...), верни "access-token"
-        when(jwtTokenProvider.generateAccessToken("testuser", Role.ROLE_USER)).thenReturn("access-token");
-        // Когда кто-то вызовет jwtTokenProvider.generateRefreshToken(...), верни "refresh-token"
-        when(jwtTokenProvider.generateRefreshToken("testuser", Role.ROLE_USER)).thenReturn("refresh-token");
+        when(jwtTokenProvider.generateAccessToken("testuser", Role.ROLE_USER, 0)).thenReturn("access-token");
+        // Когда кто-то вызовет refreshTokenService.issue("testuser"), верни "refresh-token"
+        when(refreshTokenService.issue("testuser")).thenReturn("refresh-token");
         // Когда кто-то вызовет jwtTokenProvider.getJwtExpiration(), верни 900000L (время жизни токена)
         when(jwtTokenProvider.getJwtExpiration()).thenReturn(900000L);
 
@@ -102,8 +144,10 @@ class AuthServiceTest {
         assertEquals(900000L, response.getExpiresIn()); // Проверка: что время жизни токена совпадает
         verify(userRepository).findByLogin("testuser"); // Проверка: что метод был вызван
         verify(passwordEncoder).matches("password123", "$2a$10$hashedPassword"); // Проверка: что пароль был проверен
-        verify(jwtTokenProvider).generateAccessToken("testuser", Role.ROLE_USER); // Проверка: что access токен был сгенерирован
-        verify(jwtTokenProvider).generateRefreshToken("testuser", Role.ROLE_USER); // Проверка: что refresh токен был сгенерирован
+        verify(jwtTokenProvider).generateAccessToken("testuser", Role.ROLE_USER, 0); // Проверка: что access токен был сгенерирован
+        verify(refreshTokenService).issue("testuser"); // Проверка: что refresh токен был выдан
+        verify(auditTrail).success(AuthMetrics.LOGIN, "testuser"); // Проверка: что вход записан в журнал аудита
+        verify(loginActivityTracker).recordLogin("testuser"); // Проверка: что вход учтен для отложенной записи
     }
 
     @Test
@@ -146,6 +190,12 @@ class AuthServiceTest {
         assertEquals("Invalid login or password", exception.getMessage()); // Проверка: что сообщение исключения совпадает
         verify(userRepository).findByLogin("testuser"); // Проверка: что метод был вызван
         verify(passwordEncoder).matches("wrongpassword", "$2a$10$hashedPassword"); // Проверка: что пароль был проверен
+        // Проверка: отказ учтен в метрике с причиной bad_password, операция записана как failure
+        assertEquals(1.0, meterRegistry.get(AuthMetrics.FAILURE_COUNTER)
+                .tag("operation", AuthMetrics.LOGIN).tag("reason", "bad_password").counter().count());
+        assertEquals(1L, meterRegistry.get(AuthMetrics.OPERATION_TIMER)
+                .tag("operation", AuthMetrics.LOGIN).tag("outcome", "failure").timer().count());
+        verify(auditTrail).failure(AuthMetrics.LOGIN, "testuser", "bad_password");
     }
 
     @Test
@@ -159,9 +209,9 @@ class AuthServiceTest {
         // Это имитирует хеширование пароля перед сохранением в БД
         when(passwordEncoder.encode("password123")).thenReturn("$2a$10$encodedPassword");
         // Когда кто-то вызовет jwtTokenProvider.generateAccessToken(...), верни "access-token"
-        when(jwtTokenProvider.generateAccessToken("newuser", Role.ROLE_USER)).thenReturn("access-token");
-        // Когда кто-то вызовет jwtTokenProvider.generateRefreshToken(...), верни "refresh-token"
-        when(jwtTokenProvider.generateRefreshToken("newuser", Role.ROLE_USER)).thenReturn("refresh-token");
+        when(jwtTokenProvider.generateAccessToken("newuser", Role.ROLE_USER, 0)).thenReturn("access-token");
+        // Когда кто-то вызовет refreshTokenService.issue("newuser"), верни "refresh-token"
+        when(refreshTokenService.issue("newuser")).thenReturn("refresh-token");
         // Когда кто-то вызовет jwtTokenProvider.getJwtExpiration(), верни 900000L (время жизни токена)
         when(jwtTokenProvider.getJwtExpiration()).thenReturn(900000L);
         // Мокируем вызов userServiceClient.createUser (не выбрасывает исключение)
@@ -179,8 +229,8 @@ class AuthServiceTest {
         verify(userRepository).existsByLogin("newuser"); // Проверка: что проверка существования логина была вызвана
         verify(passwordEncoder).encode("password123"); // Проверка: что пароль был захеширован
         verify(userRepository).save(any(User.class)); // Проверка: что пользователь был сохранён в БД
-        verify(jwtTokenProvider).generateAccessToken("newuser", Role.ROLE_USER); // Проверка: что access токен был сгенерирован
-        verify(jwtTokenProvider).generateRefreshToken("newuser", Role.ROLE_USER); // Проверка: что refresh токен был сгенерирован
+        verify(jwtTokenProvider).generateAccessToken("newuser", Role.ROLE_USER, 0); // Проверка: что access токен был сгенерирован
+        verify(refreshTokenService).issue("newuser"); // Проверка: что refresh токен был выдан
     }
 
     @Test
@@ -268,25 +318,18 @@ class AuthServiceTest {
     }
 
     @Test
-    @DisplayName("refreshToken - успешное обновление токена")
+    @DisplayName("refreshToken - успешное обновление токена с ротацией refresh токена")
     void refreshToken_ShouldReturnNewTokens_WhenRefreshTokenIsValid() {
         // given
         String refreshToken = "valid-refresh-token";
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(refreshToken), верни true
-        // Это имитирует успешную валидацию refresh токена
-        when(jwtTokenProvider.validateToken(refreshToken)).thenReturn(true);
-        // Когда кто-то вызовет jwtTokenProvider.getUsernameFromToken(refreshToken), верни "testuser"
-        // Это извлекает имя пользователя из токена
-        when(jwtTokenProvider.getUsernameFromToken(refreshToken)).thenReturn("testuser");
-        // Когда кто-то вызовет jwtTokenProvider.getRoleFromToken(refreshToken), верни "ROLE_USER"
-        // Это извлекает роль пользователя из токена
-        when(jwtTokenProvider.getRoleFromToken(refreshToken)).thenReturn("ROLE_USER");
-        // Когда кто-то вызовет userRepository.findByLogin("testuser"), верни Optional с testUser
-        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(testUser));
+        // Когда кто-то вызовет refreshTokenService.rotate(refreshToken), верни владельца и новый refresh токен
+        // Это имитирует успешную ротацию: старый токен погашен, выдан новый того же семейства
+        when(refreshTokenService.rotate(refreshToken))
+                .thenReturn(new RefreshTokenService.Rotation("testuser", "new-refresh-token"));
+        // Когда кто-то вызовет userVersionCache.find("testuser"), верни текущие роль и версию пользователя
+        when(userVersionCache.find("testuser")).thenReturn(Optional.of(new UserVersion("testuser", Role.ROLE_USER, 3)));
         // Когда кто-то вызовет jwtTokenProvider.generateAccessToken(...), верни новый access токен
-        when(jwtTokenProvider.generateAccessToken("testuser", Role.ROLE_USER)).thenReturn("new-access-token");
-        // Когда кто-то вызовет jwtTokenProvider.generateRefreshToken(...), верни новый refresh токен
-        when(jwtTokenProvider.generateRefreshToken("testuser", Role.ROLE_USER)).thenReturn("new-refresh-token");
+        when(jwtTokenProvider.generateAccessToken("testuser", Role.ROLE_USER, 3)).thenReturn("new-access-token");
         // Когда кто-то вызовет jwtTokenProvider.getJwtExpiration(), верни время жизни токена
         when(jwtTokenProvider.getJwtExpiration()).thenReturn(900000L);
 
@@ -298,20 +341,18 @@ class AuthServiceTest {
         assertNotNull(response); // Проверка: что результат не null
         assertEquals("new-access-token", response.getAccessToken()); // Проверка: что новый access токен совпадает
         assertEquals("new-refresh-token", response.getRefreshToken()); // Проверка: что новый refresh токен совпадает
-        verify(jwtTokenProvider).validateToken(refreshToken); // Проверка: что токен был валидирован
-        verify(jwtTokenProvider).getUsernameFromToken(refreshToken); // Проверка: что имя пользователя было извлечено
-        verify(jwtTokenProvider).getRoleFromToken(refreshToken); // Проверка: что роль была извлечена
-        verify(userRepository).findByLogin("testuser"); // Проверка: что пользователь был найден в БД
+        verify(refreshTokenService).rotate(refreshToken); // Проверка: что токен был ротирован
+        verify(userRepository, never()).findByLogin(anyString()); // Проверка: что роль и версия взяты из памяти, без запроса к БД
     }
 
     @Test
-    @DisplayName("refreshToken - невалидный refresh токен")
+    @DisplayName("refreshToken - невалидный или повторно использованный refresh токен")
     void refreshToken_ShouldThrowException_WhenRefreshTokenIsInvalid() {
         // given & when
         String refreshToken = "invalid-refresh-token";
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(refreshToken), верни false
-        // Это имитирует ситуацию, когда refresh токен невалиден (истёк, повреждён и т.д.)
-        when(jwtTokenProvider.validateToken(refreshToken)).thenReturn(false);
+        // Когда кто-то вызовет refreshTokenService.rotate(refreshToken), выбрось исключение
+        // Это имитирует ситуацию, когда refresh токен не найден, истёк, отозван или уже использован
+        when(refreshTokenService.rotate(refreshToken)).thenThrow(new AuthenticationException("Invalid refresh token"));
 
         // Вызываем тестируемый метод и ожидаем выброс исключения
         AuthenticationException exception = assertThrows(AuthenticationException.class,
@@ -319,9 +360,8 @@ class AuthServiceTest {
 
         // then
         assertEquals("Invalid refresh token", exception.getMessage()); // Проверка: что сообщение исключения совпадает
-        verify(jwtTokenProvider).validateToken(refreshToken); // Проверка: что токен был валидирован
-        verify(jwtTokenProvider, never()).getUsernameFromToken(anyString()); // Проверка: что извлечение имени НЕ было вызвано
-        // (если токен невалиден, извлекать из него данные не нужно)
+        verify(userVersionCache, never()).find(anyString()); // Проверка: что пользователь НЕ загружался
+        verify(jwtTokenProvider, never()).generateAccessToken(anyString(), any(), anyLong()); // Проверка: что токены НЕ выдавались
     }
 
     @Test
@@ -329,16 +369,12 @@ class AuthServiceTest {
     void refreshToken_ShouldThrowException_WhenUserNotFound() {
         // given & when
         String refreshToken = "valid-refresh-token";
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(refreshToken), верни true
-        // Токен валиден, но пользователя в БД нет
-        when(jwtTokenProvider.validateToken(refreshToken)).thenReturn(true);
-        // Когда кто-то вызовет jwtTokenProvider.getUsernameFromToken(refreshToken), верни "nonexistent"
-        when(jwtTokenProvider.getUsernameFromToken(refreshToken)).thenReturn("nonexistent");
-        // Когда кто-то вызовет jwtTokenProvider.getRoleFromToken(refreshToken), верни "ROLE_USER"
-        when(jwtTokenProvider.getRoleFromToken(refreshToken)).thenReturn("ROLE_USER");
-        // Когда кто-то вызовет userRepository.findByLogin("nonexistent"), верни пустой Optional
-        // Это имитирует ситуацию, когда пользователя с таким логином не существует в базе данных
-        when(userRepository.findByLogin("nonexistent")).thenReturn(Optional.empty());
+        // Токен валиден, но пользователя в БД уже нет (удален после выдачи токена)
+        when(refreshTokenService.rotate(refreshToken))
+                .thenReturn(new RefreshTokenService.Rotation("nonexistent", "new-refresh-token"));
+        // Когда кто-то вызовет userVersionCache.find("nonexistent"), верни пустой Optional
+        // Это имитирует ситуацию, когда пользователь удален (отметка об отсутствии в UserVersionCache)
+        when(userVersionCache.find("nonexistent")).thenReturn(Optional.empty());
 
         // Вызываем тестируемый метод и ожидаем выброс исключения
         AuthenticationException exception = assertThrows(AuthenticationException.class,
@@ -346,36 +382,7 @@ class AuthServiceTest {
 
         // then
         assertEquals("User not found", exception.getMessage()); // Проверка: что сообщение исключения совпадает
-        verify(userRepository).findByLogin("nonexistent"); // Проверка: что поиск пользователя был выполнен
-    }
-
-    @Test
-    @DisplayName("refreshToken - несоответствие роли")
-    void refreshToken_ShouldThrowException_WhenRoleMismatch() {
-        // given
-        String refreshToken = "valid-refresh-token";
-        // Создаём пользователя с ролью ADMIN для проверки несоответствия роли
-        User adminUser = new User();
-        adminUser.setLogin("testuser");
-        adminUser.setRole(Role.ROLE_ADMIN); // В БД пользователь имеет роль ADMIN
-
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(refreshToken), верни true
-        when(jwtTokenProvider.validateToken(refreshToken)).thenReturn(true);
-        // Когда кто-то вызовет jwtTokenProvider.getUsernameFromToken(refreshToken), верни "testuser"
-        when(jwtTokenProvider.getUsernameFromToken(refreshToken)).thenReturn("testuser");
-        // Когда кто-то вызовет jwtTokenProvider.getRoleFromToken(refreshToken), верни "ROLE_USER"
-        // Но в БД пользователь имеет роль ROLE_ADMIN — это несоответствие
-        when(jwtTokenProvider.getRoleFromToken(refreshToken)).thenReturn("ROLE_USER");
-        // Когда кто-то вызовет userRepository.findByLogin("testuser"), верни Optional с adminUser
-        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(adminUser));
-
-        //when & then
-        // Вызываем тестируемый метод и ожидаем выброс исключения
-        // Это проверяет дополнительную проверку безопасности: роль в токене должна совпадать с ролью в БД
-        AuthenticationException exception = assertThrows(AuthenticationException.class,
-                () -> authService.refreshToken(refreshToken));
-
-        assertEquals("Role mismatch: token role does not match user role", exception.getMessage()); // Проверка: что сообщение исключения совпадает
+        verify(userVersionCache).find("nonexistent"); // Проверка: что поиск пользователя был выполнен
     }
 
     @Test
@@ -383,13 +390,10 @@ class AuthServiceTest {
     void validateToken_ShouldReturnValidResponse_WhenTokenIsValid() {
         // given
         String token = "valid-token";
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(token), верни true
-        // Это имитирует успешную валидацию токена
-        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-        // Когда кто-то вызовет jwtTokenProvider.getUsernameFromToken(token), верни "testuser"
-        when(jwtTokenProvider.getUsernameFromToken(token)).thenReturn("testuser");
-        // Когда кто-то вызовет jwtTokenProvider.getRoleFromToken(token), верни "ROLE_USER"
-        when(jwtTokenProvider.getRoleFromToken(token)).thenReturn("ROLE_USER");
+        // Когда кто-то вызовет jwtTokenProvider.parseToken(token), верни данные пользователя
+        // Это имитирует успешную проверку токена: подпись, срок, отзыв и версия проверяются за один разбор
+        when(jwtTokenProvider.parseToken(token)).thenReturn(Optional.of(
+                new TokenPrincipal("testuser", "ROLE_USER", new Date(System.currentTimeMillis() + 60_000), "jti")));
 
         //when
         // Вызываем тестируемый метод валидации токена
@@ -400,9 +404,9 @@ class AuthServiceTest {
         assertTrue(response.isValid()); // Проверка: что токен валиден
         assertEquals("testuser", response.getUsername()); // Проверка: что имя пользователя совпадает
         assertEquals("ROLE_USER", response.getRole()); // Проверка: что роль совпадает
-        verify(jwtTokenProvider).validateToken(token); // Проверка: что токен был валидирован
-        verify(jwtTokenProvider).getUsernameFromToken(token); // Проверка: что имя пользователя было извлечено
-        verify(jwtTokenProvider).getRoleFromToken(token); // Проверка: что роль была извлечена
+        verify(jwtTokenProvider).parseToken(token); // Проверка: что токен разобран один раз
+        verify(jwtTokenProvider, never()).validateToken(anyString()); // Проверка: что повторной проверки подписи нет
+        verify(jwtTokenProvider, never()).getUsernameFromToken(anyString());
     }
 
     @Test
@@ -410,9 +414,9 @@ class AuthServiceTest {
     void validateToken_ShouldReturnInvalidResponse_WhenTokenIsInvalid() {
         // given
         String token = "invalid-token";
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(token), верни false
+        // Когда кто-то вызовет jwtTokenProvider.parseToken(token), верни пустой Optional
         // Это имитирует ситуацию, когда токен невалиден (истёк, повреждён и т.д.)
-        when(jwtTokenProvider.validateToken(token)).thenReturn(false);
+        when(jwtTokenProvider.parseToken(token)).thenReturn(Optional.empty());
 
         //when
         // Вызываем тестируемый метод валидации токена
@@ -423,7 +427,7 @@ class AuthServiceTest {
         assertFalse(response.isValid()); // Проверка: что токен невалиден
         assertNull(response.getUsername()); // Проверка: что имя пользователя null (не извлекается для невалидного токена)
         assertNull(response.getRole()); // Проверка: что роль null (не извлекается для невалидного токена)
-        verify(jwtTokenProvider).validateToken(token); // Проверка: что токен был валидирован
+        verify(jwtTokenProvider).parseToken(token); // Проверка: что токен был проверен
         verify(jwtTokenProvider, never()).getUsernameFromToken(anyString()); // Проверка: что извлечение имени НЕ было вызвано
         // (если токен невалиден, извлекать из него данные не нужно)
     }
@@ -433,9 +437,9 @@ class AuthServiceTest {
     void validateToken_ShouldReturnInvalidResponse_WhenExceptionOccurs() {
         // given
         String token = "token-that-throws-exception";
-        // Когда кто-то вызовет jwtTokenProvider.validateToken(token), выбрось исключение
-        // Это имитирует ситуацию, когда при валидации токена происходит ошибка (например, некорректный формат)
-        when(jwtTokenProvider.validateToken(token)).thenThrow(new RuntimeException("Token parsing error"));
+        // Когда кто-то вызовет jwtTokenProvider.parseToken(token), выбрось исключение
+        // Это имитирует ситуацию, когда при валидации токена происходит ошибка (например, недоступен кэш версий)
+        when(jwtTokenProvider.parseToken(token)).thenThrow(new RuntimeException("Token parsing error"));
 
         //when
         // Вызываем тестируемый метод валидации токена
@@ -449,5 +453,94 @@ class AuthServiceTest {
         assertNull(response.getRole()); // Проверка: что роль null
         // Метод должен безопасно обрабатывать исключения и возвращать невалидный ответ вместо проброса исключения
     }
+
+    @Test
+    @DisplayName("deleteUserByEmail - удаление и инвалидация пользователя на других узлах")
+    void deleteUserByEmail_ShouldDeleteAndPublishInvalidation() {
+        // given
+        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(testUser));
+
+        // when
+        authService.deleteUserByEmail("testuser");
+
+        // then
+        verify(userRepository).delete(testUser);
+        verify(userVersionCache).markDeleted("testuser");
+        verify(invalidationBus).publish(InvalidationTopics.USER, "testuser");
+    }
+
+    @Test
+    @DisplayName("deleteUserByEmail - пользователь не найден")
+    void deleteUserByEmail_ShouldThrowException_WhenUserNotFound() {
+        // given
+        when(userRepository.findByLogin("unknown")).thenReturn(Optional.empty());
+
+        // when & then
+        assertThrows(AuthenticationException.class, () -> authService.deleteUserByEmail("unknown"));
+        verify(invalidationBus, never()).publish(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("logout - отзыв access токена до истечения срока и семейства refresh токена")
+    void logout_ShouldRevokeBothTokens() {
+        // given
+        Date accessExpiration = new Date(System.currentTimeMillis() + 900_000);
+        when(jwtTokenProvider.parseToken("access-token")).thenReturn(Optional.of(
+                new TokenPrincipal("testuser", "ROLE_USER", accessExpiration, "access-jti")));
+
+        // when
+        authService.logout(new LogoutRequest("access-token", "refresh-token"));
+
+        // then
+        verify(tokenRevocationStore).revoke("access-jti", accessExpiration.toInstant());
+        verify(refreshTokenService).revoke("refresh-token");
+        verify(auditTrail).success(AuthMetrics.LOGOUT, "testuser");
+        verify(idempotencyStore).evictLogin("testuser"); // Проверка: повтор register/create-token с прежним ключом не выдаст токены
+    }
+
+    @Test
+    @DisplayName("logout - невалидные токены пропускаются без ошибки")
+    void logout_ShouldSkipInvalidTokens() {
+        // given
+        when(jwtTokenProvider.parseToken(anyString())).thenReturn(Optional.empty());
+
+        // when
+        assertDoesNotThrow(() -> authService.logout(new LogoutRequest("expired-token", "garbage")));
+
+        // then
+        verify(tokenRevocationStore, never()).revoke(anyString(), any());
+        verify(idempotencyStore, never()).evictLogin(anyString());
+    }
+
+    @Test
+    @DisplayName("reissueTokens - новая пара токенов на повтор запроса без проверки пароля и запроса к БД")
+    void reissueTokens_ShouldIssueNewTokens_FromUserVersionCache() {
+        // given
+        when(userVersionCache.find("testuser")).thenReturn(Optional.of(new UserVersion("testuser", Role.ROLE_USER, 2)));
+        when(jwtTokenProvider.generateAccessToken("testuser", Role.ROLE_USER, 2)).thenReturn("reissued-access-token");
+        when(refreshTokenService.issue("testuser")).thenReturn("reissued-refresh-token");
+        when(jwtTokenProvider.getJwtExpiration()).thenReturn(900000L);
+
+        // when
+        TokenResponse response = authService.reissueTokens("testuser");
+
+        // then
+        assertEquals("reissued-access-token", response.getAccessToken());
+        assertEquals("reissued-refresh-token", response.getRefreshToken());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(userRepository, never()).findByLogin(anyString());
+        verify(auditTrail).success(AuthMetrics.LOGIN, "testuser");
+    }
+
+    @Test
+    @DisplayName("reissueTokens - пользователь удален после первого запроса")
+    void reissueTokens_ShouldThrowException_WhenUserNotFound() {
+        // given
+        when(userVersionCache.find("deleted")).thenReturn(Optional.empty());
+
+        // when & then
+        assertThrows(AuthenticationException.class, () -> authService.reissueTokens("deleted"));
+        verify(refreshTokenService, never()).issue(anyString());
+    }
 }
 
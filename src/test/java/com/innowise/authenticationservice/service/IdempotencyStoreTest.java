@@ -0,0 +1,137 @@
+package com.innowise.authenticationservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.innowise.authenticationservice.dto.TokenResponse;
+import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.exception.IdempotencyKeyReuseException;
+import com.innowise.authenticationservice.exception.InvalidIdempotencyKeyException;
+
+/**
+ * Тесты для IdempotencyStore.
+ */
+class IdempotencyStoreTest {
+
+    private static final String HASH = IdempotencyStore.fingerprint("alice", "secret");
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final List<String> reissued = new ArrayList<>();
+
+    @Test
+    @DisplayName("повтор с тем же ключом получает тот же статус и новые токены без повторного выполнения")
+    void execute_ShouldReissueTokens_OnReplay() {
+        IdempotencyStore store = new IdempotencyStore(60_000, 100);
+
+        ResponseEntity<TokenResponse> first = store.execute("register", "key-1", HASH, "alice",
+                this::created, this::reissue);
+        ResponseEntity<TokenResponse> replay = store.execute("register", "key-1", HASH, "alice",
+                this::created, this::reissue);
+
+        assertEquals(1, executions.get());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("access-1", first.getBody().getAccessToken());
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("reissued-alice", replay.getBody().getAccessToken());
+        assertEquals(List.of("alice"), reissued);
+    }
+
+    @Test
+    @DisplayName("после evictLogin повтор с тем же ключом выполняется заново, исходы других логинов остаются")
+    void evictLogin_ShouldForgetOutcomesOfLogin() {
+        IdempotencyStore store = new IdempotencyStore(60_000, 100);
+        store.execute("create-token", "key-1", HASH, "alice", this::created, this::reissue);
+        store.execute("create-token", "key-2", HASH, "bob", this::created, this::reissue);
+
+        store.evictLogin("alice");
+        ResponseEntity<TokenResponse> afterLogout = store.execute("create-token", "key-1", HASH, "alice",
+                this::created, this::reissue);
+
+        assertEquals(3, executions.get());
+        assertNull(afterLogout.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(2, store.size());
+        assertTrue(reissued.isEmpty());
+    }
+
+    @Test
+    @DisplayName("тот же ключ с другим запросом отклоняется, ключи разных операций не пересекаются")
+    void execute_ShouldRejectKeyReuse_WithDifferentRequest() {
+        IdempotencyStore store = new IdempotencyStore(60_000, 100);
+        store.execute("register", "key-1", HASH, "alice", this::created, this::reissue);
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> store.execute("register", "key-1",
+                IdempotencyStore.fingerprint("alice", "other"), "alice", this::created, this::reissue));
+        store.execute("create-token", "key-1", HASH, "alice", this::created, this::reissue);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("без ключа, после ошибки и при переполнении запрос выполняется заново")
+    void execute_ShouldRunAction_WhenResponseIsNotStored() {
+        IdempotencyStore store = new IdempotencyStore(60_000, 1);
+
+        store.execute("register", null, HASH, "alice", this::created, this::reissue);
+        store.execute("register", " ", HASH, "alice", this::created, this::reissue);
+        assertThrows(AuthenticationException.class,
+                () -> store.execute("register", "key-1", HASH, "alice", failing(), this::reissue));
+        store.execute("register", "key-1", HASH, "alice", this::created, this::reissue);
+        store.execute("register", "key-2", HASH, "alice", this::created, this::reissue);
+        store.execute("register", "key-2", HASH, "alice", this::created, this::reissue);
+
+        assertEquals(6, executions.get());
+        assertEquals(1, store.size());
+        assertEquals(2, store.bypassed());
+    }
+
+    @Test
+    @DisplayName("ключ длиннее 255 символов отклоняется без выполнения запроса")
+    void execute_ShouldRejectTooLongKey() {
+        IdempotencyStore store = new IdempotencyStore(60_000, 100);
+
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> store.execute("register", "k".repeat(256), HASH, "alice", this::created, this::reissue));
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("отпечаток учитывает границы полей")
+    void fingerprint_ShouldSeparateFields() {
+        assertNotEquals(IdempotencyStore.fingerprint("ab", "c"), IdempotencyStore.fingerprint("a", "bc"));
+        assertNotEquals(IdempotencyStore.fingerprint("a", null), IdempotencyStore.fingerprint("a", ""));
+        assertEquals(IdempotencyStore.fingerprint("a", "b"), IdempotencyStore.fingerprint("a", "b"));
+    }
+
+    private ResponseEntity<TokenResponse> created() {
+        executions.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(new TokenResponse("access-" + executions.get(), "refresh", 900L));
+    }
+
+    private TokenResponse reissue(String login) {
+        reissued.add(login);
+        return new TokenResponse("reissued-" + login, "refresh", 900L);
+    }
+
+    private Supplier<ResponseEntity<TokenResponse>> failing() {
+        return () -> {
+            executions.incrementAndGet();
+            throw new AuthenticationException("Login already exists");
+        };
+    }
+}
@@ -37,8 +37,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import com.innowise.authenticationservice.metrics.AuthMetrics;
 import com.innowise.authenticationservice.model.Role;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class KeycloakServiceTest {
@@ -78,7 +81,7 @@ class KeycloakServiceTest {
 
     @BeforeEach
     void setUp() {
-        keycloakService = new KeycloakService(keycloak, REALM);
+        keycloakService = new KeycloakService(keycloak, REALM, new AuthMetrics(new SimpleMeterRegistry()));
 
         when(keycloak.realm(REALM)).thenReturn(realmResource);
         when(realmResource.users()).thenReturn(usersResource);
@@ -0,0 +1,132 @@
+package com.innowise.authenticationservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для LoginActivityTracker.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoginActivityTrackerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    @DisplayName("входы одного пользователя за окно схлопываются в одну строку UPDATE")
+    void flush_ShouldCoalesceLoginsPerUser() {
+        LoginActivityTracker tracker = new LoginActivityTracker(jdbcTemplate, meterRegistry, 500, clock);
+
+        tracker.recordLogin("alice");
+        clock.advanceSeconds(3);
+        tracker.recordLogin("alice");
+        tracker.recordLogin("bob");
+        clock.advanceSeconds(1);
+        tracker.recordLogin("alice");
+        tracker.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), args.capture());
+        assertEquals(2, sql.getValue().split("CAST\\(\\? AS BIGINT\\)", -1).length - 1);
+        Map<Object, Object[]> rows = rows(args.getValue());
+        assertEquals(3L, rows.get("alice")[2]);
+        assertEquals(LocalDateTime.ofInstant(NOW.plusSeconds(4), ZoneOffset.UTC), rows.get("alice")[1]);
+        assertEquals(1L, rows.get("bob")[2]);
+        assertEquals(2.0, meterRegistry.get("auth.login.activity.flushed").counter().count());
+    }
+
+    @Test
+    @DisplayName("сброс разбивается на пачки по batch-size, пустой сброс не обращается к БД")
+    void flush_ShouldSplitIntoBatches() {
+        LoginActivityTracker tracker = new LoginActivityTracker(jdbcTemplate, meterRegistry, 2, clock);
+        tracker.flush();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+
+        for (int i = 0; i < 5; i++) {
+            tracker.recordLogin("user" + i);
+        }
+        tracker.flush();
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("при ошибке записи входы возвращаются и попадают в следующий сброс")
+    void flush_ShouldKeepActivity_WhenUpdateFails() {
+        LoginActivityTracker tracker = new LoginActivityTracker(jdbcTemplate, meterRegistry, 500, clock);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(1);
+        tracker.recordLogin("alice");
+        tracker.flush();
+        tracker.recordLogin("alice");
+
+        tracker.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertEquals(2L, rows(args.getValue()).get("alice")[2]);
+    }
+
+    private static Map<Object, Object[]> rows(Object[] args) {
+        Map<Object, Object[]> rows = new HashMap<>();
+        for (int i = 0; i < args.length; i += 3) {
+            rows.put(args[i], Arrays.copyOfRange(args, i, i + 3));
+        }
+        return rows;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = NOW;
+
+        void advanceSeconds(long seconds) {
+            instant = instant.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
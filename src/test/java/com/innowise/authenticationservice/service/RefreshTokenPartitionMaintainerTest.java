@@ -0,0 +1,102 @@
+package com.innowise.authenticationservice.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Тесты для RefreshTokenPartitionMaintainer.
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPartitionMaintainerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 10);
+
+    @Mock
+    private JdbcTemplate session;
+
+    private RefreshTokenPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-10T12:00:00Z"), ZoneOffset.UTC);
+        maintainer = new RefreshTokenPartitionMaintainer(null, Duration.ofDays(1), clock);
+    }
+
+    @Test
+    @DisplayName("секции создаются на срок жизни токена вперед плюс неделю запаса")
+    void maintain_ShouldCreatePartitionsAhead() {
+        partitioned(List.of());
+
+        maintainer.maintain(session);
+
+        // Сегодня и еще 1 + 7 дней
+        for (int day = 0; day <= 8; day++) {
+            LocalDate from = TODAY.plusDays(day);
+            verify(session).execute("CREATE TABLE IF NOT EXISTS " + RefreshTokenPartitionMaintainer.partitionName(from)
+                    + " PARTITION OF refresh_tokens FOR VALUES FROM ('" + from + "') TO ('" + from.plusDays(1) + "')");
+        }
+        verify(session, never()).execute(contains(RefreshTokenPartitionMaintainer.partitionName(TODAY.plusDays(9))));
+    }
+
+    @Test
+    @DisplayName("истекшая секция отсоединяется CONCURRENTLY и удаляется, секция за вчера - нет до ее истечения")
+    void maintain_ShouldDetachConcurrentlyAndDrop_ExpiredPartitions() {
+        partitioned(List.of(
+                partition(TODAY.minusDays(2), false),
+                partition(TODAY.minusDays(1), true),
+                partition(TODAY, false)));
+
+        maintainer.maintain(session);
+
+        String twoDaysAgo = RefreshTokenPartitionMaintainer.partitionName(TODAY.minusDays(2));
+        String yesterday = RefreshTokenPartitionMaintainer.partitionName(TODAY.minusDays(1));
+        String today = RefreshTokenPartitionMaintainer.partitionName(TODAY);
+        verify(session).execute("ALTER TABLE refresh_tokens DETACH PARTITION " + twoDaysAgo + " CONCURRENTLY");
+        verify(session).execute("DROP TABLE IF EXISTS " + twoDaysAgo);
+        // Прерванный DETACH CONCURRENTLY завершается FINALIZE
+        verify(session).execute("ALTER TABLE refresh_tokens DETACH PARTITION " + yesterday + " FINALIZE");
+        verify(session).execute("DROP TABLE IF EXISTS " + yesterday);
+        verify(session, never()).execute("DROP TABLE IF EXISTS " + today);
+    }
+
+    @Test
+    @DisplayName("без секционирования истекшие строки удаляются DELETE")
+    void maintain_ShouldDeleteExpiredRows_WhenTableIsNotPartitioned() {
+        when(session.queryForObject(anyString(), eq(Boolean.class), eq("refresh_tokens"))).thenReturn(false);
+
+        maintainer.maintain(session);
+
+        verify(session).update("DELETE FROM refresh_tokens WHERE expires_at <= now() AT TIME ZONE 'UTC'");
+        verify(session, never()).execute(anyString());
+        verify(session, never()).queryForList(anyString(), eq("refresh_tokens"));
+    }
+
+    private void partitioned(List<Map<String, Object>> partitions) {
+        when(session.queryForObject(anyString(), eq(Boolean.class), eq("refresh_tokens"))).thenReturn(true);
+        when(session.queryForList(anyString(), eq("refresh_tokens"))).thenReturn(partitions);
+    }
+
+    private static Map<String, Object> partition(LocalDate day, boolean detachPending) {
+        return Map.of("relname", RefreshTokenPartitionMaintainer.partitionName(day), "inhdetachpending", detachPending);
+    }
+}
@@ -0,0 +1,128 @@
+package com.innowise.authenticationservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.innowise.authenticationservice.audit.AuditTrail;
+import com.innowise.authenticationservice.exception.AuthenticationException;
+import com.innowise.authenticationservice.metrics.AuthMetrics;
+import com.innowise.authenticationservice.model.RefreshToken;
+import com.innowise.authenticationservice.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Тесты для RefreshTokenService.
+ * Проверяет формат непрозрачного токена, ротацию и обнаружение повторного использования.
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+    private static final Duration REFRESH_EXPIRATION = Duration.ofDays(1);
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private AuditTrail auditTrail;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, new AuthMetrics(meterRegistry),
+                auditTrail, REFRESH_EXPIRATION, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("issue - в БД сохраняется только хеш, срок действия закодирован в токене")
+    void issue_ShouldStoreHashAndEncodeExpiry() {
+        String token = refreshTokenService.issue("testuser");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(RefreshTokenService.hash(token), saved.getValue().getTokenHash());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals("testuser", saved.getValue().getUserLogin());
+        assertEquals(LocalDateTime.ofInstant(NOW.plus(REFRESH_EXPIRATION), ZoneOffset.UTC),
+                saved.getValue().getExpiresAt());
+        assertTrue(token.length() < 64, "opaque token should be much shorter than a JWT: " + token);
+    }
+
+    @Test
+    @DisplayName("rotate - старый токен гасится, новый выдается в том же семействе")
+    void rotate_ShouldMarkUsedAndIssueTokenInSameFamily() {
+        String token = refreshTokenService.issue("testuser");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        when(refreshTokenRepository.findToken(stored.getTokenHash(), stored.getExpiresAt()))
+                .thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(stored.getTokenHash(), stored.getExpiresAt(),
+                LocalDateTime.ofInstant(NOW, ZoneOffset.UTC))).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertEquals("testuser", rotation.login());
+        assertNotEquals(token, rotation.refreshToken());
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertEquals(stored.getFamilyId(), saved.getValue().getFamilyId());
+    }
+
+    @Test
+    @DisplayName("rotate - повторное использование замененного токена отзывает все семейство")
+    void rotate_ShouldRevokeFamily_WhenTokenIsReused() {
+        String token = refreshTokenService.issue("testuser");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        when(refreshTokenRepository.findToken(stored.getTokenHash(), stored.getExpiresAt()))
+                .thenReturn(Optional.of(stored));
+        // Токен уже погашен предыдущей ротацией
+        when(refreshTokenRepository.markUsed(any(), any(), any())).thenReturn(0);
+
+        AuthenticationException exception = assertThrows(AuthenticationException.class,
+                () -> refreshTokenService.rotate(token));
+
+        assertEquals("Invalid refresh token", exception.getMessage());
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+        assertEquals(1.0, meterRegistry.get(AuthMetrics.FAILURE_COUNTER)
+                .tag("reason", "token_reuse").counter().count());
+        verify(auditTrail).failure(AuthMetrics.REFRESH, stored.getUserLogin(), "token_reuse");
+    }
+
+    @Test
+    @DisplayName("rotate - токен неизвестного формата отклоняется без обращения к БД")
+    void rotate_ShouldRejectMalformedToken() {
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate("no-separator"));
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(".empty-expiry"));
+
+        verify(refreshTokenRepository, never()).findToken(anyString(), any());
+    }
+}
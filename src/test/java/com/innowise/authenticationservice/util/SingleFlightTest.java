@@ -0,0 +1,92 @@
+package com.innowise.authenticationservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для SingleFlight.
+ */
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("одновременные вызовы с одним ключом выполняют действие один раз и получают один результат")
+    void execute_ShouldRunActionOnce_ForConcurrentCalls() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("token", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "result-" + executions.incrementAndGet();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("token",
+                        () -> "result-" + executions.incrementAndGet())));
+            }
+            while (singleFlight.sharedCalls() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result-1", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, executions.get());
+        assertEquals(callers - 1, singleFlight.sharedCalls());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("в течение grace повторный вызов получает уже готовый результат")
+    void execute_ShouldShareResult_WithinGrace() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, singleFlight.execute("token", executions::incrementAndGet));
+        assertEquals(1, singleFlight.execute("token", executions::incrementAndGet));
+        assertEquals(2, singleFlight.execute("other", executions::incrementAndGet));
+        assertEquals(1, singleFlight.sharedCalls());
+    }
+
+    @Test
+    @DisplayName("ошибка не запоминается - следующий вызов выполняет действие заново")
+    void execute_ShouldNotCacheFailures() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("token", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", singleFlight.execute("token", () -> "ok"));
+        assertEquals(0, singleFlight.sharedCalls());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.innowise.authenticationservice.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innowise.authenticationservice.model.Role;
+import com.innowise.authenticationservice.model.UserVersion;
+import com.innowise.authenticationservice.repository.UserRepository;
+import com.innowise.authenticationservice.security.JwtTokenProvider;
+import com.innowise.authenticationservice.security.PasswordEncoder;
+import com.innowise.authenticationservice.security.UserVersionCache;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Тесты для AuthPathWarmer.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthPathWarmerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private UserVersionCache userVersionCache;
+
+    @Mock
+    private HikariDataSource hikariDataSource;
+
+    @Test
+    @DisplayName("выполняет заданное число итераций и заполняет пул до minimumIdle")
+    void warmUp_ShouldRunConfiguredIterations() throws Exception {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(jwtTokenProvider.generateAccessToken(anyString(), any(Role.class), anyLong())).thenReturn("token");
+        when(hikariDataSource.getMinimumIdle()).thenReturn(3);
+        when(hikariDataSource.getConnection()).thenReturn(mock(Connection.class));
+        AuthPathWarmer warmer = warmer(hikariDataSource, 50, 2, 60_000);
+
+        warmer.warmUp();
+
+        assertTrue(warmer.isWarmedUp());
+        verify(hikariDataSource, times(3)).getConnection();
+        verify(passwordEncoder, times(2)).matches(anyString(), eq("hash"));
+        verify(jwtTokenProvider, times(50)).validateToken("token");
+        verify(jwtTokenProvider, times(50)).parseToken("token");
+        // Токены проверяются для синтетического пользователя в кэше, после прогрева он убирается
+        verify(userVersionCache).put(new UserVersion(AuthPathWarmer.WARMUP_LOGIN, Role.ROLE_USER, 0));
+        verify(userVersionCache).evict(AuthPathWarmer.WARMUP_LOGIN);
+    }
+
+    @Test
+    @DisplayName("исчерпанный бюджет времени прекращает итерации")
+    void warmUp_ShouldStop_WhenTimeBudgetExhausted() {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        DataSource dataSource = mock(DataSource.class);
+        AuthPathWarmer warmer = warmer(dataSource, 1_000_000, 1_000_000, 0);
+
+        warmer.warmUp();
+
+        assertTrue(warmer.isWarmedUp());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(jwtTokenProvider, never()).validateToken(anyString());
+    }
+
+    @Test
+    @DisplayName("до прогрева isWarmedUp возвращает false")
+    void isWarmedUp_ShouldBeFalse_BeforeWarmUp() {
+        assertFalse(warmer(hikariDataSource, 1, 1, 1_000).isWarmedUp());
+    }
+
+    private AuthPathWarmer warmer(DataSource dataSource, int tokenIterations, int passwordIterations, long budgetMs) {
+        return new AuthPathWarmer(userRepository, passwordEncoder, jwtTokenProvider, userVersionCache,
+                new ObjectMapper().findAndRegisterModules(),
+                dataSource, tokenIterations, passwordIterations, budgetMs);
+    }
+}